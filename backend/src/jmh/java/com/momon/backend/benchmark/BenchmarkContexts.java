@@ -0,0 +1,66 @@
+package com.momon.backend.benchmark;
+
+import com.momon.backend.MomonBackendApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Boots the backend without a web server against a private in-memory H2 database,
+ * with mock AI and mock S3 so benchmarks never leave the JVM.
+ */
+final class BenchmarkContexts {
+
+    private BenchmarkContexts() {
+    }
+
+    static ConfigurableApplicationContext start(String databaseName, Map<String, Object> overrides) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.url", "jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("spring.h2.console.enabled", "false");
+        properties.put("ai.mock.enabled", "true");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.momon", "WARN");
+        properties.putAll(overrides);
+
+        SpringApplication application = new SpringApplication(MomonBackendApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        application.setDefaultProperties(properties);
+        return application.run();
+    }
+
+    /**
+     * Seeds {@code devices} users with {@code monstersPerDevice} monsters each, one second apart,
+     * with names and descriptions of the length the mock AI produces.
+     */
+    static void seedGallery(JdbcTemplate jdbcTemplate, String devicePrefix, int devices, int monstersPerDevice) {
+        LocalDateTime now = LocalDateTime.now();
+        String prompt = "A cute jelly-like monster with sparkling iridescent body, kawaii style, pastel colors";
+        for (int d = 0; d < devices; d++) {
+            String deviceId = devicePrefix + d;
+            jdbcTemplate.update("INSERT INTO users (device_id, first_seen_at, last_seen_at) VALUES (?, ?, ?)",
+                deviceId, Timestamp.valueOf(now), Timestamp.valueOf(now));
+
+            List<Object[]> rows = new ArrayList<>(monstersPerDevice);
+            for (int i = 0; i < monstersPerDevice; i++) {
+                rows.add(new Object[]{deviceId, "스파클 슬라임 " + i,
+                    "반짝이는 젤리 같은 몸을 가진 귀여운 몬스터입니다. 빛을 받으면 무지개빛으로 반짝이며, 포근한 성격을 가지고 있어요.",
+                    "https://momon-images.s3.ap-northeast-2.amazonaws.com/monsters/" + deviceId + "-" + i + ".png",
+                    prompt, Timestamp.valueOf(now.minusSeconds(i))});
+            }
+            jdbcTemplate.batchUpdate("""
+                INSERT INTO monsters (device_id, name, description, image_url, prompt, created_at)
+                VALUES (?, ?, ?, ?, ?, ?)
+                """, rows);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.momon.backend.benchmark;
+
+import com.momon.backend.dto.MonsterResponse;
+import com.momon.backend.service.ByteArrayMultipartFile;
+import com.momon.backend.service.MonsterService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Full {@link MonsterService#createMonster} round trip: user touch, preprocessing of a phone-sized
+ * photo, {@code MockAIService} and S3 mock mode, and the insert. The generation cache is disabled
+ * so every invocation runs the whole pipeline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CreateMonsterBenchmark {
+
+    private static final int DEVICES = 100;
+
+    private ConfigurableApplicationContext context;
+    private MonsterService monsterService;
+    private ByteArrayMultipartFile photo;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkContexts.start("createbench", Map.of(
+            "ai.cache.enabled", "false",
+            // The bulkheads would otherwise throttle the benchmark threads, not the pipeline
+            "downstream.chat.initial-limit", "256",
+            "downstream.chat.max-limit", "256",
+            "downstream.image.initial-limit", "256",
+            "downstream.image.max-limit", "256"));
+        monsterService = context.getBean(MonsterService.class);
+        photo = new ByteArrayMultipartFile("photo.jpg", "image/jpeg", phonePhoto());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MonsterResponse createMonster() {
+        long n = sequence.incrementAndGet();
+        return monsterService.createMonster("bench-device-" + (n % DEVICES), photo, "오늘은 조금 피곤하지만 설레는 하루 " + n);
+    }
+
+    // 3024x4032 gradient JPEG, the size a phone camera uploads
+    private static byte[] phonePhoto() throws IOException {
+        BufferedImage image = new BufferedImage(3024, 4032, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setPaint(new GradientPaint(0, 0, new Color(255, 229, 229), 3024, 4032, new Color(255, 107, 157)));
+        graphics.fillRect(0, 0, 3024, 4032);
+        graphics.dispose();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", out);
+        return out.toByteArray();
+    }
+}
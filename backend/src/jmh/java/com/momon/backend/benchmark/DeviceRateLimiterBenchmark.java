@@ -0,0 +1,53 @@
+package com.momon.backend.benchmark;
+
+import com.momon.backend.service.DeviceRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one rate-limit decision: every thread hammering the same device (worst-case CAS contention),
+ * and threads spread over many devices with buckets being created and evicted.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DeviceRateLimiterBenchmark {
+
+    private static final int DEVICES = 1_000_000;
+
+    private DeviceRateLimiter limiter;
+    private String[] deviceIds;
+
+    @Setup
+    public void setUp() {
+        // Short refill period, so the hot device keeps moving between allowed and rejected
+        limiter = new DeviceRateLimiter(new SimpleMeterRegistry(), true, 5, Duration.ofNanos(200), 100_000);
+        deviceIds = new String[DEVICES];
+        for (int i = 0; i < DEVICES; i++) {
+            deviceIds[i] = "device-" + i;
+        }
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean sameDevice() {
+        return limiter.tryAcquire("hot-device").allowed();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean manyDevices() {
+        return limiter.tryAcquire(deviceIds[ThreadLocalRandom.current().nextInt(DEVICES)]).allowed();
+    }
+}
@@ -0,0 +1,83 @@
+package com.momon.backend.benchmark;
+
+import com.momon.backend.dto.MonsterCursor;
+import com.momon.backend.dto.MonsterResponse;
+import com.momon.backend.repository.MonsterRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gallery keyset queries on H2 seeded with 200 devices of 500 monsters each.
+ * Each invocation picks a random device so a single hot set of rows does not flatter the result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GalleryQueryBenchmark {
+
+    private static final String DEVICE_PREFIX = "bench-device-";
+    private static final int DEVICES = 200;
+    private static final int MONSTERS_PER_DEVICE = 500;
+    private static final Pageable PAGE = PageRequest.of(0, 21);
+
+    private ConfigurableApplicationContext context;
+    private MonsterRepository monsterRepository;
+    private TransactionTemplate readOnly;
+
+    // Cursor halfway through each device's gallery
+    private MonsterCursor[] middleCursors;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start("gallerybench", Map.of());
+        monsterRepository = context.getBean(MonsterRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        BenchmarkContexts.seedGallery(context.getBean(JdbcTemplate.class), DEVICE_PREFIX, DEVICES, MONSTERS_PER_DEVICE);
+
+        middleCursors = new MonsterCursor[DEVICES];
+        for (int d = 0; d < DEVICES; d++) {
+            List<MonsterResponse> gallery = monsterRepository.findGalleryFirstPage(
+                DEVICE_PREFIX + d, PageRequest.of(0, MONSTERS_PER_DEVICE / 2));
+            middleCursors[d] = MonsterCursor.of(gallery.get(gallery.size() - 1));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<MonsterResponse> firstPage() {
+        int device = ThreadLocalRandom.current().nextInt(DEVICES);
+        return readOnly.execute(status -> monsterRepository.findGalleryFirstPage(DEVICE_PREFIX + device, PAGE));
+    }
+
+    @Benchmark
+    public List<MonsterResponse> pageAfterCursor() {
+        int device = ThreadLocalRandom.current().nextInt(DEVICES);
+        MonsterCursor cursor = middleCursors[device];
+        return readOnly.execute(status -> monsterRepository.findGalleryPageAfter(
+            DEVICE_PREFIX + device, cursor.createdAt(), cursor.id(), PAGE));
+    }
+}
@@ -0,0 +1,77 @@
+package com.momon.backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.momon.backend.dto.MonsterCursor;
+import com.momon.backend.dto.MonsterPageResponse;
+import com.momon.backend.dto.MonsterResponse;
+import com.momon.backend.entity.Monster;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO mapping and JSON serialization of one gallery page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MonsterResponseBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private List<Monster> monsters;
+    private MonsterPageResponse page;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        // Same module discovery as Spring Boot's auto-configured mapper (JavaTimeModule for createdAt)
+        objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+        LocalDateTime now = LocalDateTime.now();
+        monsters = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            monsters.add(Monster.builder()
+                .id((long) i)
+                .name("스파클 슬라임 " + i)
+                .description("반짝이는 젤리 같은 몸을 가진 귀여운 몬스터입니다. 빛을 받으면 무지개빛으로 반짝이며, 포근한 성격을 가지고 있어요.")
+                .imageUrl("https://momon-images.s3.ap-northeast-2.amazonaws.com/monsters/" + i + ".png")
+                .prompt("A cute jelly-like monster with sparkling iridescent body, kawaii style, pastel colors")
+                .createdAt(now.minusSeconds(i))
+                .build());
+        }
+        List<MonsterResponse> responses = mapAll();
+        page = new MonsterPageResponse(responses, MonsterCursor.of(responses.get(responses.size() - 1)).encode());
+    }
+
+    @Benchmark
+    public List<MonsterResponse> mapAll() {
+        List<MonsterResponse> responses = new ArrayList<>(monsters.size());
+        for (Monster monster : monsters) {
+            responses.add(MonsterResponse.from(monster));
+        }
+        return responses;
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(new MonsterPageResponse(mapAll(), page.nextCursor()));
+    }
+}
@@ -0,0 +1,366 @@
+package com.momon.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local stand-ins for OpenAI (chat, batches, image generation and the image host) and S3,
+ * each with its own latency distribution and error rates.
+ * A batch completes after one {@code batch} latency sample, however many requests it holds.
+ * Start the backend with the {@code loadtest} profile to point it at these servers.
+ *
+ * <pre>
+ * ./gradlew fakeServers --args="--chat=median=2s,p99=8s,throttle-rate=0.02 --image=median=10s,p99=25s"
+ * </pre>
+ */
+public class FakeServers {
+
+    private static final LatencyProfile DEFAULT_CHAT = new LatencyProfile(Duration.ofMillis(2500), Duration.ofSeconds(8), 0.005, 0.01);
+    private static final LatencyProfile DEFAULT_IMAGE = new LatencyProfile(Duration.ofSeconds(10), Duration.ofSeconds(25), 0.005, 0.02);
+    private static final LatencyProfile DEFAULT_DOWNLOAD = new LatencyProfile(Duration.ofMillis(150), Duration.ofMillis(800), 0, 0);
+    private static final LatencyProfile DEFAULT_S3 = new LatencyProfile(Duration.ofMillis(60), Duration.ofMillis(400), 0.001, 0.001);
+    private static final LatencyProfile DEFAULT_BATCH = new LatencyProfile(Duration.ofSeconds(30), Duration.ofSeconds(90), 0, 0);
+    private static final Pattern CUSTOM_ID = Pattern.compile("\"custom_id\":\"([^\"]+)\"");
+    private static final Pattern INPUT_FILE_ID = Pattern.compile("\"input_file_id\":\"([^\"]+)\"");
+
+    private final LatencyProfile chat;
+    private final LatencyProfile image;
+    private final LatencyProfile download;
+    private final LatencyProfile s3;
+    private final LatencyProfile batch;
+    private final byte[] imageBytes;
+    private final AtomicLong chatCompletions = new AtomicLong();
+    private final Map<String, String> files = new ConcurrentHashMap<>();
+    private final Map<String, FakeBatch> batches = new ConcurrentHashMap<>();
+
+    FakeServers(LatencyProfile chat, LatencyProfile image, LatencyProfile download, LatencyProfile s3,
+                LatencyProfile batch, int imageSize) {
+        this.chat = chat;
+        this.image = image;
+        this.download = download;
+        this.s3 = s3;
+        this.batch = batch;
+        this.imageBytes = noisePng(imageSize);
+    }
+
+    /**
+     * A decodable PNG of roughly the requested size. Random pixels barely compress, so transfer cost
+     * matches a real image and the backend still pays the decode and resize cost of its variants.
+     */
+    private static byte[] noisePng(int approximateBytes) {
+        int side = Math.max(16, (int) Math.sqrt(approximateBytes / 3.0));
+        BufferedImage png = new BufferedImage(side, side, BufferedImage.TYPE_INT_RGB);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; x++) {
+                png.setRGB(x, y, random.nextInt(0x1000000));
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(approximateBytes);
+        try {
+            ImageIO.write(png, "png", out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public static void main(String[] args) throws IOException {
+        Options options = Options.parse(args);
+        FakeServers fakes = new FakeServers(
+            LatencyProfile.parse(options.get("chat", null), DEFAULT_CHAT),
+            LatencyProfile.parse(options.get("image", null), DEFAULT_IMAGE),
+            LatencyProfile.parse(options.get("download", null), DEFAULT_DOWNLOAD),
+            LatencyProfile.parse(options.get("s3", null), DEFAULT_S3),
+            LatencyProfile.parse(options.get("batch", null), DEFAULT_BATCH),
+            options.getInt("image-bytes", 1_500_000));
+
+        int openAiPort = options.getInt("openai-port", 9090);
+        int s3Port = options.getInt("s3-port", 9091);
+        fakes.start(openAiPort, s3Port);
+
+        System.out.printf("🧪 Fake OpenAI on http://localhost:%d%n", openAiPort);
+        System.out.printf("   - chat:     %s%n", fakes.chat);
+        System.out.printf("   - batch:    %s%n", fakes.batch);
+        System.out.printf("   - image:    %s%n", fakes.image);
+        System.out.printf("   - download: %s (%,d bytes)%n", fakes.download, fakes.imageBytes.length);
+        System.out.printf("🧪 Fake S3 on http://localhost:%d%n", s3Port);
+        System.out.printf("   - s3:       %s%n", fakes.s3);
+    }
+
+    void start(int openAiPort, int s3Port) throws IOException {
+        HttpServer openAi = HttpServer.create(new InetSocketAddress(openAiPort), 1024);
+        openAi.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        openAi.createContext("/v1/chat/completions", this::chatCompletion);
+        openAi.createContext("/v1/files", this::files);
+        openAi.createContext("/v1/batches", this::batches);
+        openAi.createContext("/v1/images/generations", this::imageGeneration);
+        openAi.createContext("/images/", this::serveImage);
+        openAi.start();
+
+        HttpServer s3Server = HttpServer.create(new InetSocketAddress(s3Port), 1024);
+        s3Server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        s3Server.createContext("/", this::serveS3);
+        s3Server.start();
+    }
+
+    private void chatCompletion(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            boolean stream = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8)
+                .contains("\"stream\":true");
+            long latency = chat.sampleMillis();
+            // Streaming responses start after the time to first token and spread the rest over the remainder
+            long firstToken = stream ? latency * 2 / 5 : latency;
+            int status = delay(chat, firstToken);
+            if (status != 200) {
+                respondError(exchange, status);
+                return;
+            }
+            long n = chatCompletions.incrementAndGet();
+            String content = completionContent(n);
+            if (stream) {
+                streamCompletion(exchange, n, content, latency - firstToken);
+                return;
+            }
+            respondJson(exchange, 200, completion(n, content));
+        }
+    }
+
+    // Escaped for embedding in a JSON string
+    private static String completionContent(long n) {
+        return "{\\\"name\\\":\\\"부하 몬스터 " + n + "\\\","
+            + "\\\"description\\\":\\\"부하 테스트에서 태어난 몬스터입니다. 지치지 않아요.\\\","
+            + "\\\"imagePrompt\\\":\\\"A cute load test monster, kawaii style, pastel colors\\\"}";
+    }
+
+    private static String completion(long n, String content) {
+        return "{\"id\":\"chatcmpl-" + n + "\",\"object\":\"chat.completion\","
+            + "\"choices\":[{\"index\":0,\"message\":{\"role\":\"assistant\",\"content\":\"" + content + "\"},"
+            + "\"finish_reason\":\"stop\"}]}";
+    }
+
+    // Upload (multipart, the file part is kept as text) and download of batch input and output files
+    private void files(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            if ("POST".equals(exchange.getRequestMethod())) {
+                String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                int part = body.indexOf("name=\"file\"");
+                int start = body.indexOf("\r\n\r\n", part) + 4;
+                int end = body.lastIndexOf("\r\n--");
+                if (part < 0 || start < 4 || end < start) {
+                    respondJson(exchange, 400, "{\"error\":{\"message\":\"No file part\"}}");
+                    return;
+                }
+                String id = "file-" + UUID.randomUUID();
+                files.put(id, body.substring(start, end));
+                respondJson(exchange, 200, "{\"id\":\"" + id + "\",\"object\":\"file\",\"purpose\":\"batch\"}");
+                return;
+            }
+
+            String id = path.replaceFirst("^/v1/files/", "").replaceFirst("/content$", "");
+            String content = files.get(id);
+            if (content == null) {
+                respondJson(exchange, 404, "{\"error\":{\"message\":\"No such file\"}}");
+                return;
+            }
+            respond(exchange, 200, "application/jsonl", content);
+        }
+    }
+
+    // Create, poll and cancel; every request of a finished batch gets a canned completion
+    private void batches(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            String path = exchange.getRequestURI().getPath();
+            if ("/v1/batches".equals(path)) {
+                Matcher inputFileId = INPUT_FILE_ID.matcher(body);
+                String input = inputFileId.find() ? files.remove(inputFileId.group(1)) : null;
+                if (input == null) {
+                    respondJson(exchange, 400, "{\"error\":{\"message\":\"Unknown input file\"}}");
+                    return;
+                }
+                StringBuilder output = new StringBuilder();
+                Matcher customId = CUSTOM_ID.matcher(input);
+                while (customId.find()) {
+                    long n = chatCompletions.incrementAndGet();
+                    output.append("{\"custom_id\":\"").append(customId.group(1)).append("\",")
+                        .append("\"response\":{\"status_code\":200,\"body\":")
+                        .append(completion(n, completionContent(n))).append("},\"error\":null}\n");
+                }
+                String outputFileId = "file-" + UUID.randomUUID();
+                files.put(outputFileId, output.toString());
+                FakeBatch created = new FakeBatch("batch_" + UUID.randomUUID(), outputFileId,
+                    System.nanoTime() + Duration.ofMillis(batch.sampleMillis()).toNanos());
+                batches.put(created.id(), created);
+                respondJson(exchange, 200, batchJson(created, "validating"));
+                return;
+            }
+
+            String id = path.replaceFirst("^/v1/batches/", "").replaceFirst("/cancel$", "");
+            FakeBatch found = batches.get(id);
+            if (found == null) {
+                respondJson(exchange, 404, "{\"error\":{\"message\":\"No such batch\"}}");
+            } else if (path.endsWith("/cancel")) {
+                batches.remove(id);
+                files.remove(found.outputFileId());
+                respondJson(exchange, 200, batchJson(found, "cancelled"));
+            } else {
+                respondJson(exchange, 200, batchJson(found,
+                    System.nanoTime() >= found.readyAtNanos() ? "completed" : "in_progress"));
+            }
+        }
+    }
+
+    private static String batchJson(FakeBatch fake, String status) {
+        return "{\"id\":\"" + fake.id() + "\",\"object\":\"batch\",\"status\":\"" + status + "\","
+            + "\"output_file_id\":" + ("completed".equals(status) ? "\"" + fake.outputFileId() + "\"" : "null") + "}";
+    }
+
+    // Sends the escaped JSON content in small chunks, like OpenAI's server-sent events
+    private static void streamCompletion(HttpExchange exchange, long n, String content, long remainingMillis)
+        throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+
+        int chunkSize = 8;
+        long pause = remainingMillis / ((content.length() + chunkSize - 1) / chunkSize);
+        int start = 0;
+        while (start < content.length()) {
+            int end = Math.min(start + chunkSize, content.length());
+            // Never split an escape sequence across chunks
+            while (end < content.length() && content.charAt(end - 1) == '\\') {
+                end++;
+            }
+            String delta = content.substring(start, end);
+            start = end;
+            out.write(("data: {\"id\":\"chatcmpl-" + n + "\",\"object\":\"chat.completion.chunk\","
+                + "\"choices\":[{\"index\":0,\"delta\":{\"content\":\"" + delta + "\"}}]}\n\n")
+                .getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            try {
+                Thread.sleep(pause);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void imageGeneration(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+            int status = delay(image);
+            if (status != 200) {
+                respondError(exchange, status);
+                return;
+            }
+            String host = exchange.getRequestHeaders().getFirst("Host");
+            String url = "http://" + host + "/images/" + UUID.randomUUID() + ".png";
+            respondJson(exchange, 200, "{\"created\":" + System.currentTimeMillis() / 1000
+                + ",\"data\":[{\"url\":\"" + url + "\"}]}");
+        }
+    }
+
+    private void serveImage(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            int status = delay(download);
+            if (status != 200) {
+                respondError(exchange, status);
+                return;
+            }
+            exchange.getResponseHeaders().add("Content-Type", "image/png");
+            exchange.sendResponseHeaders(200, imageBytes.length);
+            exchange.getResponseBody().write(imageBytes);
+        }
+    }
+
+    // Just enough of the S3 REST API for PutObject and multipart uploads
+    private void serveS3(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            long received = exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+            int status = delay(s3);
+            if (status != 200) {
+                String code = status == 429 ? "SlowDown" : "InternalError";
+                respondXml(exchange, status == 429 ? 503 : 500,
+                    "<Error><Code>" + code + "</Code><Message>Injected by fake S3</Message></Error>");
+                return;
+            }
+
+            String method = exchange.getRequestMethod();
+            String query = exchange.getRequestURI().getRawQuery();
+            query = query == null ? "" : query;
+            if ("POST".equals(method) && query.contains("uploads")) {
+                respondXml(exchange, 200, "<InitiateMultipartUploadResult><UploadId>" + UUID.randomUUID()
+                    + "</UploadId></InitiateMultipartUploadResult>");
+            } else if ("POST".equals(method) && query.contains("uploadId")) {
+                respondXml(exchange, 200, "<CompleteMultipartUploadResult><ETag>\"done\"</ETag>"
+                    + "</CompleteMultipartUploadResult>");
+            } else if ("DELETE".equals(method)) {
+                exchange.sendResponseHeaders(204, -1);
+            } else {
+                exchange.getResponseHeaders().add("ETag", "\"" + Long.toHexString(received) + "\"");
+                exchange.sendResponseHeaders(200, -1);
+            }
+        }
+    }
+
+    private static int delay(LatencyProfile profile) {
+        return delay(profile, profile.sampleMillis());
+    }
+
+    private static int delay(LatencyProfile profile, long millis) {
+        try {
+            return profile.delayAndPickStatus(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 500;
+        }
+    }
+
+    private static void respondError(HttpExchange exchange, int status) throws IOException {
+        if (status == 429) {
+            exchange.getResponseHeaders().add("Retry-After", "1");
+        }
+        respondJson(exchange, status, "{\"error\":{\"message\":\"Injected by fake OpenAI\",\"type\":\""
+            + (status == 429 ? "rate_limit_exceeded" : "server_error") + "\"}}");
+    }
+
+    private static void respondJson(HttpExchange exchange, int status, String body) throws IOException {
+        respond(exchange, status, "application/json", body);
+    }
+
+    private static void respondXml(HttpExchange exchange, int status, String body) throws IOException {
+        respond(exchange, status, "application/xml", body);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private record FakeBatch(String id, String outputFileId, long readyAtNanos) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.momon.loadtest;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Latency and failure model for one fake endpoint.
+ * Latency is log-normal, fitted to the given median and p99, which matches the long tail
+ * of real AI APIs far better than a fixed sleep.
+ *
+ * <p>Spec format: {@code median=800ms,p99=4s,error-rate=0.01,throttle-rate=0.02}
+ */
+record LatencyProfile(Duration median, Duration p99, double errorRate, double throttleRate) {
+
+    // z-score of the 99th percentile of a standard normal distribution
+    private static final double Z_99 = 2.326;
+
+    static LatencyProfile parse(String spec, LatencyProfile defaults) {
+        Duration median = defaults.median();
+        Duration p99 = defaults.p99();
+        double errorRate = defaults.errorRate();
+        double throttleRate = defaults.throttleRate();
+
+        if (spec != null && !spec.isBlank()) {
+            for (String part : spec.split(",")) {
+                String[] pair = part.trim().split("=", 2);
+                if (pair.length != 2) {
+                    throw new IllegalArgumentException("Invalid latency spec: " + part);
+                }
+                switch (pair[0]) {
+                    case "median" -> median = parseDuration(pair[1]);
+                    case "p99" -> p99 = parseDuration(pair[1]);
+                    case "error-rate" -> errorRate = Double.parseDouble(pair[1]);
+                    case "throttle-rate" -> throttleRate = Double.parseDouble(pair[1]);
+                    default -> throw new IllegalArgumentException("Unknown latency setting: " + pair[0]);
+                }
+            }
+        }
+        if (p99.compareTo(median) < 0) {
+            throw new IllegalArgumentException("p99 must not be below the median: " + spec);
+        }
+        return new LatencyProfile(median, p99, errorRate, throttleRate);
+    }
+
+    static Duration parseDuration(String value) {
+        String v = value.trim();
+        if (v.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        }
+        if (v.endsWith("s")) {
+            return Duration.ofMillis(Math.round(Double.parseDouble(v.substring(0, v.length() - 1)) * 1000));
+        }
+        return Duration.ofMillis(Long.parseLong(v));
+    }
+
+    long sampleMillis() {
+        double medianMs = Math.max(median.toMillis(), 1);
+        if (p99.equals(median)) {
+            return median.toMillis();
+        }
+        double mu = Math.log(medianMs);
+        double sigma = Math.log(Math.max(p99.toMillis(), 1) / medianMs) / Z_99;
+        return Math.round(Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+    }
+
+    /**
+     * Sleeps for the given latency sample and returns the HTTP status the fake should answer with.
+     */
+    int delayAndPickStatus(long millis) throws InterruptedException {
+        Thread.sleep(millis);
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < throttleRate) {
+            return 429;
+        }
+        if (roll < throttleRate + errorRate) {
+            return 500;
+        }
+        return 200;
+    }
+
+    @Override
+    public String toString() {
+        return "median=" + median.toMillis() + "ms, p99=" + p99.toMillis() + "ms, error-rate=" + errorRate
+            + ", throttle-rate=" + throttleRate;
+    }
+}
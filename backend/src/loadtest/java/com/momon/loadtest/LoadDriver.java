@@ -0,0 +1,255 @@
+package com.momon.loadtest;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Closed-loop load driver for {@code POST /api/v1/monsters}.
+ * Runs one step per concurrency level; every virtual user sends its next request as soon as the
+ * previous one returns. Prints throughput, p50/p99 latency and error rate per step and writes the
+ * same numbers as CSV for comparison between runs.
+ * With {@code --batch-rate} it also submits that many batch-lane jobs per second in the background,
+ * to check that interactive latency holds up while batch work competes for the same providers.
+ *
+ * <pre>
+ * ./gradlew loadTest --args="--target=http://localhost:8080 --concurrency=1,8,32,128 --duration=60s"
+ * ./gradlew loadTest --args="--concurrency=16 --batch-rate=5"
+ * </pre>
+ */
+public class LoadDriver {
+
+    private static final String BOUNDARY = "momon-load-" + UUID.randomUUID();
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+
+    private final URI endpoint;
+    private final byte[] photo;
+    private final Duration requestTimeout;
+    private final int devices;
+
+    LoadDriver(URI endpoint, byte[] photo, Duration requestTimeout, int devices) {
+        this.endpoint = endpoint;
+        this.photo = photo;
+        this.requestTimeout = requestTimeout;
+        this.devices = devices;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        URI endpoint = URI.create(options.get("target", "http://localhost:8080") + "/api/v1/monsters");
+        int[] levels = Arrays.stream(options.get("concurrency", "1,4,16,64").split(","))
+            .mapToInt(level -> Integer.parseInt(level.trim()))
+            .toArray();
+        Duration duration = LatencyProfile.parseDuration(options.get("duration", "30s"));
+        Duration warmup = LatencyProfile.parseDuration(options.get("warmup", "5s"));
+        String photoPath = options.get("photo", null);
+        byte[] photo = photoPath != null ? Files.readAllBytes(Path.of(photoPath)) : samplePhoto();
+        Path out = Path.of(options.get("out", "build/results/loadtest/results.csv"));
+
+        LoadDriver driver = new LoadDriver(endpoint, photo,
+            LatencyProfile.parseDuration(options.get("request-timeout", "120s")), options.getInt("devices", 1000));
+
+        System.out.printf("🚀 Load test against %s (photo: %,d bytes, %s per step)%n", endpoint, photo.length, duration);
+        double batchRate = Double.parseDouble(options.get("batch-rate", "0"));
+        AtomicBoolean stopBatch = new AtomicBoolean();
+        AtomicLong batchAccepted = new AtomicLong();
+        Thread batchLoad = null;
+        if (batchRate > 0) {
+            URI jobs = URI.create(endpoint + "/jobs?lane=batch");
+            System.out.printf("📦 Background batch load: %.1f jobs/s to %s%n", batchRate, jobs);
+            batchLoad = Thread.ofVirtual().start(() -> driver.submitBatchJobs(jobs, batchRate, stopBatch, batchAccepted));
+        }
+        System.out.printf("%11s %9s %10s %9s %9s %9s %8s  %s%n",
+            "concurrency", "requests", "req/s", "p50 ms", "p99 ms", "max ms", "errors", "statuses");
+
+        List<StepResult> results = new ArrayList<>();
+        for (int concurrency : levels) {
+            driver.runStep(concurrency, warmup);
+            StepResult result = driver.runStep(concurrency, duration);
+            results.add(result);
+            System.out.printf("%11d %9d %10.2f %9d %9d %9d %7.2f%%  %s%n",
+                result.concurrency(), result.requests(), result.throughput(), result.percentileMillis(0.50),
+                result.percentileMillis(0.99), result.percentileMillis(1.0), result.errorRate() * 100, result.statuses());
+        }
+        if (batchLoad != null) {
+            stopBatch.set(true);
+            batchLoad.join();
+            System.out.printf("📦 Batch jobs accepted: %,d%n", batchAccepted.get());
+        }
+        writeCsv(out, results);
+        System.out.printf("📄 Results written to %s%n", out.toAbsolutePath());
+    }
+
+    // Open loop: jobs go out at a fixed rate whatever the response times
+    void submitBatchJobs(URI jobs, double perSecond, AtomicBoolean stop, AtomicLong accepted) {
+        long interval = (long) (1_000_000_000L / perSecond);
+        long next = System.nanoTime();
+        try (ExecutorService submitters = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long n = 0; !stop.get(); n++) {
+                long sequence = n;
+                submitters.submit(() -> {
+                    if (send(jobs, "batch-device-" + (sequence % devices), "배치 감정 " + sequence) == 202) {
+                        accepted.incrementAndGet();
+                    }
+                });
+                next += interval;
+                LockSupport.parkNanos(next - System.nanoTime());
+            }
+        }
+    }
+
+    StepResult runStep(int concurrency, Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<long[]> latencies = new ArrayList<>();
+        Map<Integer, AtomicLong> statuses = new TreeMap<>();
+        AtomicLong sequence = new AtomicLong();
+
+        long start = System.nanoTime();
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int u = 0; u < concurrency; u++) {
+                long[][] own = {new long[1024]};
+                int[] count = {0};
+                users.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long n = sequence.incrementAndGet();
+                        long requestStart = System.nanoTime();
+                        int status = send(endpoint, "load-device-" + (n % devices), "부하 테스트 감정 " + n);
+                        long elapsed = System.nanoTime() - requestStart;
+                        if (count[0] == own[0].length) {
+                            own[0] = Arrays.copyOf(own[0], own[0].length * 2);
+                        }
+                        own[0][count[0]++] = elapsed;
+                        synchronized (statuses) {
+                            statuses.computeIfAbsent(status, s -> new AtomicLong()).incrementAndGet();
+                        }
+                    }
+                    synchronized (latencies) {
+                        latencies.add(Arrays.copyOf(own[0], count[0]));
+                    }
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        Map<Integer, Long> statusCounts = new TreeMap<>();
+        statuses.forEach((status, count) -> statusCounts.put(status, count.get()));
+        return new StepResult(concurrency, all, elapsed, statusCounts);
+    }
+
+    // Returns the HTTP status, or 0 when the request failed without a response
+    private int send(URI target, String deviceId, String emotionText) {
+        HttpRequest request = HttpRequest.newBuilder(target)
+            .timeout(requestTimeout)
+            .header("X-Device-ID", deviceId)
+            .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+            .POST(HttpRequest.BodyPublishers.ofByteArray(multipartBody(emotionText)))
+            .build();
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+    }
+
+    private byte[] multipartBody(String emotionText) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(photo.length + 512);
+        body.writeBytes(("--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"image\"; filename=\"photo.jpg\"\r\n"
+            + "Content-Type: image/jpeg\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(photo);
+        body.writeBytes(("\r\n--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"text\"\r\n"
+            + "Content-Type: text/plain; charset=UTF-8\r\n\r\n"
+            + emotionText + "\r\n"
+            + "--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return body.toByteArray();
+    }
+
+    // 3024x4032 gradient JPEG, the size a phone camera uploads
+    private static byte[] samplePhoto() throws IOException {
+        BufferedImage image = new BufferedImage(3024, 4032, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setPaint(new GradientPaint(0, 0, new Color(255, 229, 229), 3024, 4032, new Color(255, 107, 157)));
+        graphics.fillRect(0, 0, 3024, 4032);
+        graphics.dispose();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", out);
+        return out.toByteArray();
+    }
+
+    private static void writeCsv(Path out, List<StepResult> results) throws IOException {
+        if (out.getParent() != null) {
+            Files.createDirectories(out.getParent());
+        }
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(out))) {
+            writer.println("concurrency,requests,throughput_rps,p50_ms,p99_ms,max_ms,error_rate");
+            for (StepResult r : results) {
+                writer.printf("%d,%d,%.3f,%d,%d,%d,%.5f%n", r.concurrency(), r.requests(), r.throughput(),
+                    r.percentileMillis(0.50), r.percentileMillis(0.99), r.percentileMillis(1.0), r.errorRate());
+            }
+        }
+    }
+
+    record StepResult(int concurrency, long[] sortedLatencies, long elapsedNanos, Map<Integer, Long> statuses) {
+
+        long requests() {
+            return sortedLatencies.length;
+        }
+
+        double throughput() {
+            return requests() / (elapsedNanos / 1e9);
+        }
+
+        long percentileMillis(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+            return Duration.ofNanos(sortedLatencies[Math.max(index, 0)]).toMillis();
+        }
+
+        // Anything other than 2xx counts as an error, including 503 from a full bulkhead
+        double errorRate() {
+            if (requests() == 0) {
+                return 0;
+            }
+            long ok = statuses.entrySet().stream()
+                .filter(entry -> entry.getKey() / 100 == 2)
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+            return 1.0 - (double) ok / requests();
+        }
+    }
+}
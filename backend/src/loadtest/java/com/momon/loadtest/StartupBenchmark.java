@@ -0,0 +1,200 @@
+package com.momon.loadtest;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Cold-start comparison of the standard boot jar and the fast-startup build (Spring AOT + CDS archive).
+ * Each run starts a fresh JVM, polls one endpoint until it answers 200 and records the time since
+ * launch (time-to-first-request) and the resident set size at that moment. Runs alternate between the
+ * two builds so drift on the machine affects both alike.
+ *
+ * <pre>
+ * ./gradlew bootJar cdsArchive -PfastStartup -PaotProfiles=loadtest,fast-startup
+ * ./gradlew startupBenchmark --args="--runs=10"
+ * </pre>
+ */
+public class StartupBenchmark {
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofMillis(200))
+        .build();
+
+    private final String javaCommand;
+    private final Path logDir;
+    private final int port;
+    private final String path;
+    private final Duration timeout;
+
+    StartupBenchmark(String javaCommand, Path logDir, int port, String path, Duration timeout) {
+        this.javaCommand = javaCommand;
+        this.logDir = logDir;
+        this.port = port;
+        this.path = path;
+        this.timeout = timeout;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        Path jar = options.get("jar", null) != null ? Path.of(options.get("jar", null)) : bootJar();
+        Path fastDir = Path.of(options.get("fast-dir", "build/fast-startup"));
+        int runs = options.getInt("runs", 5);
+        int warmupRuns = options.getInt("warmup-runs", 1);
+        Path out = Path.of(options.get("out", "build/results/startup/results.csv"));
+        if (!Files.exists(fastDir.resolve("app.jsa"))) {
+            throw new IllegalStateException(fastDir.resolve("app.jsa") + " not found, run ./gradlew cdsArchive -PfastStartup first");
+        }
+
+        // The archive only matches the JVM that wrote it, so children use the same java as Gradle gave us
+        String java = ProcessHandle.current().info().command().orElse("java");
+        StartupBenchmark benchmark = new StartupBenchmark(java, out.toAbsolutePath().getParent(),
+            options.getInt("port", 18080), options.get("path", "/readyz"),
+            LatencyProfile.parseDuration(options.get("timeout", "120s")));
+
+        List<Variant> variants = List.of(
+            new Variant("standard", jar.getParent(), List.of(
+                "-jar", jar.toAbsolutePath().toString(),
+                "--spring.profiles.active=" + options.get("profiles", "loadtest"))),
+            new Variant("fast", fastDir, List.of(
+                "-XX:SharedArchiveFile=app.jsa", "-Dspring.aot.enabled=true",
+                "-jar", "app.jar",
+                "--spring.profiles.active=" + options.get("fast-profiles", "loadtest,fast-startup")))
+        );
+
+        System.out.printf("🚀 Startup benchmark: %d runs per build (+%d warmup), first request GET %s%n",
+            runs, warmupRuns, benchmark.path);
+        for (int i = 0; i < warmupRuns; i++) {
+            for (Variant variant : variants) {
+                benchmark.start(variant, "warmup-" + i);
+            }
+        }
+
+        List<RunResult> results = new ArrayList<>();
+        for (int i = 0; i < runs; i++) {
+            for (Variant variant : variants) {
+                RunResult result = benchmark.start(variant, String.valueOf(i));
+                results.add(result);
+                System.out.printf("  %-8s run %2d: first request after %,6d ms, RSS %,5d MB%n",
+                    variant.name(), i, result.firstRequestMillis(), result.rssBytes() / (1024 * 1024));
+            }
+        }
+
+        System.out.printf("%n%-8s %10s %10s %10s %10s%n", "build", "p50 ms", "min ms", "max ms", "RSS MB");
+        for (Variant variant : variants) {
+            long[] millis = results.stream().filter(r -> r.variant().equals(variant.name()))
+                .mapToLong(RunResult::firstRequestMillis).sorted().toArray();
+            long[] rss = results.stream().filter(r -> r.variant().equals(variant.name()))
+                .mapToLong(RunResult::rssBytes).sorted().toArray();
+            System.out.printf("%-8s %10d %10d %10d %10d%n", variant.name(), median(millis), millis[0],
+                millis[millis.length - 1], median(rss) / (1024 * 1024));
+        }
+        writeCsv(out, results);
+        System.out.printf("📄 Results written to %s (application logs next to it)%n", out.toAbsolutePath());
+    }
+
+    RunResult start(Variant variant, String run) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(javaCommand);
+        command.addAll(variant.arguments());
+        command.add("--server.port=" + port);
+
+        Files.createDirectories(logDir);
+        Path log = logDir.resolve(variant.name() + "-" + run + ".log");
+        long launched = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+            .directory(variant.workingDir().toFile())
+            .redirectErrorStream(true)
+            .redirectOutput(log.toFile())
+            .start();
+        try {
+            awaitFirstResponse(process, log);
+            long firstRequestNanos = System.nanoTime() - launched;
+            return new RunResult(variant.name(), run, TimeUnit.NANOSECONDS.toMillis(firstRequestNanos), rss(process.pid()));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private void awaitFirstResponse(Process process, Path log) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+            .timeout(Duration.ofSeconds(5))
+            .GET()
+            .build();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue() + ", see " + log);
+            }
+            try {
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("No 200 from " + path + " within " + timeout + ", see " + log);
+    }
+
+    // Resident set size from /proc on Linux, ps elsewhere
+    private static long rss(long pid) throws IOException, InterruptedException {
+        Path status = Path.of("/proc", String.valueOf(pid), "status");
+        if (Files.exists(status)) {
+            try (Stream<String> lines = Files.lines(status)) {
+                return lines.filter(line -> line.startsWith("VmRSS:"))
+                    .map(line -> Long.parseLong(line.replaceAll("\\D", "")) * 1024)
+                    .findFirst()
+                    .orElse(0L);
+            }
+        }
+        Process ps = new ProcessBuilder("ps", "-o", "rss=", "-p", String.valueOf(pid)).start();
+        String kilobytes = new String(ps.getInputStream().readAllBytes()).trim();
+        ps.waitFor();
+        return kilobytes.isEmpty() ? 0 : Long.parseLong(kilobytes) * 1024;
+    }
+
+    private static Path bootJar() throws IOException {
+        try (Stream<Path> jars = Files.list(Path.of("build/libs"))) {
+            return jars.filter(jar -> jar.toString().endsWith(".jar") && !jar.toString().endsWith("-plain.jar"))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No boot jar in build/libs, run ./gradlew bootJar first"));
+        }
+    }
+
+    private static long median(long[] sorted) {
+        return sorted[sorted.length / 2];
+    }
+
+    private static void writeCsv(Path out, List<RunResult> results) throws IOException {
+        if (out.getParent() != null) {
+            Files.createDirectories(out.getParent());
+        }
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(out))) {
+            writer.println("build,run,first_request_ms,rss_bytes");
+            for (RunResult r : results) {
+                writer.printf("%s,%s,%d,%d%n", r.variant(), r.run(), r.firstRequestMillis(), r.rssBytes());
+            }
+        }
+    }
+
+    record Variant(String name, Path workingDir, List<String> arguments) {
+    }
+
+    record RunResult(String variant, String run, long firstRequestMillis, long rssBytes) {
+    }
+}
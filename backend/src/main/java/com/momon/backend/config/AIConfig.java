@@ -7,5 +7,5 @@ import org.springframework.context.annotation.Configuration;
 public class AIConfig {
     // AIService implementations are loaded via @ConditionalOnProperty
     // - MockAIService: when ai.mock.enabled=true (default)
-    // - RealAIService: when ai.mock.enabled=false (production)
+    // - OpenAIService: when ai.mock.enabled=false (production, or a local stand-in via spring.ai.openai.base-url)
 }
@@ -0,0 +1,51 @@
+package com.momon.backend.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String MONSTERS = "monsters";
+    public static final String GENERATIONS = "generations";
+
+    @Value("${monster.cache.maximum-size:10000}")
+    private long monsterCacheMaximumSize;
+
+    @Value("${monster.cache.expire-after-write:24h}")
+    private Duration monsterCacheExpireAfterWrite;
+
+    @Value("${ai.cache.memory.maximum-size:5000}")
+    private long generationCacheMaximumSize;
+
+    @Value("${ai.cache.memory.ttl:6h}")
+    private Duration generationCacheTtl;
+
+    /**
+     * Caches are registered explicitly so each one gets its own bounds.
+     * recordStats() feeds the cache.gets / cache.evictions metrics under /actuator/metrics.
+     */
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(MONSTERS, Caffeine.newBuilder()
+            .maximumSize(monsterCacheMaximumSize)
+            .expireAfterWrite(monsterCacheExpireAfterWrite)
+            .recordStats()
+            .build());
+        cacheManager.registerCustomCache(GENERATIONS, Caffeine.newBuilder()
+            .maximumSize(generationCacheMaximumSize)
+            .expireAfterWrite(generationCacheTtl)
+            .recordStats()
+            .build());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,77 @@
+package com.momon.backend.config;
+
+import com.momon.backend.service.DeviceRateLimiter;
+import com.momon.backend.service.IdempotencyStore;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Applies {@link DeviceRateLimiter} to the monster create endpoints. Runs as a filter so
+ * a rejected request is answered with 429 before its multipart upload is read.
+ * Requests without a device id pass through; the controllers reject them. So does a create retried
+ * with an {@code Idempotency-Key} the device already used: it only waits for or replays the
+ * earlier result, so it costs no token.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CreateRateLimitFilter extends OncePerRequestFilter {
+
+    private static final Set<String> CREATE_PATHS = Set.of(
+        "/api/v1/monsters",
+        "/api/v1/monsters/stream",
+        "/api/v1/monsters/jobs"
+    );
+
+    private static final String IDEMPOTENT_CREATE_PATH = "/api/v1/monsters";
+
+    private final DeviceRateLimiter rateLimiter;
+    private final IdempotencyStore idempotencyStore;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod()) || !CREATE_PATHS.contains(pathOf(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        String deviceId = request.getHeader(ReplicaReadFilter.DEVICE_HEADER);
+        if (deviceId == null || deviceId.isBlank()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String idempotencyKey = request.getHeader(IdempotencyStore.KEY_HEADER);
+        if (idempotencyKey != null && IDEMPOTENT_CREATE_PATH.equals(pathOf(request))
+                && idempotencyStore.contains(deviceId, idempotencyKey)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        DeviceRateLimiter.Decision decision = rateLimiter.tryAcquire(deviceId);
+        if (!decision.allowed()) {
+            log.warn("🚦 Create rate limit hit by device {}, retry in {}s", deviceId, decision.retryAfterSeconds());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(decision.retryAfterSeconds()));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value());
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
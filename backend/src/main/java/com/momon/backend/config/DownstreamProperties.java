@@ -0,0 +1,38 @@
+package com.momon.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Concurrency, queueing and retry limits per downstream dependency.
+ */
+@Data
+@ConfigurationProperties(prefix = "downstream")
+public class DownstreamProperties {
+
+    private Limits chat = new Limits();
+    private Limits image = new Limits();
+    private Limits s3 = new Limits();
+
+    @Data
+    public static class Limits {
+        // Adaptive concurrency limit starts here and moves between min and max
+        private int initialLimit = 8;
+        private int minLimit = 1;
+        private int maxLimit = 32;
+        // Callers waiting for a permit; beyond this they are rejected at once
+        private int queueSize = 100;
+        private Duration queueTimeout = Duration.ofSeconds(30);
+        // Retries on 429 / 5xx with exponential backoff and full jitter
+        private int maxRetries = 3;
+        private Duration baseBackoff = Duration.ofMillis(500);
+        private Duration maxBackoff = Duration.ofSeconds(10);
+        // Limit shrinks when smoothed latency exceeds baseline latency by this factor
+        private double latencyTolerance = 2.0;
+        // Batch-lane calls get at most this share of the limit, and only while no interactive call waits
+        private double batchShare = 0.25;
+        private Duration batchQueueTimeout = Duration.ofMinutes(10);
+    }
+}
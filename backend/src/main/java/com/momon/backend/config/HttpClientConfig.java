@@ -0,0 +1,27 @@
+package com.momon.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+@Configuration
+public class HttpClientConfig {
+
+    @Value("${http.client.connect-timeout:10s}")
+    private Duration connectTimeout;
+
+    /**
+     * Shared client for outbound downloads. It keeps connections alive between calls,
+     * so repeated downloads from the AI image host skip the TCP and TLS handshake.
+     */
+    @Bean
+    public HttpClient httpClient() {
+        return HttpClient.newBuilder()
+            .connectTimeout(connectTimeout)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+    }
+}
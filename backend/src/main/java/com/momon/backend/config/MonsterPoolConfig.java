@@ -0,0 +1,9 @@
+package com.momon.backend.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(MonsterPoolProperties.class)
+public class MonsterPoolConfig {
+}
@@ -0,0 +1,48 @@
+package com.momon.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stock of pre-generated monsters served while the AI provider is down,
+ * and the circuit breaker that decides when to serve them.
+ */
+@Data
+@ConfigurationProperties(prefix = "monster.pool")
+public class MonsterPoolProperties {
+
+    private boolean enabled = true;
+    // Monsters kept in stock per mood, filled off-peak
+    private int targetSize = 20;
+    // Below this a mood is refilled at any hour
+    private int minSize = 5;
+    // Hours [start, end) of the server's local time when the pool fills up to targetSize
+    private int offPeakStartHour = 2;
+    private int offPeakEndHour = 7;
+    // Monsters generated per fill round, and at the same time
+    private int fillBatchSize = 10;
+    private int fillConcurrency = 2;
+    // Mood -> keywords matched against the emotion text; the first mood is the fallback
+    private Map<String, List<String>> moods = new LinkedHashMap<>(Map.of("calm", List.of()));
+    private Breaker breaker = new Breaker();
+
+    @Data
+    public static class Breaker {
+        // Outcomes of the last windowSize AI calls decide when to open
+        private int windowSize = 20;
+        private int minimumCalls = 10;
+        private double failureRateThreshold = 0.5;
+        private double slowCallRateThreshold = 0.8;
+        // Calls slower than this count as slow
+        private Duration analyzeSlo = Duration.ofSeconds(20);
+        private Duration generateSlo = Duration.ofSeconds(60);
+        // Time before live requests are tried again, and how many
+        private Duration openDuration = Duration.ofSeconds(30);
+        private int trialRequests = 3;
+    }
+}
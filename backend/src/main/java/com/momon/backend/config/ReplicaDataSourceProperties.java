@@ -0,0 +1,18 @@
+package com.momon.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas of {@code spring.datasource}. Each takes the usual url, username and password.
+ */
+@Data
+@ConfigurationProperties(prefix = "datasource")
+public class ReplicaDataSourceProperties {
+
+    private List<DataSourceProperties> replicas = new ArrayList<>();
+}
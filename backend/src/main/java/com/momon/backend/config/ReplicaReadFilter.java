@@ -0,0 +1,40 @@
+package com.momon.backend.config;
+
+import com.momon.backend.service.ReadYourWrites;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Lets read-only transactions of GET and HEAD requests use a replica, unless the requesting
+ * device wrote within the read-your-writes window. Has no effect without configured replicas.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReplicaReadFilter extends OncePerRequestFilter {
+
+    public static final String DEVICE_HEADER = "X-Device-ID";
+
+    private final ReadYourWrites readYourWrites;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        boolean safeMethod = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+        if (safeMethod && !readYourWrites.wroteRecently(request.getHeader(DEVICE_HEADER))) {
+            ReplicaRoutingDataSource.allowReplicaReads();
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.clear();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.momon.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Target of read-only connections: the replicas in round-robin order, but only on threads
+ * that opted in with {@link #allowReplicaReads}. Everything else — background workers,
+ * scheduled sweeps, requests of devices that just wrote — reads from the primary,
+ * which always has their own latest writes.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final String PRIMARY = "primary";
+    private static final ThreadLocal<Boolean> REPLICA_READS_ALLOWED = new ThreadLocal<>();
+    // Set once a connection of this thread went to a replica, whose rows may lag behind the primary
+    private static final ThreadLocal<Boolean> REPLICA_READ = new ThreadLocal<>();
+
+    private final List<HikariDataSource> replicas;
+    private final List<String> replicaKeys = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas) {
+        this.replicas = replicas;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (HikariDataSource replica : replicas) {
+            String key = replica.getPoolName();
+            replicaKeys.add(key);
+            targets.put(key, replica);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    public static void allowReplicaReads() {
+        REPLICA_READS_ALLOWED.set(Boolean.TRUE);
+    }
+
+    public static void clear() {
+        REPLICA_READS_ALLOWED.remove();
+        REPLICA_READ.remove();
+    }
+
+    /**
+     * Whether this thread has read from a replica since {@link #allowReplicaReads}.
+     */
+    public static boolean readFromReplica() {
+        return Boolean.TRUE.equals(REPLICA_READ.get());
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!Boolean.TRUE.equals(REPLICA_READS_ALLOWED.get()) || replicaKeys.isEmpty()) {
+            return PRIMARY;
+        }
+        REPLICA_READ.set(Boolean.TRUE);
+        return replicaKeys.get(Math.floorMod(next.getAndIncrement(), replicaKeys.size()));
+    }
+
+    @Override
+    public void destroy() {
+        replicas.forEach(HikariDataSource::close);
+    }
+}
@@ -1,19 +1,29 @@
 package com.momon.backend.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
 
+import java.net.URI;
+
+// Only S3ImageStore needs the client; the local store starts without loading the AWS SDK
 @Configuration
+@ConditionalOnProperty(name = "image.store.type", havingValue = "s3", matchIfMissing = true)
 public class S3Config {
 
     @Value("${aws.s3.region:ap-northeast-2}")
     private String region;
 
+    // Optional S3-compatible endpoint (e.g. a local stand-in); empty means AWS
+    @Value("${aws.s3.endpoint:}")
+    private String endpoint;
+
     @Value("${aws.credentials.access-key:}")
     private String accessKey;
 
@@ -22,18 +32,23 @@ public class S3Config {
 
     @Bean
     public S3Client s3Client() {
+        S3ClientBuilder builder = S3Client.builder()
+            .region(Region.of(region));
+
+        if (endpoint != null && !endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint))
+                .forcePathStyle(true);
+        }
+
         // If credentials are not provided, use default credentials provider chain
         if (accessKey == null || accessKey.isBlank() ||
             secretKey == null || secretKey.isBlank()) {
-            return S3Client.builder()
-                .region(Region.of(region))
-                .build();
+            return builder.build();
         }
 
         // Use provided credentials
         AwsBasicCredentials credentials = AwsBasicCredentials.create(accessKey, secretKey);
-        return S3Client.builder()
-            .region(Region.of(region))
+        return builder
             .credentialsProvider(StaticCredentialsProvider.create(credentials))
             .build();
     }
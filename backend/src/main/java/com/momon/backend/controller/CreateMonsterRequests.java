@@ -0,0 +1,54 @@
+package com.momon.backend.controller;
+
+import com.momon.backend.service.ImageType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.Optional;
+
+/**
+ * Checks shared by every endpoint that creates a monster from a photo and an emotion text.
+ */
+@Slf4j
+final class CreateMonsterRequests {
+
+    static final int MAX_EMOTION_TEXT_LENGTH = 100;
+
+    private CreateMonsterRequests() {
+    }
+
+    /**
+     * Returns the status to reject the request with, or empty when it can go ahead:
+     * {@code 400} for a missing device id, image or text or a text that is too long,
+     * {@code 415} for an image whose bytes are not a supported {@link ImageType}.
+     */
+    static Optional<HttpStatus> rejection(String deviceId, MultipartFile image, String emotionText) {
+        if (deviceId == null || deviceId.isBlank()) {
+            log.warn("   ❌ Missing X-Device-ID header");
+            return Optional.of(HttpStatus.BAD_REQUEST);
+        }
+
+        if (image == null || image.isEmpty()) {
+            log.warn("   ❌ Missing or empty image");
+            return Optional.of(HttpStatus.BAD_REQUEST);
+        }
+
+        if (emotionText == null || emotionText.isBlank()) {
+            log.warn("   ❌ Missing emotion text");
+            return Optional.of(HttpStatus.BAD_REQUEST);
+        }
+
+        if (emotionText.length() > MAX_EMOTION_TEXT_LENGTH) {
+            log.warn("   ❌ Emotion text too long: {} characters", emotionText.length());
+            return Optional.of(HttpStatus.BAD_REQUEST);
+        }
+
+        // Checked by magic bytes; the client's content type and file name are not trusted
+        if (ImageType.detect(image).isEmpty()) {
+            log.warn("   ❌ Unsupported image format: {} ({})", image.getOriginalFilename(), image.getContentType());
+            return Optional.of(HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+        }
+        return Optional.empty();
+    }
+}
@@ -1,15 +1,31 @@
 package com.momon.backend.controller;
 
+import com.momon.backend.dto.MonsterPageResponse;
 import com.momon.backend.dto.MonsterResponse;
+import com.momon.backend.service.BulkheadFullException;
+import com.momon.backend.service.CircuitOpenException;
+import com.momon.backend.service.GenerationResultCache;
+import com.momon.backend.service.IdempotencyInProgressException;
+import com.momon.backend.service.IdempotencyKeyReusedException;
+import com.momon.backend.service.IdempotencyStore;
 import com.momon.backend.service.MonsterService;
+import com.momon.backend.service.MonsterStreamService;
+import com.momon.backend.service.RecentMonsterFeed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.List;
+import java.time.Duration;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/v1/monsters")
@@ -17,11 +33,26 @@ import java.util.List;
 @Slf4j
 public class MonsterController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = IdempotencyStore.KEY_HEADER;
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final MonsterService monsterService;
+    private final MonsterStreamService monsterStreamService;
+    private final IdempotencyStore idempotencyStore;
+    private final GenerationResultCache generationResultCache;
+    private final RecentMonsterFeed recentMonsterFeed;
+
+    @Value("${monster.gallery.max-page-size:100}")
+    private int maxPageSize;
 
+    /**
+     * With an {@code Idempotency-Key} header, a retry of the same request by the same device
+     * waits for the first one (or gets its stored response) instead of creating another monster.
+     */
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<MonsterResponse> createMonster(
         @RequestHeader("X-Device-ID") String deviceId,
+        @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
         @RequestPart("image") MultipartFile image,
         @RequestPart("text") String emotionText
     ) {
@@ -30,40 +61,105 @@ public class MonsterController {
         log.info("   - Image: {}", image.getOriginalFilename());
         log.info("   - Emotion text: {}", emotionText);
 
-        // Validation
-        if (deviceId == null || deviceId.isBlank()) {
-            log.warn("   ❌ Missing X-Device-ID header");
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > 255)) {
+            log.warn("   ❌ Invalid Idempotency-Key");
             return ResponseEntity.badRequest().build();
         }
 
-        if (image == null || image.isEmpty()) {
-            log.warn("   ❌ Missing or empty image");
-            return ResponseEntity.badRequest().build();
+        Optional<HttpStatus> rejection = CreateMonsterRequests.rejection(deviceId, image, emotionText);
+        if (rejection.isPresent()) {
+            return ResponseEntity.status(rejection.get()).build();
         }
 
-        if (emotionText == null || emotionText.isBlank()) {
-            log.warn("   ❌ Missing emotion text");
-            return ResponseEntity.badRequest().build();
-        }
+        try {
+            if (idempotencyKey == null) {
+                MonsterResponse response = monsterService.createMonster(deviceId, image, emotionText);
+                log.info("   ✅ Monster created: {}", response.id());
+                return ResponseEntity.ok(response);
+            }
 
-        if (emotionText.length() > 100) {
-            log.warn("   ❌ Emotion text too long: {} characters", emotionText.length());
-            return ResponseEntity.badRequest().build();
-        }
+            // Same key with another photo or text is a client bug, not a retry.
+            // The fingerprint is the generation cache key, so the pipeline reuses it instead of hashing again.
+            String fingerprint = generationResultCache.keyOf(image, emotionText);
+            IdempotencyStore.Result result = idempotencyStore.execute(deviceId, idempotencyKey, fingerprint,
+                () -> monsterService.createMonster(deviceId, image, emotionText, fingerprint));
+            if (!result.replayed()) {
+                log.info("   ✅ Monster created: {}", result.response().id());
+                return ResponseEntity.ok(result.response());
+            }
 
-        try {
-            MonsterResponse response = monsterService.createMonster(deviceId, image, emotionText);
-            log.info("   ✅ Monster created: {}", response.id());
-            return ResponseEntity.ok(response);
+            // The stored response may still point at the temporary image URL
+            MonsterResponse response = result.response().imagePending()
+                ? monsterService.getMonsterById(result.response().id())
+                : result.response();
+            log.info("   ✅ Replayed monster {} for Idempotency-Key {}", response.id(), idempotencyKey);
+            return ResponseEntity.ok()
+                .header(IDEMPOTENT_REPLAYED_HEADER, "true")
+                .body(response);
+        } catch (IdempotencyKeyReusedException e) {
+            log.warn("   ❌ {}", e.getMessage());
+            return ResponseEntity.unprocessableEntity().build();
+        } catch (IdempotencyInProgressException e) {
+            log.warn("   ❌ {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header(HttpHeaders.RETRY_AFTER, "10")
+                .build();
+        } catch (BulkheadFullException | CircuitOpenException e) {
+            log.warn("   ❌ Downstream unavailable: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .build();
         } catch (Exception e) {
             log.error("   ❌ Failed to create monster", e);
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    /**
+     * Same as {@link #createMonster}, but answers with a Server-Sent Events stream:
+     * {@code stage}, {@code characteristics.delta}, {@code characteristics} and {@code image}
+     * while the pipeline runs, then {@code monster} (or {@code error}) as the last event.
+     */
+    @PostMapping(path = "/stream", consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+                 produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> createMonsterStream(
+        @RequestHeader("X-Device-ID") String deviceId,
+        @RequestPart("image") MultipartFile image,
+        @RequestPart("text") String emotionText
+    ) {
+        log.info("📥 POST /api/v1/monsters/stream");
+        log.info("   - Device ID: {}", deviceId);
+
+        Optional<HttpStatus> rejection = CreateMonsterRequests.rejection(deviceId, image, emotionText);
+        if (rejection.isPresent()) {
+            return ResponseEntity.status(rejection.get()).build();
+        }
+        return ResponseEntity.ok(monsterStreamService.stream(deviceId, image, emotionText));
+    }
+
+    // Exact or weak match of one entry in the header; "*" is not used by our clients and falls through
+    private static boolean matchesIfNoneMatch(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String quoted = "\"" + eTag + "\"";
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.startsWith("W/")) {
+                trimmed = trimmed.substring(2);
+            }
+            if (trimmed.equals(quoted)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @GetMapping
-    public ResponseEntity<List<MonsterResponse>> getMonsters(
-        @RequestHeader("X-Device-ID") String deviceId
+    public ResponseEntity<MonsterPageResponse> getMonsters(
+        @RequestHeader("X-Device-ID") String deviceId,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "20") int size
     ) {
         log.info("📥 GET /api/v1/monsters");
         log.info("   - Device ID: {}", deviceId);
@@ -73,24 +169,73 @@ public class MonsterController {
             return ResponseEntity.badRequest().build();
         }
 
+        if (size < 1 || size > maxPageSize) {
+            log.warn("   ❌ Invalid page size: {}", size);
+            return ResponseEntity.badRequest().build();
+        }
+
         try {
-            List<MonsterResponse> monsters = monsterService.getMonstersByDeviceId(deviceId);
-            log.info("   ✅ Returning {} monsters", monsters.size());
-            return ResponseEntity.ok(monsters);
+            MonsterPageResponse page = monsterService.getMonsterPage(deviceId, cursor, size);
+            log.info("   ✅ Returning {} monsters", page.monsters().size());
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            log.warn("   ❌ Invalid cursor: {}", cursor);
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("   ❌ Failed to fetch monsters", e);
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    /**
+     * Newest monsters of all devices, for the public "recently summoned" page.
+     * Answered from the pre-serialized in-memory feed, so no request reaches the database.
+     */
+    @GetMapping("/recent")
+    public ResponseEntity<byte[]> getRecentMonsters(WebRequest webRequest) {
+        RecentMonsterFeed.Snapshot feed = recentMonsterFeed.snapshot();
+        if (webRequest.checkNotModified(feed.eTag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+            .eTag(feed.eTag())
+            .cacheControl(CacheControl.maxAge(Duration.ofSeconds(5)).cachePublic())
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(feed.json());
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<MonsterResponse> getMonster(@PathVariable Long id) {
+    public ResponseEntity<MonsterResponse> getMonster(@PathVariable Long id, WebRequest webRequest) {
         log.info("📥 GET /api/v1/monsters/{}", id);
 
+        // A monster only changes once: when its temporary image URL is swapped for the S3 URL.
+        // Until then it gets its own validator and must be revalidated; afterwards it is immutable,
+        // so a client holding the final validator is answered without looking the monster up.
+        String storedETag = "monster-" + id;
+        if (matchesIfNoneMatch(webRequest.getHeader(HttpHeaders.IF_NONE_MATCH), storedETag)) {
+            log.info("   ✅ Not modified: {}", id);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(storedETag)
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                .build();
+        }
+
         try {
             MonsterResponse monster = monsterService.getMonsterById(id);
+
+            String eTag = monster.imagePending() ? storedETag + "-pending" : storedETag;
+            if (webRequest.checkNotModified(eTag)) {
+                log.info("   ✅ Not modified: {}", id);
+                return null;
+            }
+
             log.info("   ✅ Returning monster: {}", monster.name());
-            return ResponseEntity.ok(monster);
+            return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(monster.imagePending()
+                    ? CacheControl.noCache()
+                    : CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                .body(monster);
         } catch (IllegalArgumentException e) {
             log.warn("   ❌ Monster not found: {}", id);
             return ResponseEntity.notFound().build();
@@ -0,0 +1,83 @@
+package com.momon.backend.controller;
+
+import com.momon.backend.dto.MonsterJobResponse;
+import com.momon.backend.entity.AiLane;
+import com.momon.backend.service.MonsterJobService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.net.URI;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/v1/monsters/jobs")
+@RequiredArgsConstructor
+@Slf4j
+public class MonsterJobController {
+
+    private final MonsterJobService monsterJobService;
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<MonsterJobResponse> submitMonsterJob(
+        @RequestHeader("X-Device-ID") String deviceId,
+        @RequestPart("image") MultipartFile image,
+        @RequestPart("text") String emotionText,
+        @RequestParam(value = "lane", defaultValue = "interactive") String lane
+    ) {
+        log.info("📥 POST /api/v1/monsters/jobs");
+        log.info("   - Device ID: {}", deviceId);
+        log.info("   - Lane: {}", lane);
+
+        Optional<AiLane> aiLane = AiLane.parse(lane);
+        if (aiLane.isEmpty()) {
+            log.warn("   ❌ Unknown lane: {}", lane);
+            return ResponseEntity.badRequest().build();
+        }
+
+        Optional<HttpStatus> rejection = CreateMonsterRequests.rejection(deviceId, image, emotionText);
+        if (rejection.isPresent()) {
+            return ResponseEntity.status(rejection.get()).build();
+        }
+
+        try {
+            MonsterJobResponse response = monsterJobService.submit(deviceId, image, emotionText, aiLane.get());
+            log.info("   ✅ Monster job accepted: {}", response.jobId());
+            return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/monsters/jobs/" + response.jobId()))
+                .body(response);
+        } catch (Exception e) {
+            log.error("   ❌ Failed to submit monster job", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<MonsterJobResponse> getMonsterJob(
+        @RequestHeader("X-Device-ID") String deviceId,
+        @PathVariable String jobId
+    ) {
+        log.info("📥 GET /api/v1/monsters/jobs/{}", jobId);
+
+        if (deviceId == null || deviceId.isBlank()) {
+            log.warn("   ❌ Missing X-Device-ID header");
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            MonsterJobResponse job = monsterJobService.getJob(jobId, deviceId);
+            log.info("   ✅ Job {} status: {}", jobId, job.status());
+            return ResponseEntity.ok(job);
+        } catch (IllegalArgumentException e) {
+            log.warn("   ❌ Monster job not found: {}", jobId);
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            log.error("   ❌ Failed to fetch monster job", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+}
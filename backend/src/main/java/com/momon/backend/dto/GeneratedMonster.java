@@ -0,0 +1,10 @@
+package com.momon.backend.dto;
+
+/**
+ * AI analysis result plus the permanently stored image, as kept by the generation result cache.
+ */
+public record GeneratedMonster(
+    MonsterCharacteristics characteristics,
+    StoredImage image
+) {
+}
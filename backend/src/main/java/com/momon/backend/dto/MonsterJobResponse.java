@@ -0,0 +1,26 @@
+package com.momon.backend.dto;
+
+import com.momon.backend.entity.MonsterJob;
+import com.momon.backend.entity.MonsterJobStatus;
+
+import java.time.LocalDateTime;
+
+public record MonsterJobResponse(
+    String jobId,
+    MonsterJobStatus status,
+    MonsterResponse monster,
+    String error,
+    LocalDateTime createdAt,
+    LocalDateTime updatedAt
+) {
+    public static MonsterJobResponse from(MonsterJob job, MonsterResponse monster) {
+        return new MonsterJobResponse(
+            job.getId(),
+            job.getStatus(),
+            monster,
+            job.getErrorMessage(),
+            job.getCreatedAt(),
+            job.getUpdatedAt()
+        );
+    }
+}
@@ -0,0 +1,9 @@
+package com.momon.backend.dto;
+
+import java.util.List;
+
+public record MonsterPageResponse(
+    List<MonsterResponse> monsters,
+    String nextCursor
+) {
+}
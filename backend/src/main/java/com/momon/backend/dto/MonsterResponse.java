@@ -7,17 +7,34 @@ import java.time.LocalDateTime;
 public record MonsterResponse(
     Long id,
     String imageUrl,
+    // Small variants for list views; fall back to imageUrl for monsters stored without variants
+    String thumbnailUrl,
+    String mediumUrl,
     String name,
     String description,
-    LocalDateTime createdAt
+    LocalDateTime createdAt,
+    // True while imageUrl is a temporary AI provider URL; it is replaced by the S3 URL shortly
+    boolean imagePending
 ) {
+    public MonsterResponse {
+        if (thumbnailUrl == null) {
+            thumbnailUrl = imageUrl;
+        }
+        if (mediumUrl == null) {
+            mediumUrl = imageUrl;
+        }
+    }
+
     public static MonsterResponse from(Monster monster) {
         return new MonsterResponse(
             monster.getId(),
             monster.getImageUrl(),
+            monster.getThumbnailUrl(),
+            monster.getMediumUrl(),
             monster.getName(),
             monster.getDescription(),
-            monster.getCreatedAt()
+            monster.getCreatedAt(),
+            monster.isImagePending()
         );
     }
 }
@@ -0,0 +1,10 @@
+package com.momon.backend.dto;
+
+import java.util.List;
+
+public record RecentMonstersResponse(
+    // Newest first, across all devices
+    List<MonsterResponse> monsters,
+    long totalMonsters
+) {
+}
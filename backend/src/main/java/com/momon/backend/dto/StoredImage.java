@@ -0,0 +1,15 @@
+package com.momon.backend.dto;
+
+/**
+ * A permanently stored monster image plus its downscaled variants.
+ * Variant URLs are null when no variants could be produced (mock mode, undecodable image).
+ */
+public record StoredImage(
+    String url,
+    String thumbnailUrl,
+    String mediumUrl
+) {
+    public static StoredImage of(String url) {
+        return new StoredImage(url, null, null);
+    }
+}
@@ -0,0 +1,29 @@
+package com.momon.backend.entity;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Priority lane of an AI call.
+ * Interactive calls have a user waiting on the answer; batch calls (campaign imports, "surprise me",
+ * pool stocking) can wait minutes, only get the capacity interactive traffic leaves over,
+ * and their photo analyses are grouped into provider batches.
+ */
+public enum AiLane {
+    INTERACTIVE,
+    BATCH;
+
+    /**
+     * Lower-case name used in metric tags and the {@code lane} request parameter.
+     */
+    public String tag() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static Optional<AiLane> parse(String value) {
+        return Arrays.stream(values())
+            .filter(lane -> lane.name().equalsIgnoreCase(value))
+            .findFirst();
+    }
+}
@@ -0,0 +1,51 @@
+package com.momon.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persistent tier of the generation result cache, keyed by the SHA-256 of image bytes + emotion text.
+ */
+@Entity
+@Table(name = "generation_cache", indexes = {
+    @Index(name = "idx_generation_cache_expires_at", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GenerationCacheEntry {
+
+    @Id
+    @Column(name = "cache_key", length = 64, nullable = false)
+    private String cacheKey;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Column(columnDefinition = "TEXT")
+    private String imagePrompt;
+
+    @Column(nullable = false, length = 500)
+    private String imageUrl;
+
+    @Column(length = 500)
+    private String thumbnailUrl;
+
+    @Column(length = 500)
+    private String mediumUrl;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
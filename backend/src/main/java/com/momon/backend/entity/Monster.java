@@ -11,7 +11,12 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "monsters")
+@Table(name = "monsters", indexes = {
+    // Serves the gallery's keyset pagination: device filter plus (created_at, id) ordering
+    @Index(name = "idx_monsters_device_created", columnList = "device_id, created_at, id"),
+    // Lets the sweep find monsters whose image still has to be copied to S3
+    @Index(name = "idx_monsters_image_pending", columnList = "image_pending, image_copy_retry_at")
+})
 @EntityListeners(AuditingEntityListener.class)
 @Data
 @NoArgsConstructor
@@ -36,9 +41,30 @@ public class Monster {
     @Column(nullable = false, length = 500)
     private String imageUrl;
 
+    // Downscaled copies stored next to the original; null for monsters created without variants
+    @Column(length = 500)
+    private String thumbnailUrl;
+
+    @Column(length = 500)
+    private String mediumUrl;
+
     @Column(columnDefinition = "TEXT")
     private String prompt;
 
+    // True while imageUrl is still the AI provider's temporary URL and the copy to S3 is outstanding
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private boolean imagePending;
+
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int imageCopyAttempts;
+
+    // Lease of the running copy, or the earliest time of the next retry
+    private LocalDateTime imageCopyRetryAt;
+
+    // True once the copy was given up because the provider URL expired; imageUrl no longer loads
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private boolean imageFailed;
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
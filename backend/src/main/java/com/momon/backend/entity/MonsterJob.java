@@ -0,0 +1,119 @@
+package com.momon.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * A durable monster generation request.
+ * Each stage result is stored on the row, so a job interrupted by a restart
+ * resumes after its last finished stage instead of paying for the AI calls again.
+ */
+@Entity
+@Table(name = "monster_jobs", indexes = {
+    @Index(name = "idx_monster_jobs_status_lease", columnList = "status, lease_expires_at")
+})
+@EntityListeners(AuditingEntityListener.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MonsterJob {
+
+    @Id
+    @Column(length = 36, nullable = false)
+    private String id;
+
+    @Column(name = "device_id", length = 36, nullable = false)
+    private String deviceId;
+
+    // Trace id of the submitting request, restored in worker logs
+    @Column(length = 64)
+    private String traceId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private MonsterJobStatus status;
+
+    @Column(nullable = false, length = 100)
+    private String emotionText;
+
+    // AI priority lane; null on jobs submitted before lanes existed, which run interactive
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private AiLane lane;
+
+    // Input photo, cleared once the analysis stage has finished
+    @Column(length = 20_000_000)
+    private byte[] imageData;
+
+    @Column(length = 255)
+    private String imageFilename;
+
+    @Column(length = 100)
+    private String imageContentType;
+
+    // Generation result cache key, computed at submit time while the image is at hand
+    @Column(length = 64)
+    private String cacheKey;
+
+    // Provider batch holding the analysis of a batch-lane job, and the job's index in it;
+    // set once the batch is submitted, so a restarted worker resumes polling instead of paying again
+    @Column(length = 100)
+    private String aiBatchId;
+
+    private Integer aiBatchIndex;
+
+    // Stage results
+    @Column(length = 100)
+    private String monsterName;
+
+    @Column(columnDefinition = "TEXT")
+    private String monsterDescription;
+
+    @Column(columnDefinition = "TEXT")
+    private String imagePrompt;
+
+    @Column(length = 2000)
+    private String aiImageUrl;
+
+    @Column(length = 500)
+    private String storedImageUrl;
+
+    @Column(length = 500)
+    private String storedThumbnailUrl;
+
+    @Column(length = 500)
+    private String storedMediumUrl;
+
+    private Long monsterId;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(length = 500)
+    private String errorMessage;
+
+    // Worker lease; an expired lease on a non-terminal job means its worker is gone
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    // Bumped by every claim and save, so a worker whose lease was taken over cannot write the row
+    // or complete the job a second time; null until the job is first saved
+    @Version
+    private Long version;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,14 @@
+package com.momon.backend.entity;
+
+public enum MonsterJobStatus {
+    PENDING,
+    ANALYZING,
+    GENERATING,
+    UPLOADING,
+    DONE,
+    FAILED;
+
+    public boolean isTerminal() {
+        return this == DONE || this == FAILED;
+    }
+}
@@ -0,0 +1,20 @@
+package com.momon.backend.repository;
+
+import com.momon.backend.entity.GenerationCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface GenerationCacheRepository extends JpaRepository<GenerationCacheEntry, String> {
+
+    @Transactional
+    @Modifying
+    @Query("delete from GenerationCacheEntry e where e.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
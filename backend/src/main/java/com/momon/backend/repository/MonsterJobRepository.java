@@ -0,0 +1,66 @@
+package com.momon.backend.repository;
+
+import com.momon.backend.entity.MonsterJob;
+import com.momon.backend.entity.MonsterJobStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MonsterJobRepository extends JpaRepository<MonsterJob, String> {
+
+    /**
+     * Takes the worker lease for a job. Returns 1 when this caller owns the job,
+     * 0 when it is finished or another worker holds an unexpired lease.
+     * Bumps the version, so the previous owner's copy of the job goes stale.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("""
+        update MonsterJob j set j.leaseExpiresAt = :until, j.version = coalesce(j.version, 0) + 1
+        where j.id = :id
+          and j.status in :statuses
+          and (j.leaseExpiresAt is null or j.leaseExpiresAt < :now)
+        """)
+    int claim(@Param("id") String id,
+              @Param("statuses") Collection<MonsterJobStatus> statuses,
+              @Param("now") LocalDateTime now,
+              @Param("until") LocalDateTime until);
+
+    /**
+     * Records the provider batch a job's analysis went into, and extends its lease
+     * to cover the batch from its submission on. Returns 0 when the job's version has moved on,
+     * i.e. another worker took it over.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("""
+        update MonsterJob j set j.aiBatchId = :batchId, j.aiBatchIndex = :index, j.leaseExpiresAt = :until,
+            j.version = j.version + 1
+        where j.id = :id
+          and j.version = :version
+        """)
+    int recordBatch(@Param("id") String id,
+                    @Param("batchId") String batchId,
+                    @Param("index") int index,
+                    @Param("until") LocalDateTime until,
+                    @Param("version") Long version);
+
+    @Query("""
+        select new com.momon.backend.repository.RecoverableJob(j.id, j.lane) from MonsterJob j
+        where j.status in :statuses
+          and (j.leaseExpiresAt is null or j.leaseExpiresAt < :now)
+        order by case when j.lane = com.momon.backend.entity.AiLane.BATCH then 1 else 0 end, j.createdAt
+        """)
+    List<RecoverableJob> findRecoverable(@Param("statuses") Collection<MonsterJobStatus> statuses,
+                                         @Param("now") LocalDateTime now,
+                                         Pageable pageable);
+}
@@ -0,0 +1,32 @@
+package com.momon.backend.repository;
+
+import com.momon.backend.entity.PooledMonster;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface MonsterPoolRepository extends JpaRepository<PooledMonster, Long> {
+
+    long countByMood(String mood);
+
+    @Query("select p from PooledMonster p where p.mood = :mood order by p.id")
+    List<PooledMonster> findOldest(@Param("mood") String mood, Pageable pageable);
+
+    @Query("select p from PooledMonster p order by p.id")
+    List<PooledMonster> findOldest(Pageable pageable);
+
+    /**
+     * Removes a monster from the pool. Returns 0 if a concurrent request already took it.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from PooledMonster p where p.id = :id")
+    int take(@Param("id") Long id);
+}
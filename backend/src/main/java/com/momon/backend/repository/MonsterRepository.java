@@ -1,12 +1,134 @@
 package com.momon.backend.repository;
 
+import com.momon.backend.dto.MonsterResponse;
 import com.momon.backend.entity.Monster;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
+/**
+ * Read queries select only the API columns straight into {@link MonsterResponse},
+ * skipping entity hydration, the lazy {@code User} proxy and the {@code prompt} column.
+ */
 @Repository
 public interface MonsterRepository extends JpaRepository<Monster, Long> {
-    List<Monster> findByUserDeviceIdOrderByCreatedAtDesc(String deviceId);
+
+    @Query("""
+        select new com.momon.backend.dto.MonsterResponse(m.id, m.imageUrl, m.thumbnailUrl, m.mediumUrl, m.name, m.description, m.createdAt, m.imagePending)
+        from Monster m
+        where m.user.deviceId = :deviceId
+        order by m.createdAt desc, m.id desc
+        """)
+    List<MonsterResponse> findGalleryFirstPage(@Param("deviceId") String deviceId, Pageable pageable);
+
+    /**
+     * Keyset page: monsters strictly older than the (createdAt, id) cursor.
+     */
+    @Query("""
+        select new com.momon.backend.dto.MonsterResponse(m.id, m.imageUrl, m.thumbnailUrl, m.mediumUrl, m.name, m.description, m.createdAt, m.imagePending)
+        from Monster m
+        where m.user.deviceId = :deviceId
+          and (m.createdAt < :createdAt or (m.createdAt = :createdAt and m.id < :id))
+        order by m.createdAt desc, m.id desc
+        """)
+    List<MonsterResponse> findGalleryPageAfter(@Param("deviceId") String deviceId,
+                                               @Param("createdAt") LocalDateTime createdAt,
+                                               @Param("id") Long id,
+                                               Pageable pageable);
+
+    @Query("""
+        select new com.momon.backend.dto.MonsterResponse(m.id, m.imageUrl, m.thumbnailUrl, m.mediumUrl, m.name, m.description, m.createdAt, m.imagePending)
+        from Monster m
+        where m.id = :id
+        """)
+    Optional<MonsterResponse> findResponseById(@Param("id") Long id);
+
+    /**
+     * Newest monsters of all devices above an id, walking the primary key instead of sorting by
+     * {@code createdAt}. Used to warm and top up the recent feed.
+     */
+    @Query("""
+        select new com.momon.backend.dto.MonsterResponse(m.id, m.imageUrl, m.thumbnailUrl, m.mediumUrl, m.name, m.description, m.createdAt, m.imagePending)
+        from Monster m
+        where m.id > :id
+        order by m.id desc
+        """)
+    List<MonsterResponse> findNewestAfter(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Ids above an id, oldest first, so the recent feed can page through every monster
+     * it has not seen yet with a keyset scan.
+     */
+    @Query("select m.id from Monster m where m.id > :id order by m.id asc")
+    List<Long> findIdsAfter(@Param("id") Long id, Pageable pageable);
+
+    @Query("""
+        select new com.momon.backend.dto.MonsterResponse(m.id, m.imageUrl, m.thumbnailUrl, m.mediumUrl, m.name, m.description, m.createdAt, m.imagePending)
+        from Monster m
+        where m.id in :ids
+        """)
+    List<MonsterResponse> findResponsesByIdIn(@Param("ids") List<Long> ids);
+
+    /**
+     * Takes the lease for copying a monster's temporary image to S3 and counts the attempt.
+     * Returns 1 when this caller owns the copy, 0 when it is done, given up,
+     * or leased by another worker.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("""
+        update Monster m set m.imageCopyRetryAt = :until, m.imageCopyAttempts = m.imageCopyAttempts + 1
+        where m.id = :id
+          and m.imagePending = true
+          and (m.imageCopyRetryAt is null or m.imageCopyRetryAt < :now)
+        """)
+    int claimImageCopy(@Param("id") Long id,
+                       @Param("now") LocalDateTime now,
+                       @Param("until") LocalDateTime until);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("""
+        update Monster m set m.imageUrl = :imageUrl, m.thumbnailUrl = :thumbnailUrl, m.mediumUrl = :mediumUrl,
+            m.imagePending = false, m.imageCopyRetryAt = null
+        where m.id = :id and m.imagePending = true
+        """)
+    int completeImageCopy(@Param("id") Long id,
+                          @Param("imageUrl") String imageUrl,
+                          @Param("thumbnailUrl") String thumbnailUrl,
+                          @Param("mediumUrl") String mediumUrl);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Monster m set m.imageCopyRetryAt = :retryAt where m.id = :id")
+    int scheduleImageCopyRetry(@Param("id") Long id, @Param("retryAt") LocalDateTime retryAt);
+
+    /**
+     * Stops copying an image whose provider URL has expired. The monster keeps that URL,
+     * flagged so it can be found and regenerated.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("""
+        update Monster m set m.imagePending = false, m.imageFailed = true, m.imageCopyRetryAt = null
+        where m.id = :id and m.imagePending = true
+        """)
+    int failImageCopy(@Param("id") Long id);
+
+    @Query("""
+        select m.id from Monster m
+        where m.imagePending = true
+          and (m.imageCopyRetryAt is null or m.imageCopyRetryAt < :now)
+        order by m.id
+        """)
+    List<Long> findPendingImageIds(@Param("now") LocalDateTime now,
+                                   Pageable pageable);
 }
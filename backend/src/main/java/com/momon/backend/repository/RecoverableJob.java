@@ -0,0 +1,9 @@
+package com.momon.backend.repository;
+
+import com.momon.backend.entity.AiLane;
+
+/**
+ * Id and lane of a job the sweep hands back to the worker.
+ */
+public record RecoverableJob(String id, AiLane lane) {
+}
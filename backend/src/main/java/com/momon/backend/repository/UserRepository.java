@@ -2,8 +2,28 @@ package com.momon.backend.repository;
 
 import com.momon.backend.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, String> {
+
+    /**
+     * Inserts the device in one statement unless it already exists. Returns 1 when inserted.
+     * Two racing first requests are settled by the primary key: the loser gets a
+     * duplicate-key error, which callers treat as "already exists".
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+        INSERT INTO users (device_id, first_seen_at, last_seen_at)
+        SELECT :deviceId, :now, :now
+        WHERE NOT EXISTS (SELECT 1 FROM users WHERE device_id = :deviceId)
+        """, nativeQuery = true)
+    int insertIfAbsent(@Param("deviceId") String deviceId, @Param("now") LocalDateTime now);
 }
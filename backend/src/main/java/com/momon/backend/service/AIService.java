@@ -3,7 +3,23 @@ package com.momon.backend.service;
 import com.momon.backend.dto.MonsterCharacteristics;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.function.Consumer;
+
 public interface AIService {
     MonsterCharacteristics analyzeImage(MultipartFile image, String emotionText);
     String generateMonsterImage(String prompt);
+
+    /**
+     * Invents a monster for a mood without a photo, to stock the fallback pool.
+     */
+    MonsterCharacteristics imagineMonster(String mood);
+
+    /**
+     * Like {@link #analyzeImage}, but hands the model output to {@code onDelta} while it is generated.
+     * Implementations without streaming return the result without calling {@code onDelta}.
+     */
+    default MonsterCharacteristics analyzeImageStreaming(MultipartFile image, String emotionText,
+                                                         Consumer<String> onDelta) {
+        return analyzeImage(image, emotionText);
+    }
 }
@@ -0,0 +1,280 @@
+package com.momon.backend.service;
+
+import com.momon.backend.dto.MonsterCharacteristics;
+import com.momon.backend.entity.AiLane;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Collects batch-lane photo analyses and submits them in groups through {@link BatchAIService#analyzeImageBatch}.
+ * A provider without a batch API gets the photos of a group one after another instead.
+ *
+ * <p>A group goes out once {@code max-size} requests are waiting or the oldest has waited {@code max-wait};
+ * at most {@code max-concurrent-batches} groups are with the provider at a time, the rest keep waiting here.
+ * Provider batches have their own quota, so grouped analyses hold no chat bulkhead permit
+ * and never compete with interactive calls.
+ *
+ * <p>Kept per instance. Each caller gets a {@link Ticket} once its group is with the provider; a job keeps it,
+ * so after a restart it {@link #resume resumes} waiting for that batch instead of paying for a new one.
+ * Shutting down stops waiting but leaves submitted batches running. A request still queued here
+ * is retried by its job once the job lease expires.
+ */
+@Component
+@Slf4j
+public class AiBatchQueue {
+
+    private final AIService aiService;
+    // Null when the provider has no batch API
+    private final BatchAIService batchService;
+    private final AiLaneMetrics laneMetrics;
+    private final int maxSize;
+    private final Duration maxWait;
+    private final Duration completionTimeout;
+
+    private final BlockingQueue<Pending> queue;
+    // One poller per resumed batch, however many of its jobs come back
+    private final Map<String, CompletableFuture<Map<Integer, MonsterCharacteristics>>> resumed = new ConcurrentHashMap<>();
+    private final Semaphore batches;
+    private final DistributionSummary batchSizes;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile boolean shuttingDown;
+
+    public AiBatchQueue(
+        AIService aiService,
+        AiLaneMetrics laneMetrics,
+        MeterRegistry meterRegistry,
+        @Value("${ai.batch.max-size:20}") int maxSize,
+        @Value("${ai.batch.max-wait:30s}") Duration maxWait,
+        @Value("${ai.batch.max-concurrent-batches:2}") int maxConcurrentBatches,
+        @Value("${ai.batch.queue-capacity:1000}") int queueCapacity,
+        @Value("${ai.batch.completion-timeout:2h}") Duration completionTimeout
+    ) {
+        this.aiService = aiService;
+        this.batchService = aiService instanceof BatchAIService batch ? batch : null;
+        this.laneMetrics = laneMetrics;
+        this.maxSize = maxSize;
+        this.maxWait = maxWait;
+        this.completionTimeout = completionTimeout;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.batches = new Semaphore(maxConcurrentBatches);
+        this.batchSizes = meterRegistry.summary("ai.batch.size");
+        Gauge.builder("ai.batch.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    /**
+     * Queues the analysis for the next group and waits for its result. There is no deadline here:
+     * the provider batch has its own completion timeout, and the caller's job lease covers the wait.
+     *
+     * @param onSubmitted gets the ticket once the group's provider batch exists
+     * @throws BulkheadFullException when the queue is full
+     */
+    public MonsterCharacteristics analyze(MultipartFile image, String emotionText, Consumer<Ticket> onSubmitted) {
+        Pending pending = new Pending(new BatchAIService.BatchAnalysis(image, emotionText), onSubmitted,
+            new CompletableFuture<>(), System.nanoTime());
+        if (shuttingDown || !queue.offer(pending)) {
+            laneMetrics.recordRequest(AiLane.BATCH, AiLaneMetrics.OPERATION_ANALYZE, "rejected");
+            throw new BulkheadFullException("AI batch queue is full");
+        }
+
+        try {
+            return await(pending.result());
+        } finally {
+            queue.remove(pending);
+        }
+    }
+
+    /**
+     * Waits for the provider batch of a ticket handed out before a restart and returns that request's result.
+     */
+    public MonsterCharacteristics resume(Ticket ticket) {
+        if (shuttingDown) {
+            throw new BulkheadFullException("AI batch queue is shutting down");
+        }
+        if (batchService == null) {
+            throw new IllegalStateException("AI provider has no batches to resume");
+        }
+        CompletableFuture<Map<Integer, MonsterCharacteristics>> batch = resumed.computeIfAbsent(ticket.batchId(),
+            batchId -> {
+                CompletableFuture<Map<Integer, MonsterCharacteristics>> results = new CompletableFuture<>();
+                executor.execute(() -> {
+                    try {
+                        results.complete(batchService.resumeAnalysisBatch(batchId));
+                    } catch (RuntimeException e) {
+                        log.warn("⚠️ Resumed AI batch {} failed", batchId, e);
+                        results.completeExceptionally(e);
+                    } finally {
+                        resumed.remove(batchId, results);
+                    }
+                });
+                return results;
+            });
+
+        MonsterCharacteristics result = await(batch).get(ticket.index());
+        if (result == null) {
+            laneMetrics.recordRequest(AiLane.BATCH, AiLaneMetrics.OPERATION_ANALYZE, "failure");
+            throw new IllegalStateException("Analysis failed in AI batch");
+        }
+        laneMetrics.recordRequest(AiLane.BATCH, AiLaneMetrics.OPERATION_ANALYZE, "success");
+        return result;
+    }
+
+    /**
+     * Longest a caller of {@link #analyze} should expect to wait: collection plus provider completion.
+     */
+    public Duration maxTurnaround() {
+        return maxWait.plus(completionTimeout);
+    }
+
+    private static <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Batch analysis failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for batch analysis", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ai.batch.flush-interval-ms:1000}",
+               initialDelayString = "${ai.batch.flush-interval-ms:1000}")
+    public void flush() {
+        while (!shuttingDown) {
+            Pending oldest = queue.peek();
+            if (oldest == null) {
+                return;
+            }
+            boolean due = System.nanoTime() - oldest.enqueuedNanos() >= maxWait.toNanos();
+            if (queue.size() < maxSize && !due) {
+                return;
+            }
+            // Every batch slot is busy; the group goes out as soon as one frees up
+            if (!batches.tryAcquire()) {
+                return;
+            }
+
+            List<Pending> group = new ArrayList<>(maxSize);
+            queue.drainTo(group, maxSize);
+            if (group.isEmpty()) {
+                batches.release();
+                return;
+            }
+            executor.execute(() -> {
+                try {
+                    submit(group);
+                } finally {
+                    batches.release();
+                }
+            });
+        }
+    }
+
+    private void submit(List<Pending> group) {
+        long now = System.nanoTime();
+        group.forEach(pending -> laneMetrics.recordQueueWait(
+            AiLane.BATCH, AiLaneMetrics.OPERATION_ANALYZE, now - pending.enqueuedNanos()));
+        batchSizes.record(group.size());
+        log.info("📦 Submitting AI batch of {} analyses", group.size());
+
+        List<MonsterCharacteristics> results;
+        try {
+            List<BatchAIService.BatchAnalysis> requests = group.stream().map(Pending::request).toList();
+            results = batchService != null
+                ? batchService.analyzeImageBatch(requests, batchId -> handOut(batchId, group))
+                : analyzeOneByOne(requests);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ AI batch of {} analyses failed", group.size(), e);
+            for (Pending pending : group) {
+                laneMetrics.recordRequest(AiLane.BATCH, AiLaneMetrics.OPERATION_ANALYZE, "failure");
+                pending.result().completeExceptionally(e);
+            }
+            return;
+        }
+
+        int failed = 0;
+        for (int i = 0; i < group.size(); i++) {
+            MonsterCharacteristics result = i < results.size() ? results.get(i) : null;
+            if (result == null) {
+                failed++;
+                laneMetrics.recordRequest(AiLane.BATCH, AiLaneMetrics.OPERATION_ANALYZE, "failure");
+                group.get(i).result().completeExceptionally(new IllegalStateException("Analysis failed in AI batch"));
+            } else {
+                laneMetrics.recordRequest(AiLane.BATCH, AiLaneMetrics.OPERATION_ANALYZE, "success");
+                group.get(i).result().complete(result);
+            }
+        }
+        log.info("✅ AI batch done: {} analyzed, {} failed", group.size() - failed, failed);
+    }
+
+    // No batch id, so no tickets: a restart re-runs these analyses with their jobs
+    private List<MonsterCharacteristics> analyzeOneByOne(List<BatchAIService.BatchAnalysis> requests) {
+        List<MonsterCharacteristics> results = new ArrayList<>(requests.size());
+        for (BatchAIService.BatchAnalysis request : requests) {
+            try {
+                results.add(aiService.analyzeImage(request.image(), request.emotionText()));
+            } catch (RuntimeException e) {
+                results.add(null);
+            }
+        }
+        return results;
+    }
+
+    private static void handOut(String batchId, List<Pending> group) {
+        for (int i = 0; i < group.size(); i++) {
+            try {
+                group.get(i).onSubmitted().accept(new Ticket(batchId, i));
+            } catch (RuntimeException e) {
+                // The request still gets its result; only resuming it after a restart is lost
+                log.warn("⚠️ Failed to hand out ticket {}#{}", batchId, i, e);
+            }
+        }
+    }
+
+    /**
+     * Stops waiting without cancelling: interrupted pollers leave their provider batches running,
+     * and the jobs holding their tickets resume them on the next instance.
+     */
+    @PreDestroy
+    public void shutdown() {
+        shuttingDown = true;
+        executor.shutdownNow();
+        List<Pending> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        abandoned.forEach(pending -> pending.result().completeExceptionally(
+            new IllegalStateException("Shutting down before the batch was submitted")));
+    }
+
+    private record Pending(BatchAIService.BatchAnalysis request, Consumer<Ticket> onSubmitted,
+                           CompletableFuture<MonsterCharacteristics> result, long enqueuedNanos) {
+    }
+
+    /**
+     * Where a request went: its provider batch and its index in that batch.
+     */
+    public record Ticket(String batchId, int index) {
+    }
+}
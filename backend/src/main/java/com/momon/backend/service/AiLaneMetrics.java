@@ -0,0 +1,60 @@
+package com.momon.backend.service;
+
+import com.momon.backend.entity.AiLane;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-lane meters for AI calls, exported via /actuator/prometheus.
+ *
+ * <ul>
+ *   <li>{@code ai.lane.queue.wait{lane, operation}} – time from the request until the provider call starts
+ *       (bulkhead wait, or batch collection for grouped analyses)</li>
+ *   <li>{@code ai.lane.requests{lane, operation, outcome}} – finished requests; its rate is the lane's throughput</li>
+ * </ul>
+ */
+@Component
+public class AiLaneMetrics {
+
+    public static final String OPERATION_ANALYZE = "analyze";
+    public static final String OPERATION_IMAGINE = "imagine";
+    public static final String OPERATION_GENERATE = "generate";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> waitTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> requestCounters = new ConcurrentHashMap<>();
+
+    public AiLaneMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void recordQueueWait(AiLane lane, String operation, long nanos) {
+        waitTimers.computeIfAbsent(lane.tag() + '|' + operation, key -> Timer.builder("ai.lane.queue.wait")
+                .description("Time an AI request waited before its provider call started")
+                .tag("lane", lane.tag())
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry))
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param outcome {@code success}, {@code failure} or {@code rejected} (queue full or wait timed out)
+     */
+    public void recordRequest(AiLane lane, String operation, String outcome) {
+        requestCounters.computeIfAbsent(lane.tag() + '|' + operation + '|' + outcome, key ->
+                Counter.builder("ai.lane.requests")
+                    .description("Finished AI requests by lane")
+                    .tag("lane", lane.tag())
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry))
+            .increment();
+    }
+}
@@ -0,0 +1,36 @@
+package com.momon.backend.service;
+
+import com.momon.backend.dto.MonsterCharacteristics;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Provider-side batches of photo analyses, which trade latency (minutes to hours) for price.
+ * Implemented next to {@link AIService} by providers with a batch API; {@link AiBatchQueue}
+ * analyzes the photos of a group one after another when the provider has none.
+ */
+public interface BatchAIService {
+
+    /**
+     * Analyzes the photos as one provider batch. Results are in request order, with {@code null}
+     * for a request that failed on its own. {@code onSubmitted} gets the provider's batch id as soon as
+     * the batch exists, so callers can keep it and {@link #resumeAnalysisBatch resume} the batch
+     * after a restart instead of paying for it again.
+     */
+    List<MonsterCharacteristics> analyzeImageBatch(List<BatchAnalysis> requests, Consumer<String> onSubmitted);
+
+    /**
+     * Waits for a batch created earlier by {@link #analyzeImageBatch} and returns its results
+     * by request index; failed requests are missing.
+     */
+    Map<Integer, MonsterCharacteristics> resumeAnalysisBatch(String batchId);
+
+    /**
+     * One photo analysis in a provider batch.
+     */
+    record BatchAnalysis(MultipartFile image, String emotionText) {
+    }
+}
@@ -0,0 +1,334 @@
+package com.momon.backend.service;
+
+import com.momon.backend.config.DownstreamProperties;
+import com.momon.backend.entity.AiLane;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.web.client.RestClientResponseException;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Concurrency limit, wait queue and retry policy for one downstream dependency.
+ *
+ * <p>The limit is adaptive: it creeps up by about one permit per full window of successful calls
+ * while the bulkhead is saturated, shrinks by 5% per call while smoothed latency is above
+ * {@code latencyTolerance} times the baseline, and halves on every 429 / 5xx.
+ * Uses a {@link ReentrantLock} rather than {@code synchronized} so waiting virtual threads
+ * do not pin their carriers.
+ *
+ * <p>Calls in the {@link AiLane#BATCH batch lane} only take a permit while no interactive caller is
+ * waiting, and never hold more than {@code batchShare} of the limit; a released permit goes to a
+ * waiting interactive caller first. Batch callers queue separately, with their own (longer) timeout.
+ */
+@Slf4j
+public class Bulkhead {
+
+    private final String name;
+    private final DownstreamProperties.Limits limits;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+    private final Condition batchPermitReleased = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private int waiting;
+    private int batchInFlight;
+    private int batchWaiting;
+    private double smoothedLatencyNanos;
+    private double baselineLatencyNanos;
+
+    private final Counter rejectedQueueFull;
+    private final Counter rejectedTimeout;
+    private final Counter retries;
+    private final Counter throttled;
+
+    public Bulkhead(String name, DownstreamProperties.Limits limits, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.limits = limits;
+        this.limit = limits.getInitialLimit();
+
+        this.rejectedQueueFull = meterRegistry.counter("downstream.bulkhead.rejected", "name", name, "reason", "queue-full");
+        this.rejectedTimeout = meterRegistry.counter("downstream.bulkhead.rejected", "name", name, "reason", "timeout");
+        this.retries = meterRegistry.counter("downstream.retries", "name", name);
+        this.throttled = meterRegistry.counter("downstream.throttled", "name", name);
+        Gauge.builder("downstream.bulkhead.queue.depth", this, Bulkhead::queueDepth)
+            .tag("name", name).register(meterRegistry);
+        Gauge.builder("downstream.bulkhead.batch.queue.depth", this, Bulkhead::batchQueueDepth)
+            .tag("name", name).register(meterRegistry);
+        Gauge.builder("downstream.bulkhead.in.flight", this, Bulkhead::inFlight)
+            .tag("name", name).register(meterRegistry);
+        Gauge.builder("downstream.bulkhead.limit", this, Bulkhead::currentLimit)
+            .tag("name", name).register(meterRegistry);
+    }
+
+    /**
+     * Runs the call under a permit. Rate-limit and server errors are retried with exponential
+     * backoff and full jitter; the permit is released while backing off.
+     */
+    public <T> T execute(Supplier<T> call) {
+        return execute(AiLane.INTERACTIVE, call);
+    }
+
+    public <T> T execute(AiLane lane, Supplier<T> call) {
+        for (int attempt = 0; ; attempt++) {
+            acquire(lane);
+            long start = System.nanoTime();
+            try {
+                T result = call.get();
+                onSuccess(System.nanoTime() - start);
+                return result;
+            } catch (RuntimeException e) {
+                if (!isRetryable(e)) {
+                    throw e;
+                }
+                onThrottled();
+                if (attempt >= limits.getMaxRetries()) {
+                    throw e;
+                }
+            } finally {
+                release(lane);
+            }
+
+            retries.increment();
+            long backoff = backoffMillis(attempt);
+            log.warn("⏳ {} throttled, retry {}/{} in {} ms", name, attempt + 1, limits.getMaxRetries(), backoff);
+            sleep(backoff);
+        }
+    }
+
+    public void run(Runnable call) {
+        run(AiLane.INTERACTIVE, call);
+    }
+
+    public void run(AiLane lane, Runnable call) {
+        execute(lane, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    private void acquire(AiLane lane) {
+        if (lane == AiLane.BATCH) {
+            acquireBatch();
+            return;
+        }
+        lock.lock();
+        try {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                return;
+            }
+            if (waiting >= limits.getQueueSize()) {
+                rejectedQueueFull.increment();
+                throw new BulkheadFullException(name + " queue is full");
+            }
+
+            waiting++;
+            try {
+                long remaining = limits.getQueueTimeout().toNanos();
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) {
+                        rejectedTimeout.increment();
+                        throw new BulkheadFullException(name + " queue wait timed out");
+                    }
+                    remaining = permitReleased.awaitNanos(remaining);
+                }
+                inFlight++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BulkheadFullException(name + " queue wait interrupted");
+            } finally {
+                waiting--;
+                if (waiting == 0) {
+                    // Batch callers held back for this one may go now
+                    batchPermitReleased.signal();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void acquireBatch() {
+        lock.lock();
+        try {
+            if (batchMayRun()) {
+                inFlight++;
+                batchInFlight++;
+                return;
+            }
+            if (batchWaiting >= limits.getQueueSize()) {
+                rejectedQueueFull.increment();
+                throw new BulkheadFullException(name + " batch queue is full");
+            }
+
+            batchWaiting++;
+            try {
+                long remaining = limits.getBatchQueueTimeout().toNanos();
+                while (!batchMayRun()) {
+                    if (remaining <= 0) {
+                        rejectedTimeout.increment();
+                        throw new BulkheadFullException(name + " batch queue wait timed out");
+                    }
+                    remaining = batchPermitReleased.awaitNanos(remaining);
+                }
+                inFlight++;
+                batchInFlight++;
+                if (batchMayRun()) {
+                    // Pass the wake-up on while the batch share has room
+                    batchPermitReleased.signal();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BulkheadFullException(name + " batch queue wait interrupted");
+            } finally {
+                batchWaiting--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Called with the lock held
+    private boolean batchMayRun() {
+        return waiting == 0
+            && inFlight < (int) limit
+            && batchInFlight < Math.max(1, (int) (limit * limits.getBatchShare()));
+    }
+
+    private void release(AiLane lane) {
+        lock.lock();
+        try {
+            inFlight--;
+            if (lane == AiLane.BATCH) {
+                batchInFlight--;
+            }
+            if (waiting > 0) {
+                permitReleased.signal();
+            } else {
+                batchPermitReleased.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onSuccess(long latencyNanos) {
+        lock.lock();
+        try {
+            smoothedLatencyNanos = smoothedLatencyNanos == 0
+                ? latencyNanos
+                : smoothedLatencyNanos * 0.9 + latencyNanos * 0.1;
+            // Baseline follows the fastest calls, drifting slowly toward the smoothed latency
+            baselineLatencyNanos = baselineLatencyNanos == 0
+                ? latencyNanos
+                : Math.min(latencyNanos, baselineLatencyNanos + (smoothedLatencyNanos - baselineLatencyNanos) * 0.01);
+
+            if (smoothedLatencyNanos > baselineLatencyNanos * limits.getLatencyTolerance()) {
+                limit = Math.max(limits.getMinLimit(), limit * 0.95);
+            } else if (inFlight >= (int) limit) {
+                limit = Math.min(limits.getMaxLimit(), limit + 1.0 / limit);
+                permitReleased.signalAll();
+                batchPermitReleased.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onThrottled() {
+        throttled.increment();
+        lock.lock();
+        try {
+            limit = Math.max(limits.getMinLimit(), limit / 2);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long backoffMillis(int attempt) {
+        long ceiling = Math.min(limits.getMaxBackoff().toMillis(),
+            limits.getBaseBackoff().toMillis() << Math.min(attempt, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during backoff", e);
+        }
+    }
+
+    /**
+     * 429 and 5xx responses, or errors the AI client itself marks as transient.
+     */
+    static boolean isRetryable(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientAiException) {
+                return true;
+            }
+            if (cause instanceof RestClientResponseException e) {
+                return isRetryableStatus(e.getStatusCode().value());
+            }
+            if (cause instanceof AwsServiceException e) {
+                return isRetryableStatus(e.statusCode());
+            }
+        }
+        return false;
+    }
+
+    static boolean isRetryableStatus(int status) {
+        return status == 429 || status >= 500;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int currentLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int queueDepth() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int batchQueueDepth() {
+        lock.lock();
+        try {
+            return batchWaiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
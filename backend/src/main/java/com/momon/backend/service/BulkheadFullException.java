@@ -0,0 +1,11 @@
+package com.momon.backend.service;
+
+/**
+ * Thrown when a downstream bulkhead has no free permit and its wait queue is full or timed out.
+ */
+public class BulkheadFullException extends RuntimeException {
+
+    public BulkheadFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,189 @@
+package com.momon.backend.service;
+
+import com.momon.backend.config.MonsterPoolProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tracks the health of a downstream over its last {@code windowSize} calls.
+ *
+ * <p>Opens when the share of failed calls or of calls slower than their SLO crosses its threshold.
+ * While open, {@link #allowRequest()} turns callers away; after {@code openDuration} a few trial
+ * requests are let through (half-open), and the breaker closes again once as many calls have
+ * succeeded within their SLO. A single failed or slow call reopens it.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final MonsterPoolProperties.Breaker settings;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Ring buffer of the most recent outcomes
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int next;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    private final Counter opened;
+    private final Counter rejected;
+
+    public CircuitBreaker(String name, MonsterPoolProperties.Breaker settings, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.settings = settings;
+        this.failed = new boolean[settings.getWindowSize()];
+        this.slow = new boolean[settings.getWindowSize()];
+
+        this.opened = meterRegistry.counter("circuit.breaker.opened", "name", name);
+        this.rejected = meterRegistry.counter("circuit.breaker.rejected", "name", name);
+        Gauge.builder("circuit.breaker.state", this, breaker -> breaker.state().ordinal())
+            .description("0 = closed, 1 = open, 2 = half-open")
+            .tag("name", name).register(meterRegistry);
+    }
+
+    /**
+     * Whether a live request may go ahead. In half-open state this hands out the trial requests,
+     * whose downstream calls then report back through {@link #onSuccess} and {@link #onFailure}.
+     */
+    public boolean allowRequest() {
+        lock.lock();
+        try {
+            halfOpenIfDue();
+            if (state == State.CLOSED) {
+                return true;
+            }
+            if (state == State.HALF_OPEN && trialsStarted < settings.getTrialRequests()) {
+                trialsStarted++;
+                return true;
+            }
+            // Trials that never reported back (e.g. failed before reaching the downstream) are replaced
+            if (state == State.HALF_OPEN && System.nanoTime() - openedAtNanos >= settings.getOpenDuration().toNanos()) {
+                openedAtNanos = System.nanoTime();
+                trialsStarted = 1;
+                return true;
+            }
+            rejected.increment();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whether the downstream currently looks healthy, without claiming a trial call.
+     */
+    public boolean isClosed() {
+        return state() == State.CLOSED;
+    }
+
+    public void onSuccess(Duration latency, Duration slo) {
+        boolean slowCall = latency.compareTo(slo) > 0;
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN) {
+                if (slowCall) {
+                    open("trial call took " + latency.toMillis() + " ms");
+                } else if (++trialsSucceeded >= settings.getTrialRequests()) {
+                    close();
+                }
+                return;
+            }
+            record(false, slowCall);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onFailure(Throwable error) {
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN) {
+                open("trial call failed: " + error);
+                return;
+            }
+            record(true, false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(boolean failure, boolean slowCall) {
+        if (recorded == failed.length) {
+            failures -= failed[next] ? 1 : 0;
+            slowCalls -= slow[next] ? 1 : 0;
+        } else {
+            recorded++;
+        }
+        failed[next] = failure;
+        slow[next] = slowCall;
+        failures += failure ? 1 : 0;
+        slowCalls += slowCall ? 1 : 0;
+        next = (next + 1) % failed.length;
+
+        if (state != State.CLOSED || recorded < settings.getMinimumCalls()) {
+            return;
+        }
+        double failureRate = (double) failures / recorded;
+        double slowCallRate = (double) slowCalls / recorded;
+        if (failureRate >= settings.getFailureRateThreshold()) {
+            open(String.format("%.0f%% of the last %d calls failed", failureRate * 100, recorded));
+        } else if (slowCallRate >= settings.getSlowCallRateThreshold()) {
+            open(String.format("%.0f%% of the last %d calls exceeded their SLO", slowCallRate * 100, recorded));
+        }
+    }
+
+    private void halfOpenIfDue() {
+        if (state == State.OPEN && System.nanoTime() - openedAtNanos >= settings.getOpenDuration().toNanos()) {
+            state = State.HALF_OPEN;
+            openedAtNanos = System.nanoTime();
+            trialsStarted = 0;
+            trialsSucceeded = 0;
+            log.info("🔌 {} circuit half-open, letting {} trial requests through", name, settings.getTrialRequests());
+        }
+    }
+
+    private void open(String reason) {
+        state = State.OPEN;
+        openedAtNanos = System.nanoTime();
+        opened.increment();
+        log.warn("🔌 {} circuit opened for {}: {}", name, settings.getOpenDuration(), reason);
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        // Start over, so outcomes from before the outage can't reopen it at once
+        recorded = 0;
+        failures = 0;
+        slowCalls = 0;
+        next = 0;
+        log.info("🔌 {} circuit closed", name);
+    }
+
+    public State state() {
+        lock.lock();
+        try {
+            halfOpenIfDue();
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+}
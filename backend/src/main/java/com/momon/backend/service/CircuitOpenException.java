@@ -0,0 +1,11 @@
+package com.momon.backend.service;
+
+/**
+ * Thrown when the AI circuit is open and no pre-generated monster is left to hand out instead.
+ */
+public class CircuitOpenException extends RuntimeException {
+
+    public CircuitOpenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.momon.backend.service;
+
+/**
+ * Thrown out of a progress callback when the event stream client has disconnected,
+ * aborting the pipeline. Says nothing about the health of the downstreams being called.
+ */
+class ClientGoneException extends RuntimeException {
+
+    ClientGoneException(Throwable cause) {
+        super("Event stream client disconnected", cause);
+    }
+}
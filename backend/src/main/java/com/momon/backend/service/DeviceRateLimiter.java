@@ -0,0 +1,115 @@
+package com.momon.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-device token bucket for monster creation: {@code capacity} creates in a burst,
+ * then one more every {@code refill-period}.
+ *
+ * <p>Each bucket is a single {@link AtomicLong} holding the time at which it will be full again
+ * (the GCRA form of a token bucket), so taking a token is one compare-and-set with no lock.
+ * Buckets live in a Caffeine cache and expire once they would be full anyway, so expiry never
+ * grants more than a device was due. The size bound can: evicting a partly used bucket hands that
+ * device a full one, so {@code maximum-devices} must exceed the devices active within
+ * {@code capacity} x {@code refill-period}.
+ */
+@Component
+public class DeviceRateLimiter {
+
+    private final boolean enabled;
+    private final int capacity;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final LongSupplier clock;
+    private final long origin;
+    private final Cache<String, AtomicLong> buckets;
+
+    private final Counter rejected;
+
+    @Autowired
+    public DeviceRateLimiter(
+        MeterRegistry meterRegistry,
+        @Value("${monster.rate-limit.enabled:true}") boolean enabled,
+        @Value("${monster.rate-limit.capacity:5}") int capacity,
+        @Value("${monster.rate-limit.refill-period:12s}") Duration refillPeriod,
+        @Value("${monster.rate-limit.maximum-devices:100000}") long maximumDevices
+    ) {
+        this(meterRegistry, enabled, capacity, refillPeriod, maximumDevices, System::nanoTime);
+    }
+
+    DeviceRateLimiter(MeterRegistry meterRegistry, boolean enabled, int capacity, Duration refillPeriod,
+                      long maximumDevices, LongSupplier clock) {
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.intervalNanos = refillPeriod.toNanos();
+        this.burstNanos = intervalNanos * capacity;
+        this.clock = clock;
+        // Bucket times are kept relative to this, so a fresh bucket (0) is always full
+        this.origin = clock.getAsLong();
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(maximumDevices)
+            .expireAfterAccess(Duration.ofNanos(burstNanos))
+            .build();
+
+        this.rejected = meterRegistry.counter("monster.rate.limit.rejected");
+        Gauge.builder("monster.rate.limit.devices", buckets, Cache::estimatedSize)
+            .description("Devices with a partly used bucket")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Takes a token for the device. When none is left, the result says how long until one is.
+     */
+    public Decision tryAcquire(String deviceId) {
+        if (!enabled) {
+            return Decision.ALLOWED;
+        }
+
+        AtomicLong bucket = buckets.get(deviceId, key -> new AtomicLong());
+        long now = clock.getAsLong() - origin;
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + intervalNanos;
+            long backlog = next - now;
+            if (backlog > burstNanos) {
+                rejected.increment();
+                return new Decision(false, Duration.ofNanos(backlog - burstNanos));
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return Decision.ALLOWED;
+            }
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    long trackedDevices() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+
+    public record Decision(boolean allowed, Duration retryAfter) {
+
+        static final Decision ALLOWED = new Decision(true, Duration.ZERO);
+
+        /**
+         * Whole seconds for the {@code Retry-After} header, rounded up.
+         */
+        public long retryAfterSeconds() {
+            return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.momon.backend.service;
+
+import com.momon.backend.config.DownstreamProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * One {@link Bulkhead} per downstream: chat analysis, image generation and S3 upload.
+ */
+@Component
+public class DownstreamBulkheads {
+
+    private final Bulkhead chat;
+    private final Bulkhead image;
+    private final Bulkhead s3;
+
+    public DownstreamBulkheads(DownstreamProperties properties, MeterRegistry meterRegistry) {
+        this.chat = new Bulkhead("chat", properties.getChat(), meterRegistry);
+        this.image = new Bulkhead("image", properties.getImage(), meterRegistry);
+        this.s3 = new Bulkhead("s3", properties.getS3(), meterRegistry);
+    }
+
+    public Bulkhead chat() {
+        return chat;
+    }
+
+    public Bulkhead image() {
+        return image;
+    }
+
+    public Bulkhead s3() {
+        return s3;
+    }
+}
@@ -0,0 +1,66 @@
+package com.momon.backend.service;
+
+/**
+ * Reads the EXIF orientation tag (0x0112) from JPEG bytes.
+ * Needed because re-encoding drops the metadata that tells viewers how to rotate a phone photo.
+ */
+final class ExifOrientation {
+
+    static final int NORMAL = 1;
+
+    private ExifOrientation() {
+    }
+
+    static int read(byte[] jpeg) {
+        try {
+            if (jpeg.length < 4 || (jpeg[0] & 0xFF) != 0xFF || (jpeg[1] & 0xFF) != 0xD8) {
+                return NORMAL;
+            }
+
+            // Walk the marker segments up to the first APP1 "Exif" block
+            int offset = 2;
+            while (offset + 4 <= jpeg.length && (jpeg[offset] & 0xFF) == 0xFF) {
+                int marker = jpeg[offset + 1] & 0xFF;
+                int length = readShort(jpeg, offset + 2, false);
+                if (marker == 0xDA) {
+                    return NORMAL; // start of scan, no more metadata
+                }
+                if (marker == 0xE1 && offset + 10 <= jpeg.length
+                    && jpeg[offset + 4] == 'E' && jpeg[offset + 5] == 'x'
+                    && jpeg[offset + 6] == 'i' && jpeg[offset + 7] == 'f') {
+                    return readTiffOrientation(jpeg, offset + 10);
+                }
+                offset += 2 + length;
+            }
+        } catch (IndexOutOfBoundsException e) {
+            // Truncated or malformed metadata
+        }
+        return NORMAL;
+    }
+
+    private static int readTiffOrientation(byte[] data, int tiff) {
+        boolean littleEndian = data[tiff] == 'I' && data[tiff + 1] == 'I';
+        int ifd = tiff + readInt(data, tiff + 4, littleEndian);
+        int entries = readShort(data, ifd, littleEndian);
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (readShort(data, entry, littleEndian) == 0x0112) {
+                int value = readShort(data, entry + 8, littleEndian);
+                return value >= 1 && value <= 8 ? value : NORMAL;
+            }
+        }
+        return NORMAL;
+    }
+
+    private static int readShort(byte[] data, int offset, boolean littleEndian) {
+        int b0 = data[offset] & 0xFF;
+        int b1 = data[offset + 1] & 0xFF;
+        return littleEndian ? (b1 << 8) | b0 : (b0 << 8) | b1;
+    }
+
+    private static int readInt(byte[] data, int offset, boolean littleEndian) {
+        int high = readShort(data, offset + (littleEndian ? 2 : 0), littleEndian);
+        int low = readShort(data, offset + (littleEndian ? 0 : 2), littleEndian);
+        return (high << 16) | low;
+    }
+}
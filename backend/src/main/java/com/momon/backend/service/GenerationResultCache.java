@@ -0,0 +1,182 @@
+package com.momon.backend.service;
+
+import com.momon.backend.config.CacheConfig;
+import com.momon.backend.dto.GeneratedMonster;
+import com.momon.backend.dto.MonsterCharacteristics;
+import com.momon.backend.dto.StoredImage;
+import com.momon.backend.entity.GenerationCacheEntry;
+import com.momon.backend.repository.GenerationCacheRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Remembers finished generations by the content of the request (image bytes + normalized emotion text),
+ * so a resubmitted photo skips both AI calls and the S3 upload.
+ * It wraps the whole pipeline rather than {@link AIService} alone, because only here is the
+ * stored image URL known and the upload can be skipped as well.
+ * Tiers: a bounded in-memory cache, then an optional database table.
+ */
+@Service
+@Slf4j
+public class GenerationResultCache {
+
+    private final Cache memoryTier;
+    private final GenerationCacheRepository generationCacheRepository;
+
+    private final boolean enabled;
+    private final boolean persistentEnabled;
+    private final Duration persistentTtl;
+
+    private final Counter memoryHits;
+    private final Counter persistentHits;
+    private final Counter misses;
+
+    public GenerationResultCache(
+        CacheManager cacheManager,
+        GenerationCacheRepository generationCacheRepository,
+        MeterRegistry meterRegistry,
+        @Value("${ai.cache.enabled:true}") boolean enabled,
+        @Value("${ai.cache.persistent.enabled:false}") boolean persistentEnabled,
+        @Value("${ai.cache.persistent.ttl:7d}") Duration persistentTtl
+    ) {
+        this.memoryTier = Objects.requireNonNull(cacheManager.getCache(CacheConfig.GENERATIONS));
+        this.generationCacheRepository = generationCacheRepository;
+        this.enabled = enabled;
+        this.persistentEnabled = persistentEnabled;
+        this.persistentTtl = persistentTtl;
+
+        this.memoryHits = meterRegistry.counter("ai.cache.requests", "result", "hit", "tier", "memory");
+        this.persistentHits = meterRegistry.counter("ai.cache.requests", "result", "hit", "tier", "database");
+        this.misses = meterRegistry.counter("ai.cache.requests", "result", "miss", "tier", "none");
+        Gauge.builder("ai.cache.hit.ratio", this, GenerationResultCache::hitRatio)
+            .description("Share of monster generations served from the result cache")
+            .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * SHA-256 over the image bytes and the normalized emotion text, as a hex string.
+     */
+    public String keyOf(MultipartFile image, String emotionText) {
+        MessageDigest digest = sha256();
+        try (InputStream in = image.getInputStream()) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read image for cache key", e);
+        }
+        digest.update((byte) 0);
+        digest.update(normalize(emotionText).getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public Optional<GeneratedMonster> lookup(String key) {
+        if (!enabled || key == null) {
+            return Optional.empty();
+        }
+
+        GeneratedMonster cached = memoryTier.get(key, GeneratedMonster.class);
+        if (cached != null) {
+            memoryHits.increment();
+            log.info("♻️ Generation cache hit (memory): {}", key);
+            return Optional.of(cached);
+        }
+
+        if (persistentEnabled) {
+            Optional<GeneratedMonster> stored = generationCacheRepository.findById(key)
+                .filter(entry -> entry.getExpiresAt().isAfter(LocalDateTime.now()))
+                .map(entry -> new GeneratedMonster(
+                    new MonsterCharacteristics(entry.getName(), entry.getDescription(), entry.getImagePrompt()),
+                    new StoredImage(entry.getImageUrl(), entry.getThumbnailUrl(), entry.getMediumUrl())));
+            if (stored.isPresent()) {
+                persistentHits.increment();
+                memoryTier.put(key, stored.get());
+                log.info("♻️ Generation cache hit (database): {}", key);
+                return stored;
+            }
+        }
+
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public void put(String key, MonsterCharacteristics characteristics, StoredImage image) {
+        if (!enabled || key == null) {
+            return;
+        }
+
+        memoryTier.put(key, new GeneratedMonster(characteristics, image));
+        if (persistentEnabled) {
+            LocalDateTime now = LocalDateTime.now();
+            generationCacheRepository.save(GenerationCacheEntry.builder()
+                .cacheKey(key)
+                .name(characteristics.getName())
+                .description(characteristics.getDescription())
+                .imagePrompt(characteristics.getImagePrompt())
+                .imageUrl(image.url())
+                .thumbnailUrl(image.thumbnailUrl())
+                .mediumUrl(image.mediumUrl())
+                .createdAt(now)
+                .expiresAt(now.plus(persistentTtl))
+                .build());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ai.cache.persistent.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        if (!enabled || !persistentEnabled) {
+            return;
+        }
+        int deleted = generationCacheRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("🧹 Purged {} expired generation cache entries", deleted);
+        }
+    }
+
+    private double hitRatio() {
+        double hits = memoryHits.count() + persistentHits.count();
+        double total = hits + misses.count();
+        return total == 0 ? 0 : hits / total;
+    }
+
+    private static String normalize(String emotionText) {
+        String text = Normalizer.normalize(emotionText == null ? "" : emotionText, Normalizer.Form.NFC);
+        return text.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
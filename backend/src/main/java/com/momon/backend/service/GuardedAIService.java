@@ -0,0 +1,174 @@
+package com.momon.backend.service;
+
+import com.momon.backend.config.MonsterPoolProperties;
+import com.momon.backend.dto.MonsterCharacteristics;
+import com.momon.backend.entity.AiLane;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Entry point for AI calls from the create pipeline.
+ * Runs each {@link AIService} call through its downstream bulkhead, and reports every attempt
+ * to the circuit breaker that decides when creation falls back to the monster pool.
+ *
+ * <p>Calls take an {@link AiLane}: interactive calls get priority on the bulkheads, batch calls use what
+ * is left over, and batch photo analyses are grouped into provider batches by {@link AiBatchQueue}.
+ */
+@Service
+public class GuardedAIService {
+
+    private final AIService aiService;
+    private final DownstreamBulkheads bulkheads;
+    private final AiBatchQueue batchQueue;
+    private final AiLaneMetrics laneMetrics;
+    private final MonsterPoolProperties.Breaker breakerSettings;
+    private final CircuitBreaker circuitBreaker;
+
+    public GuardedAIService(AIService aiService, DownstreamBulkheads bulkheads, AiBatchQueue batchQueue,
+                            AiLaneMetrics laneMetrics, MonsterPoolProperties poolProperties,
+                            MeterRegistry meterRegistry) {
+        this.aiService = aiService;
+        this.bulkheads = bulkheads;
+        this.batchQueue = batchQueue;
+        this.laneMetrics = laneMetrics;
+        this.breakerSettings = poolProperties.getBreaker();
+        this.circuitBreaker = new CircuitBreaker("ai", breakerSettings, meterRegistry);
+    }
+
+    public MonsterCharacteristics analyzeImage(MultipartFile image, String emotionText) {
+        return analyzeImage(image, emotionText, AiLane.INTERACTIVE);
+    }
+
+    /**
+     * In the batch lane the analysis waits for its provider batch, which can take minutes to hours.
+     * Provider batches are priced and finish on their own schedule, so they are not reported to the circuit breaker.
+     */
+    public MonsterCharacteristics analyzeImage(MultipartFile image, String emotionText, AiLane lane) {
+        if (lane == AiLane.BATCH) {
+            return analyzeImageInBatch(image, emotionText, ticket -> { });
+        }
+        return call(lane, AiLaneMetrics.OPERATION_ANALYZE, bulkheads.chat(), () ->
+            observe(breakerSettings.getAnalyzeSlo(), () -> aiService.analyzeImage(image, emotionText)));
+    }
+
+    /**
+     * Batch-lane analysis that hands the caller its {@link AiBatchQueue.Ticket} once the provider batch exists,
+     * to be kept for {@link #resumeBatchAnalysis} after a restart.
+     */
+    public MonsterCharacteristics analyzeImageInBatch(MultipartFile image, String emotionText,
+                                                      Consumer<AiBatchQueue.Ticket> onSubmitted) {
+        return batchQueue.analyze(image, emotionText, onSubmitted);
+    }
+
+    public MonsterCharacteristics resumeBatchAnalysis(AiBatchQueue.Ticket ticket) {
+        return batchQueue.resume(ticket);
+    }
+
+    /**
+     * Streaming analysis. {@code onAttempt} runs before every attempt, including bulkhead retries,
+     * so callers can discard deltas of an attempt that failed halfway.
+     */
+    public MonsterCharacteristics analyzeImageStreaming(MultipartFile image, String emotionText,
+                                                        Runnable onAttempt, Consumer<String> onDelta) {
+        return call(AiLane.INTERACTIVE, AiLaneMetrics.OPERATION_ANALYZE, bulkheads.chat(), () -> {
+            onAttempt.run();
+            return observe(breakerSettings.getAnalyzeSlo(),
+                () -> aiService.analyzeImageStreaming(image, emotionText, onDelta));
+        });
+    }
+
+    public MonsterCharacteristics imagineMonster(String mood) {
+        return imagineMonster(mood, AiLane.INTERACTIVE);
+    }
+
+    public MonsterCharacteristics imagineMonster(String mood, AiLane lane) {
+        return call(lane, AiLaneMetrics.OPERATION_IMAGINE, bulkheads.chat(), () ->
+            observe(breakerSettings.getAnalyzeSlo(), () -> aiService.imagineMonster(mood)));
+    }
+
+    public String generateMonsterImage(String prompt) {
+        return generateMonsterImage(prompt, AiLane.INTERACTIVE);
+    }
+
+    /**
+     * The image API has no batch endpoint; batch-lane generations run one by one under the lane's share.
+     */
+    public String generateMonsterImage(String prompt, AiLane lane) {
+        return call(lane, AiLaneMetrics.OPERATION_GENERATE, bulkheads.image(), () ->
+            observe(breakerSettings.getGenerateSlo(), () -> aiService.generateMonsterImage(prompt)));
+    }
+
+    public CircuitBreaker circuitBreaker() {
+        return circuitBreaker;
+    }
+
+    // Queue wait runs until the first attempt starts; backoff between retries is not counted
+    private <T> T call(AiLane lane, String operation, Bulkhead bulkhead, Supplier<T> attempt) {
+        long requested = System.nanoTime();
+        boolean[] started = new boolean[1];
+        try {
+            T result = bulkhead.execute(lane, () -> {
+                if (!started[0]) {
+                    started[0] = true;
+                    laneMetrics.recordQueueWait(lane, operation, System.nanoTime() - requested);
+                }
+                return attempt.get();
+            });
+            laneMetrics.recordRequest(lane, operation, "success");
+            return result;
+        } catch (RuntimeException e) {
+            laneMetrics.recordRequest(lane, operation, e instanceof BulkheadFullException ? "rejected" : "failure");
+            throw e;
+        }
+    }
+
+    // Times the provider call itself; waiting for a bulkhead permit doesn't count against the SLO
+    private <T> T observe(Duration slo, Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            circuitBreaker.onSuccess(Duration.ofNanos(System.nanoTime() - start), slo);
+            return result;
+        } catch (RuntimeException e) {
+            if (isProviderFailure(e)) {
+                circuitBreaker.onFailure(e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Only the provider's own trouble counts against the breaker: 429 and 5xx responses, timeouts
+     * and I/O errors. A client that hung up, an interrupted call or a rejected request (other 4xx)
+     * says nothing about the provider's health.
+     */
+    static boolean isProviderFailure(Throwable error) {
+        if (Thread.currentThread().isInterrupted()) {
+            return false;
+        }
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ClientGoneException || cause instanceof InterruptedException) {
+                return false;
+            }
+            if (cause instanceof TransientAiException) {
+                return true;
+            }
+            if (cause instanceof RestClientResponseException e) {
+                return Bulkhead.isRetryableStatus(e.getStatusCode().value());
+            }
+            if (cause instanceof TimeoutException || cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,12 @@
+package com.momon.backend.service;
+
+/**
+ * Thrown when the earlier request with the same {@code Idempotency-Key} is still running
+ * after the duplicate has waited as long as it may.
+ */
+public class IdempotencyInProgressException extends RuntimeException {
+
+    public IdempotencyInProgressException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.momon.backend.service;
+
+/**
+ * Thrown when a device sends an {@code Idempotency-Key} it already used for a different request.
+ */
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,143 @@
+package com.momon.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.momon.backend.dto.MonsterResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Results of monster creations by {@code Idempotency-Key}, scoped to the device.
+ *
+ * <p>The first request with a key registers a future and runs the creation inline on its request thread;
+ * a duplicate arriving meanwhile waits on that future instead of starting a second run, and one
+ * arriving later gets the stored response. A failed creation is forgotten, so the next retry runs again.
+ * Finished entries expire {@code ttl} after the creation finished. Only they count towards
+ * {@code maximum-size}: an in-flight entry is never evicted, and there are only as many of those
+ * as creations running. Kept per instance, like {@link ReadYourWrites}.
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+
+    public static final String KEY_HEADER = "Idempotency-Key";
+
+    private final Cache<String, Entry> entries;
+    private final Duration waitTimeout;
+
+    private final Counter created;
+    private final Counter joined;
+    private final Counter replayed;
+    private final Counter mismatched;
+
+    public IdempotencyStore(
+        MeterRegistry meterRegistry,
+        @Value("${monster.idempotency.ttl:24h}") Duration ttl,
+        @Value("${monster.idempotency.maximum-size:100000}") long maximumSize,
+        @Value("${monster.idempotency.wait-timeout:3m}") Duration waitTimeout
+    ) {
+        this.entries = Caffeine.newBuilder()
+            .expireAfterWrite(ttl)
+            // In-flight entries weigh nothing, so the size bound only evicts finished ones
+            .maximumWeight(maximumSize)
+            .weigher((String entryKey, Entry entry) -> entry.result().isDone() ? 1 : 0)
+            .build();
+        this.waitTimeout = waitTimeout;
+
+        this.created = meterRegistry.counter("monster.idempotency.requests", "result", "new");
+        this.joined = meterRegistry.counter("monster.idempotency.requests", "result", "joined");
+        this.replayed = meterRegistry.counter("monster.idempotency.requests", "result", "replayed");
+        this.mismatched = meterRegistry.counter("monster.idempotency.requests", "result", "mismatch");
+    }
+
+    /**
+     * Runs {@code create} unless the device already used the key, in which case the result of that
+     * earlier request is returned (after waiting for it if it is still running).
+     *
+     * @param fingerprint identifies the request body; reusing a key for a different body is rejected
+     * @throws IdempotencyKeyReusedException when the key was used for a different request
+     * @throws IdempotencyInProgressException when the earlier request is still running after the wait timeout
+     */
+    public Result execute(String deviceId, String key, String fingerprint, Supplier<MonsterResponse> create) {
+        String entryKey = entryKey(deviceId, key);
+        Entry own = new Entry(fingerprint, new CompletableFuture<>());
+        Entry existing = entries.asMap().putIfAbsent(entryKey, own);
+        if (existing == null) {
+            created.increment();
+            return new Result(run(entryKey, own, create), false);
+        }
+
+        if (!existing.fingerprint().equals(fingerprint)) {
+            mismatched.increment();
+            throw new IdempotencyKeyReusedException("Idempotency key " + key + " was used for a different request");
+        }
+        if (existing.result().isDone()) {
+            replayed.increment();
+        } else {
+            joined.increment();
+            log.info("⏳ Waiting for in-flight request with idempotency key {}", key);
+        }
+        return new Result(await(key, existing.result()), true);
+    }
+
+    /**
+     * Whether the device already used the key, so a request with it is a retry that creates nothing new.
+     */
+    public boolean contains(String deviceId, String key) {
+        return entries.getIfPresent(entryKey(deviceId, key)) != null;
+    }
+
+    private static String entryKey(String deviceId, String key) {
+        return deviceId + ":" + key;
+    }
+
+    private MonsterResponse run(String entryKey, Entry own, Supplier<MonsterResponse> create) {
+        try {
+            MonsterResponse response = create.get();
+            own.result().complete(response);
+            // Re-weighs the now finished entry, making it evictable, and starts its ttl
+            entries.asMap().replace(entryKey, own, new Entry(own.fingerprint(), own.result()));
+            return response;
+        } catch (RuntimeException | Error e) {
+            // Waiters see the same failure; the next retry with this key starts over
+            entries.asMap().remove(entryKey, own);
+            own.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private MonsterResponse await(String key, CompletableFuture<MonsterResponse> result) {
+        try {
+            return result.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Request with idempotency key " + key + " failed", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IdempotencyInProgressException("Request with idempotency key " + key + " is still running");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyInProgressException("Interrupted while waiting for idempotency key " + key);
+        }
+    }
+
+    private record Entry(String fingerprint, CompletableFuture<MonsterResponse> result) {
+    }
+
+    /**
+     * The response and whether it came from an earlier request with the same key.
+     */
+    public record Result(MonsterResponse response, boolean replayed) {
+    }
+}
@@ -0,0 +1,267 @@
+package com.momon.backend.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shrinks uploaded photos before the vision call: decodes, applies the EXIF orientation,
+ * downscales to {@code image.preprocess.max-edge} and re-encodes as a metadata-free JPEG.
+ * The CPU work runs on a fixed pool sized to the core count, so a burst of uploads on
+ * virtual threads cannot oversubscribe the CPUs. Uploads are read as streams (spooled parts
+ * stay on disk) and decoded subsampled, so memory per decode stays near the target size.
+ */
+@Service
+@Slf4j
+public class ImagePreprocessor {
+
+    static {
+        // Decode from memory; no temp files per upload
+        ImageIO.setUseCache(false);
+    }
+
+    // The EXIF APP1 segment is at most 64 KiB and sits right after the start of the JPEG
+    private static final int EXIF_SEARCH_BYTES = 128 * 1024;
+
+    private final boolean enabled;
+    private final int maxEdge;
+    private final float jpegQuality;
+    private final ThreadPoolExecutor executor;
+
+    private final Timer preprocessTimer;
+    private final DistributionSummary bytesSaved;
+
+    public ImagePreprocessor(
+        MeterRegistry meterRegistry,
+        @Value("${image.preprocess.enabled:true}") boolean enabled,
+        @Value("${image.preprocess.max-edge:1024}") int maxEdge,
+        @Value("${image.preprocess.jpeg-quality:0.85}") float jpegQuality,
+        @Value("${image.preprocess.threads:0}") int threads,
+        @Value("${image.preprocess.queue-capacity:64}") int queueCapacity
+    ) {
+        this.enabled = enabled;
+        this.maxEdge = maxEdge;
+        this.jpegQuality = jpegQuality;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        // When the queue is full the caller waits for room, which throttles intake.
+        // Running the task on the caller instead would let concurrent decodes grow with the request count.
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            Thread.ofPlatform().name("image-preprocess-", 0).daemon(true).factory(),
+            ImagePreprocessor::waitForRoom);
+
+        this.preprocessTimer = Timer.builder("image.preprocess")
+            .description("Time to decode, downscale and re-encode an uploaded photo")
+            .register(meterRegistry);
+        this.bytesSaved = DistributionSummary.builder("image.preprocess.bytes.saved")
+            .description("Upload bytes removed before the vision call")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Returns a compact JPEG version of the image, or the original when it cannot be decoded
+     * (e.g. HEIC) or preprocessing is disabled.
+     */
+    public MultipartFile preprocess(MultipartFile image) {
+        if (!enabled) {
+            return image;
+        }
+
+        try {
+            long start = System.nanoTime();
+            byte[] processed = executor.submit(() -> shrink(image)).get();
+            long elapsed = System.nanoTime() - start;
+            preprocessTimer.record(elapsed, TimeUnit.NANOSECONDS);
+
+            if (processed == null) {
+                log.info("   - Image not decodable, sending original ({} bytes)", image.getSize());
+                return image;
+            }
+
+            bytesSaved.record(Math.max(0, image.getSize() - processed.length));
+            log.info("   - Image preprocessed: {} -> {} bytes in {} ms",
+                image.getSize(), processed.length, TimeUnit.NANOSECONDS.toMillis(elapsed));
+            return new ByteArrayMultipartFile(jpegName(image.getOriginalFilename()), "image/jpeg", processed);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while preprocessing image", e);
+        } catch (IOException | ExecutionException e) {
+            log.warn("   - Image preprocessing failed, sending original", e);
+            return image;
+        }
+    }
+
+    private byte[] shrink(MultipartFile image) throws IOException {
+        int orientation;
+        try (InputStream in = image.getInputStream()) {
+            orientation = ExifOrientation.read(in.readNBytes(EXIF_SEARCH_BYTES));
+        }
+
+        BufferedImage decoded = decodeSubsampled(image);
+        if (decoded == null) {
+            return null;
+        }
+
+        // Scale first so the rotation works on the small image
+        BufferedImage scaled = downscale(decoded, maxEdge);
+        return encodeJpeg(orient(scaled, orientation), jpegQuality);
+    }
+
+    /**
+     * Decodes only every n-th pixel in each direction, with n as large as possible while the
+     * longest edge stays at or above {@code maxEdge}: a 12 MP photo never exists as a full raster.
+     */
+    private BufferedImage decodeSubsampled(MultipartFile image) throws IOException {
+        try (InputStream in = image.getInputStream();
+             ImageInputStream stream = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(stream);
+            if (!readers.hasNext()) {
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(stream, true, true);
+                int step = Math.max(1, Math.max(reader.getWidth(0), reader.getHeight(0)) / maxEdge);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Shared with ImageVariants: a full queue blocks the submitting thread instead of running the task on it
+    static void waitForRoom(Runnable task, ThreadPoolExecutor pool) {
+        if (pool.isShutdown()) {
+            throw new RejectedExecutionException("Image pool is shut down");
+        }
+        try {
+            pool.getQueue().put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for the image pool", e);
+        }
+    }
+
+    // Shared with ImageVariants
+    static BufferedImage downscale(BufferedImage image, int maxEdge) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double scale = Math.min(1.0, (double) maxEdge / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        // Halve repeatedly, then one final bilinear step; a single big bilinear jump aliases badly
+        BufferedImage current = image;
+        while (current.getWidth() / 2 >= targetWidth && current.getHeight() / 2 >= targetHeight) {
+            current = draw(current, current.getWidth() / 2, current.getHeight() / 2, null);
+        }
+        // Always redraw once: flattens alpha onto white and drops any color model JPEG can't take
+        return draw(current, targetWidth, targetHeight, null);
+    }
+
+    private static BufferedImage orient(BufferedImage image, int orientation) {
+        if (orientation == ExifOrientation.NORMAL) {
+            return image;
+        }
+
+        int w = image.getWidth();
+        int h = image.getHeight();
+        // AffineTransform(m00, m10, m01, m11, m02, m12) per EXIF orientation value
+        AffineTransform transform = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);   // mirror horizontal
+            case 3 -> new AffineTransform(-1, 0, 0, -1, w, h);  // rotate 180
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);   // mirror vertical
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);    // transpose
+            case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);   // rotate 90 clockwise
+            case 7 -> new AffineTransform(0, -1, -1, 0, h, w);  // transverse
+            case 8 -> new AffineTransform(0, -1, 1, 0, 0, w);   // rotate 90 counter-clockwise
+            default -> null;
+        };
+        if (transform == null) {
+            return image;
+        }
+
+        boolean swap = orientation >= 5;
+        return draw(image, swap ? h : w, swap ? w : h, transform);
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height, AffineTransform transform) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            if (transform != null) {
+                g.drawImage(source, transform, null);
+            } else {
+                g.drawImage(source, 0, 0, width, height, null);
+            }
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    static byte[] encodeJpeg(BufferedImage image, float jpegQuality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(stream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static String jpegName(String filename) {
+        if (filename == null || filename.isBlank()) {
+            return "image.jpg";
+        }
+        int dot = filename.lastIndexOf('.');
+        return (dot > 0 ? filename.substring(0, dot) : filename) + ".jpg";
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,31 @@
+package com.momon.backend.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Permanent home of monster images. Selected with {@code image.store.type}:
+ * {@link S3ImageStore} (default) or {@link LocalImageStore} for self-hosted and dev deployments.
+ */
+public interface ImageStore {
+
+    /**
+     * Stores the stream and returns the public URL of the stored image.
+     *
+     * @param filename      suggested object name, e.g. {@code monsters/<uuid>.png}; its extension is kept
+     * @param contentLength byte count, or -1 when unknown
+     */
+    String store(String filename, String contentType, InputStream body, long contentLength) throws IOException;
+
+    default String store(String filename, String contentType, byte[] bytes) throws IOException {
+        return store(filename, contentType, new ByteArrayInputStream(bytes), bytes.length);
+    }
+
+    /**
+     * Whether images are stored even in AI mock mode, where the remote store usually has no credentials.
+     */
+    default boolean storesInMockMode() {
+        return false;
+    }
+}
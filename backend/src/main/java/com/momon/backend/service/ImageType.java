@@ -0,0 +1,76 @@
+package com.momon.backend.service;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Photo formats accepted for upload, recognized by their magic bytes rather than
+ * the client-supplied content type or file name. Only the first few bytes are read.
+ */
+public enum ImageType {
+
+    JPEG("image/jpeg"),
+    PNG("image/png"),
+    GIF("image/gif"),
+    WEBP("image/webp"),
+    HEIC("image/heic");
+
+    private static final int HEADER_BYTES = 12;
+
+    private final String mediaType;
+
+    ImageType(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    public static Optional<ImageType> detect(MultipartFile file) {
+        try (InputStream in = file.getInputStream()) {
+            return detect(in.readNBytes(HEADER_BYTES));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    static Optional<ImageType> detect(byte[] header) {
+        if (startsWith(header, 0, 0xFF, 0xD8, 0xFF)) {
+            return Optional.of(JPEG);
+        }
+        if (startsWith(header, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return Optional.of(PNG);
+        }
+        if (startsWith(header, 0, 'G', 'I', 'F', '8')) {
+            return Optional.of(GIF);
+        }
+        if (startsWith(header, 0, 'R', 'I', 'F', 'F') && startsWith(header, 8, 'W', 'E', 'B', 'P')) {
+            return Optional.of(WEBP);
+        }
+        // ISO base media file: "ftyp" box at offset 4, then the HEIF brand
+        if (startsWith(header, 4, 'f', 't', 'y', 'p') && header.length >= 12) {
+            String brand = new String(header, 8, 4, StandardCharsets.US_ASCII);
+            if (brand.startsWith("hei") || brand.startsWith("hev") || brand.equals("mif1") || brand.equals("msf1")) {
+                return Optional.of(HEIC);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static boolean startsWith(byte[] data, int offset, int... expected) {
+        if (data.length < offset + expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if ((data[offset + i] & 0xFF) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,120 @@
+package com.momon.backend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders the gallery variants of a stored monster image: a thumbnail for list cards
+ * and a medium size for detail views on small screens.
+ * Decoding and both resizes run on a fixed pool sized to the core count, the two sizes in parallel;
+ * callers only wait, so many concurrent uploads cannot oversubscribe the CPUs.
+ */
+@Service
+@Slf4j
+public class ImageVariants {
+
+    private final boolean enabled;
+    private final int thumbnailEdge;
+    private final int mediumEdge;
+    private final float jpegQuality;
+    private final int maxSourceBytes;
+    private final ThreadPoolExecutor executor;
+
+    private final Timer renderTimer;
+
+    public ImageVariants(
+        MeterRegistry meterRegistry,
+        @Value("${image.variants.enabled:true}") boolean enabled,
+        @Value("${image.variants.thumbnail-edge:256}") int thumbnailEdge,
+        @Value("${image.variants.medium-edge:512}") int mediumEdge,
+        @Value("${image.variants.jpeg-quality:0.8}") float jpegQuality,
+        @Value("${image.variants.max-source-bytes:20971520}") int maxSourceBytes,
+        @Value("${image.variants.threads:0}") int threads,
+        @Value("${image.variants.queue-capacity:64}") int queueCapacity
+    ) {
+        this.enabled = enabled;
+        this.thumbnailEdge = thumbnailEdge;
+        this.mediumEdge = mediumEdge;
+        this.jpegQuality = jpegQuality;
+        this.maxSourceBytes = maxSourceBytes;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        // When the queue is full the caller waits for room; running the task itself would put
+        // the decode on a virtual request thread and past the core count
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            Thread.ofPlatform().name("image-variants-", 0).daemon(true).factory(),
+            ImagePreprocessor::waitForRoom);
+
+        this.renderTimer = Timer.builder("image.variants")
+            .description("Time to decode a stored image and render its thumbnail and medium variants")
+            .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Largest source image worth buffering for variants; bigger downloads are stored without them.
+     */
+    public int maxSourceBytes() {
+        return maxSourceBytes;
+    }
+
+    /**
+     * Returns JPEG thumbnail and medium renditions, or empty when the image cannot be decoded.
+     */
+    public Optional<Rendered> render(byte[] source) throws IOException {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        long start = System.nanoTime();
+        try {
+            // Only the calling thread submits work, so pool threads never wait on each other
+            BufferedImage decoded = executor.submit(() -> ImageIO.read(new ByteArrayInputStream(source))).get();
+            if (decoded == null) {
+                return Optional.empty();
+            }
+
+            Future<byte[]> medium = executor.submit(() -> resize(decoded, mediumEdge));
+            Future<byte[]> thumbnail = executor.submit(() -> resize(decoded, thumbnailEdge));
+            Rendered rendered = new Rendered(thumbnail.get(), medium.get());
+            renderTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Optional.of(rendered);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rendering image variants", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to render image variants", e.getCause());
+        }
+    }
+
+    private byte[] resize(BufferedImage image, int maxEdge) throws IOException {
+        return ImagePreprocessor.encodeJpeg(ImagePreprocessor.downscale(image, maxEdge), jpegQuality);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public record Rendered(byte[] thumbnail, byte[] medium) {
+    }
+}
@@ -0,0 +1,158 @@
+package com.momon.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed image store on the local filesystem, for self-hosted and dev deployments.
+ * Files are named by the SHA-256 of their bytes, so identical images are stored once and
+ * a stored file never changes; the name doubles as a strong ETag.
+ * Images are served by {@code ImageController} under {@code image.store.local.public-base-url}.
+ */
+@Service
+@ConditionalOnProperty(name = "image.store.type", havingValue = "local")
+@Slf4j
+public class LocalImageStore implements ImageStore {
+
+    // <sha-256 hex>.<extension>
+    private static final Pattern STORED_NAME = Pattern.compile("([0-9a-f]{64})\\.([a-z0-9]{1,5})");
+    private static final Pattern EXTENSION = Pattern.compile("[a-z0-9]{1,5}");
+
+    private final Path root;
+    private final Path tmp;
+    private final String publicBaseUrl;
+    private final Counter deduplicated;
+
+    public LocalImageStore(
+        MeterRegistry meterRegistry,
+        @Value("${image.store.local.root:./data/images}") String root,
+        @Value("${image.store.local.public-base-url:http://localhost:8080/images}") String publicBaseUrl
+    ) throws IOException {
+        this.root = Path.of(root).toAbsolutePath().normalize();
+        // Same file system as the store, so finished uploads can be renamed into place atomically
+        this.tmp = Files.createDirectories(this.root.resolve("tmp"));
+        this.publicBaseUrl = publicBaseUrl.replaceAll("/+$", "");
+        this.deduplicated = Counter.builder("image.store.local.deduplicated")
+            .description("Stored images whose bytes were already present")
+            .register(meterRegistry);
+        log.info("🗂️ Local image store at {}", this.root);
+    }
+
+    @Override
+    public String store(String filename, String contentType, InputStream body, long contentLength) throws IOException {
+        String extension = extensionOf(filename);
+        Path upload = Files.createTempFile(tmp, "upload-", ".part");
+        try {
+            // Hash while writing, so the bytes are read only once
+            MessageDigest digest = sha256();
+            try (FileChannel channel = FileChannel.open(upload, StandardOpenOption.WRITE);
+                 InputStream in = new DigestInputStream(body, digest)) {
+                OutputStream out = Channels.newOutputStream(channel);
+                in.transferTo(out);
+                channel.force(true);
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = pathOf(hash, extension);
+            if (Files.exists(target)) {
+                deduplicated.increment();
+            } else {
+                Files.createDirectories(target.getParent());
+                // A concurrent store of the same bytes may win the rename; both files are identical
+                Files.move(upload, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return urlOf(hash, extension);
+        } finally {
+            Files.deleteIfExists(upload);
+        }
+    }
+
+    @Override
+    public String store(String filename, String contentType, byte[] bytes) throws IOException {
+        String extension = extensionOf(filename);
+        String hash = HexFormat.of().formatHex(sha256().digest(bytes));
+        if (Files.exists(pathOf(hash, extension))) {
+            deduplicated.increment();
+            return urlOf(hash, extension);
+        }
+        return ImageStore.super.store(filename, contentType, bytes);
+    }
+
+    @Override
+    public boolean storesInMockMode() {
+        return true;
+    }
+
+    /**
+     * Looks up a stored image by its public name ({@code <sha-256>.<extension>}).
+     * Anything else, including path traversal attempts, is simply not found.
+     */
+    public Optional<StoredFile> resolve(String name) {
+        Matcher matcher = STORED_NAME.matcher(name);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+
+        Path path = pathOf(matcher.group(1), matcher.group(2));
+        try {
+            long size = Files.size(path);
+            MediaType mediaType = MediaTypeFactory.getMediaType(name).orElse(MediaType.APPLICATION_OCTET_STREAM);
+            return Optional.of(new StoredFile(path, matcher.group(1), mediaType, size));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    // Two-character fan-out keeps directories small
+    private Path pathOf(String hash, String extension) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash + "." + extension);
+    }
+
+    private String urlOf(String hash, String extension) {
+        return publicBaseUrl + "/" + hash + "." + extension;
+    }
+
+    private static String extensionOf(String filename) {
+        int dot = filename.lastIndexOf('.');
+        if (dot < 0 || dot < filename.lastIndexOf('/')) {
+            return "bin";
+        }
+        String extension = filename.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return EXTENSION.matcher(extension).matches() ? extension : "bin";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public record StoredFile(Path path, String hash, MediaType mediaType, long size) {
+    }
+}
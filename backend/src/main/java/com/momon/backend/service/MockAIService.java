@@ -57,6 +57,12 @@ public class MockAIService implements AIService {
         return characteristics;
     }
 
+    @Override
+    public MonsterCharacteristics imagineMonster(String mood) {
+        log.info("🎭 Mock AI: Imagining monster for mood: {} (no cost)", mood);
+        return MOCK_MONSTERS.get(random.nextInt(MOCK_MONSTERS.size()));
+    }
+
     @Override
     public String generateMonsterImage(String prompt) {
         log.info("🎭 Mock AI: Returning sample image URL (no cost)");
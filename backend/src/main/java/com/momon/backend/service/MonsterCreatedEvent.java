@@ -0,0 +1,9 @@
+package com.momon.backend.service;
+
+import com.momon.backend.dto.MonsterResponse;
+
+/**
+ * Published when a monster is saved; listeners run once the insert has committed.
+ */
+public record MonsterCreatedEvent(MonsterResponse monster) {
+}
@@ -0,0 +1,11 @@
+package com.momon.backend.service;
+
+import com.momon.backend.dto.MonsterCharacteristics;
+
+/**
+ * Published when a monster is saved with a temporary provider image URL.
+ * {@code cacheKey} and {@code characteristics} let the copy fill the generation cache
+ * once the permanent URL is known; both are null when the sweep re-queues a monster.
+ */
+public record MonsterImagePendingEvent(Long monsterId, String cacheKey, MonsterCharacteristics characteristics) {
+}
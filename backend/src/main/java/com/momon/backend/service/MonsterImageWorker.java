@@ -0,0 +1,219 @@
+package com.momon.backend.service;
+
+import com.momon.backend.config.CacheConfig;
+import com.momon.backend.dto.StoredImage;
+import com.momon.backend.entity.Monster;
+import com.momon.backend.repository.MonsterRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Copies temporary AI provider images to S3 after the monster has already been returned,
+ * then swaps {@code Monster.imageUrl} to the S3 URL.
+ * Like {@link MonsterJobWorker}, the database is the queue: failed copies back off
+ * exponentially, and the periodic sweep re-queues any monster still on a temporary URL.
+ * After {@code max-attempts} the copy keeps retrying at {@code slow-retry-delay} until the
+ * provider URL expires; then the monster is flagged {@code imageFailed} and counted in
+ * {@code monster.image.copy.failed}.
+ */
+@Component
+@Slf4j
+public class MonsterImageWorker {
+
+    private final MonsterRepository monsterRepository;
+    private final S3Service s3Service;
+    private final GenerationResultCache generationResultCache;
+    private final CacheManager cacheManager;
+    private final ReadYourWrites readYourWrites;
+    private final RecentMonsterFeed recentMonsterFeed;
+
+    private final int maxConcurrency;
+    private final int maxAttempts;
+    private final Duration leaseDuration;
+    private final Duration retryDelay;
+    private final Duration slowRetryDelay;
+    private final Duration providerUrlTtl;
+    private final Counter failedCopies;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private volatile boolean shuttingDown;
+
+    public MonsterImageWorker(
+        MonsterRepository monsterRepository,
+        S3Service s3Service,
+        GenerationResultCache generationResultCache,
+        CacheManager cacheManager,
+        ReadYourWrites readYourWrites,
+        RecentMonsterFeed recentMonsterFeed,
+        MeterRegistry meterRegistry,
+        @Value("${monster.image.max-concurrency:16}") int maxConcurrency,
+        @Value("${monster.image.max-attempts:6}") int maxAttempts,
+        @Value("${monster.image.lease-duration:2m}") Duration leaseDuration,
+        @Value("${monster.image.retry-delay:15s}") Duration retryDelay,
+        @Value("${monster.image.slow-retry-delay:10m}") Duration slowRetryDelay,
+        @Value("${monster.image.provider-url-ttl:1h}") Duration providerUrlTtl
+    ) {
+        this.monsterRepository = monsterRepository;
+        this.s3Service = s3Service;
+        this.generationResultCache = generationResultCache;
+        this.cacheManager = cacheManager;
+        this.readYourWrites = readYourWrites;
+        this.recentMonsterFeed = recentMonsterFeed;
+        this.maxConcurrency = maxConcurrency;
+        this.maxAttempts = maxAttempts;
+        this.leaseDuration = leaseDuration;
+        this.retryDelay = retryDelay;
+        this.slowRetryDelay = slowRetryDelay;
+        this.providerUrlTtl = providerUrlTtl;
+        this.failedCopies = Counter.builder("monster.image.copy.failed")
+            .description("Monsters left on an expired provider image URL")
+            .register(meterRegistry);
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onImagePending(MonsterImagePendingEvent event) {
+        dispatch(event);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverOnStartup() {
+        sweep();
+    }
+
+    @Scheduled(fixedDelayString = "${monster.image.sweep-interval-ms:30000}",
+               initialDelayString = "${monster.image.sweep-interval-ms:30000}")
+    public void sweep() {
+        if (shuttingDown) {
+            return;
+        }
+
+        List<Long> monsterIds = monsterRepository.findPendingImageIds(
+            LocalDateTime.now(), PageRequest.of(0, maxConcurrency * 4));
+        if (!monsterIds.isEmpty()) {
+            log.info("♻️ Re-queuing {} monster images still on a temporary URL", monsterIds.size());
+        }
+        monsterIds.forEach(id -> dispatch(new MonsterImagePendingEvent(id, null, null)));
+    }
+
+    private void dispatch(MonsterImagePendingEvent event) {
+        if (shuttingDown || !inFlight.add(event.monsterId())) {
+            return;
+        }
+
+        executor.execute(() -> {
+            try {
+                permits.acquire();
+                try {
+                    copy(event);
+                } finally {
+                    permits.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.remove(event.monsterId());
+            }
+        });
+    }
+
+    private void copy(MonsterImagePendingEvent event) {
+        Long monsterId = event.monsterId();
+        LocalDateTime now = LocalDateTime.now();
+        if (monsterRepository.claimImageCopy(monsterId, now, now.plus(leaseDuration)) == 0) {
+            return;
+        }
+
+        Monster monster = monsterRepository.findById(monsterId).orElse(null);
+        if (monster == null) {
+            return;
+        }
+
+        try {
+            StoredImage stored = s3Service.uploadMonsterImage(monster.getImageUrl());
+            if (monsterRepository.completeImageCopy(
+                    monsterId, stored.url(), stored.thumbnailUrl(), stored.mediumUrl()) == 1) {
+                refreshCached(monsterId);
+                readYourWrites.recordWrite(monster.getUser().getDeviceId());
+                generationResultCache.put(event.cacheKey(), event.characteristics(), stored);
+                log.info("✅ Monster image persisted: {} -> {}", monsterId, stored.url());
+            }
+        } catch (Exception e) {
+            if (shuttingDown) {
+                // The lease expires and the next sweep retries the copy
+                return;
+            }
+            int attempt = monster.getImageCopyAttempts();
+            LocalDateTime failedAt = LocalDateTime.now();
+            LocalDateTime urlExpiresAt = monster.getCreatedAt().plus(providerUrlTtl);
+            if (!failedAt.isBefore(urlExpiresAt)) {
+                giveUp(monsterId, attempt, e);
+                return;
+            }
+            // Fast retries first, then slow ones for as long as the provider URL still loads
+            Duration backoff = attempt < maxAttempts
+                ? retryDelay.multipliedBy(1L << Math.min(attempt - 1, 10))
+                : slowRetryDelay;
+            LocalDateTime retryAt = failedAt.plus(backoff);
+            if (retryAt.isAfter(urlExpiresAt)) {
+                retryAt = urlExpiresAt;
+            }
+            log.warn("⚠️ Copying image of monster {} failed (attempt {}), retrying at {}",
+                monsterId, attempt, retryAt, e);
+            monsterRepository.scheduleImageCopyRetry(monsterId, retryAt);
+        }
+    }
+
+    private void giveUp(Long monsterId, int attempt, Exception e) {
+        if (monsterRepository.failImageCopy(monsterId) == 0) {
+            return;
+        }
+        failedCopies.increment();
+        refreshCached(monsterId);
+        log.error("❌ Giving up on persisting image of monster {} after {} attempts, provider URL expired",
+            monsterId, attempt, e);
+    }
+
+    // Refreshed from the primary: after a plain eviction a lagging replica could cache the old row again
+    private void refreshCached(Long monsterId) {
+        monsterRepository.findResponseById(monsterId).ifPresentOrElse(
+            response -> {
+                monsterCache().put(monsterId, response);
+                recentMonsterFeed.update(response);
+            },
+            () -> monsterCache().evict(monsterId));
+    }
+
+    private Cache monsterCache() {
+        return Objects.requireNonNull(cacheManager.getCache(CacheConfig.MONSTERS));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        shuttingDown = true;
+        executor.shutdownNow();
+    }
+}
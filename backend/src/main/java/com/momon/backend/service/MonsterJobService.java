@@ -0,0 +1,125 @@
+package com.momon.backend.service;
+
+import com.momon.backend.config.TraceIdFilter;
+import com.momon.backend.dto.MonsterCharacteristics;
+import com.momon.backend.dto.MonsterJobResponse;
+import com.momon.backend.dto.MonsterResponse;
+import com.momon.backend.dto.StoredImage;
+import com.momon.backend.entity.AiLane;
+import com.momon.backend.entity.MonsterJob;
+import com.momon.backend.entity.MonsterJobStatus;
+import com.momon.backend.repository.MonsterJobRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MonsterJobService {
+
+    private final MonsterJobRepository monsterJobRepository;
+    private final MonsterService monsterService;
+    private final MonsterWriter monsterWriter;
+    private final UserService userService;
+    private final GenerationResultCache generationResultCache;
+    private final ImagePreprocessor imagePreprocessor;
+    private final PipelineMetrics pipelineMetrics;
+    private final ReadYourWrites readYourWrites;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Not transactional: the image work happens before any connection is taken,
+     * and the job row commits on its own before the worker is notified.
+     */
+    public MonsterJobResponse submit(String deviceId, MultipartFile image, String emotionText) {
+        return submit(deviceId, image, emotionText, AiLane.INTERACTIVE);
+    }
+
+    /**
+     * @param lane {@link AiLane#BATCH} for requests nobody waits on, such as campaign imports or "surprise me"
+     */
+    public MonsterJobResponse submit(String deviceId, MultipartFile image, String emotionText, AiLane lane) {
+        log.info("📨 Submitting monster job for device: {} (lane: {})", deviceId, lane.tag());
+        pipelineMetrics.recordPayload("photo", image.getSize());
+
+        pipelineMetrics.time(PipelineMetrics.STAGE_USER, () -> userService.touch(deviceId));
+
+        // Key the cache on the original upload, then store only the downscaled copy
+        String cacheKey = generationResultCache.isEnabled() ? generationResultCache.keyOf(image, emotionText) : null;
+        MultipartFile visionImage = pipelineMetrics.time(PipelineMetrics.STAGE_PREPROCESS, () ->
+            imagePreprocessor.preprocess(image));
+
+        MonsterJob job = MonsterJob.builder()
+            .id(UUID.randomUUID().toString())
+            .deviceId(deviceId)
+            .traceId(MDC.get(TraceIdFilter.MDC_KEY))
+            .status(MonsterJobStatus.PENDING)
+            .emotionText(emotionText)
+            .lane(lane)
+            .imageData(readBytes(visionImage))
+            .imageFilename(visionImage.getOriginalFilename())
+            .imageContentType(visionImage.getContentType())
+            .cacheKey(cacheKey)
+            .build();
+
+        MonsterJob saved = monsterJobRepository.save(job);
+        log.info("   - Job queued: {}", saved.getId());
+        readYourWrites.recordWrite(deviceId);
+
+        // Dispatched to the worker pool; the job row is already committed
+        eventPublisher.publishEvent(new MonsterJobSubmittedEvent(saved.getId(), lane));
+        return MonsterJobResponse.from(saved, null);
+    }
+
+    @Transactional(readOnly = true)
+    public MonsterJobResponse getJob(String jobId, String deviceId) {
+        MonsterJob job = monsterJobRepository.findById(jobId)
+            .filter(found -> found.getDeviceId().equals(deviceId))
+            .orElseThrow(() -> new IllegalArgumentException("Monster job not found: " + jobId));
+
+        MonsterResponse monster = job.getMonsterId() != null
+            ? monsterService.getMonsterById(job.getMonsterId())
+            : null;
+        return MonsterJobResponse.from(job, monster);
+    }
+
+    /**
+     * Saves the monster and marks the job done in one transaction, so a crash in between cannot
+     * produce a duplicate monster. The job is written with the version its worker claimed it at:
+     * if another worker has taken it over since, the update fails and the monster insert rolls back
+     * with an {@link org.springframework.dao.OptimisticLockingFailureException}.
+     */
+    @Transactional
+    public MonsterJob complete(MonsterJob job) {
+        MonsterCharacteristics characteristics = new MonsterCharacteristics(
+            job.getMonsterName(), job.getMonsterDescription(), job.getImagePrompt());
+
+        MonsterResponse monster = monsterWriter.saveMonster(
+            job.getDeviceId(), characteristics,
+            new StoredImage(job.getStoredImageUrl(), job.getStoredThumbnailUrl(), job.getStoredMediumUrl()),
+            job.getEmotionText());
+
+        job.setMonsterId(monster.id());
+        job.setStatus(MonsterJobStatus.DONE);
+        job.setLeaseExpiresAt(null);
+        job.setErrorMessage(null);
+        return monsterJobRepository.save(job);
+    }
+
+    private byte[] readBytes(MultipartFile image) {
+        try {
+            return image.getBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read uploaded image", e);
+        }
+    }
+}
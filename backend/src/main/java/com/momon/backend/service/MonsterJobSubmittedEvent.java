@@ -0,0 +1,6 @@
+package com.momon.backend.service;
+
+import com.momon.backend.entity.AiLane;
+
+public record MonsterJobSubmittedEvent(String jobId, AiLane lane) {
+}
@@ -0,0 +1,388 @@
+package com.momon.backend.service;
+
+import com.momon.backend.config.TraceIdFilter;
+import com.momon.backend.dto.GeneratedMonster;
+import com.momon.backend.dto.MonsterCharacteristics;
+import com.momon.backend.dto.StoredImage;
+import com.momon.backend.entity.AiLane;
+import com.momon.backend.entity.MonsterJob;
+import com.momon.backend.entity.MonsterJobStatus;
+import com.momon.backend.repository.MonsterJobRepository;
+import com.momon.backend.repository.RecoverableJob;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs monster jobs on virtual threads, at most {@code monster.jobs.max-concurrency} at a time.
+ * The database is the queue: jobs that overflow the local backlog, fail with retries left,
+ * or lose their worker to a restart are picked up again by the periodic sweep
+ * once their lease has expired.
+ *
+ * <p>Batch-lane jobs run under their own {@code monster.jobs.batch-max-concurrency} permits, so while
+ * they wait for a provider batch or spare AI capacity they never hold a slot interactive jobs need.
+ * Their lease covers the whole batch turnaround and is extended when the batch is submitted; the batch id
+ * is kept on the job, so a job resumed after a restart waits for the same batch. Waiting for local capacity,
+ * in either lane, never uses up an attempt.
+ *
+ * <p>Every write goes through the job's version, which each claim bumps: a worker whose lease ran out
+ * and was taken over by another one fails its next write, and its monster insert rolls back with it.
+ */
+@Component
+@Slf4j
+public class MonsterJobWorker {
+
+    private static final Set<MonsterJobStatus> ACTIVE_STATUSES = EnumSet.of(
+        MonsterJobStatus.PENDING,
+        MonsterJobStatus.ANALYZING,
+        MonsterJobStatus.GENERATING,
+        MonsterJobStatus.UPLOADING
+    );
+
+    private final MonsterJobRepository monsterJobRepository;
+    private final MonsterJobService monsterJobService;
+    private final GuardedAIService aiService;
+    private final S3Service s3Service;
+    private final GenerationResultCache generationResultCache;
+    private final PipelineMetrics pipelineMetrics;
+    private final AiBatchQueue batchQueue;
+
+    private final int maxConcurrency;
+    private final int queueCapacity;
+    private final int batchMaxConcurrency;
+    private final int maxAttempts;
+    private final Duration leaseDuration;
+    private final Duration retryDelay;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+    private final Semaphore batchPermits;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final Set<String> batchInFlight = ConcurrentHashMap.newKeySet();
+    private volatile boolean shuttingDown;
+
+    public MonsterJobWorker(
+        MonsterJobRepository monsterJobRepository,
+        MonsterJobService monsterJobService,
+        GuardedAIService aiService,
+        S3Service s3Service,
+        GenerationResultCache generationResultCache,
+        PipelineMetrics pipelineMetrics,
+        AiBatchQueue batchQueue,
+        @Value("${monster.jobs.max-concurrency:8}") int maxConcurrency,
+        @Value("${monster.jobs.queue-capacity:200}") int queueCapacity,
+        @Value("${monster.jobs.batch-max-concurrency:200}") int batchMaxConcurrency,
+        @Value("${monster.jobs.max-attempts:3}") int maxAttempts,
+        @Value("${monster.jobs.lease-duration:5m}") Duration leaseDuration,
+        @Value("${monster.jobs.retry-delay:30s}") Duration retryDelay
+    ) {
+        this.monsterJobRepository = monsterJobRepository;
+        this.monsterJobService = monsterJobService;
+        this.aiService = aiService;
+        this.s3Service = s3Service;
+        this.generationResultCache = generationResultCache;
+        this.pipelineMetrics = pipelineMetrics;
+        this.batchQueue = batchQueue;
+        this.maxConcurrency = maxConcurrency;
+        this.queueCapacity = queueCapacity;
+        this.batchMaxConcurrency = batchMaxConcurrency;
+        this.maxAttempts = maxAttempts;
+        this.leaseDuration = leaseDuration;
+        this.retryDelay = retryDelay;
+        this.permits = new Semaphore(maxConcurrency);
+        this.batchPermits = new Semaphore(batchMaxConcurrency);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobSubmitted(MonsterJobSubmittedEvent event) {
+        dispatch(event.jobId(), event.lane());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverOnStartup() {
+        log.info("♻️ Recovering unfinished monster jobs");
+        sweep();
+    }
+
+    @Scheduled(fixedDelayString = "${monster.jobs.sweep-interval-ms:15000}",
+               initialDelayString = "${monster.jobs.sweep-interval-ms:15000}")
+    public void sweep() {
+        int free = maxConcurrency + queueCapacity - inFlight.size() + batchMaxConcurrency - batchInFlight.size();
+        if (free <= 0 || shuttingDown) {
+            return;
+        }
+
+        // Interactive jobs come first, so a large batch backlog cannot hide them from the sweep
+        List<RecoverableJob> jobs = monsterJobRepository.findRecoverable(
+            ACTIVE_STATUSES, LocalDateTime.now(), PageRequest.of(0, free));
+        if (!jobs.isEmpty()) {
+            log.info("♻️ Re-dispatching {} monster jobs", jobs.size());
+        }
+        jobs.forEach(job -> dispatch(job.id(), job.lane()));
+    }
+
+    /**
+     * Queues a job on the pool of its lane. Returns false when the job is already queued here
+     * or the lane's local backlog is full; it then stays in the database for the next sweep.
+     */
+    public boolean dispatch(String jobId, AiLane lane) {
+        boolean batch = lane == AiLane.BATCH;
+        Set<String> queued = batch ? batchInFlight : inFlight;
+        int capacity = batch ? batchMaxConcurrency : maxConcurrency + queueCapacity;
+        if (shuttingDown || queued.size() >= capacity) {
+            log.info("⏳ Job backlog full, leaving job {} for the next sweep", jobId);
+            return false;
+        }
+        if (!queued.add(jobId)) {
+            return false;
+        }
+
+        Semaphore lanePermits = batch ? batchPermits : permits;
+        executor.execute(() -> {
+            try {
+                lanePermits.acquire();
+                try {
+                    run(jobId, laneOrDefault(lane));
+                } finally {
+                    lanePermits.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                queued.remove(jobId);
+            }
+        });
+        return true;
+    }
+
+    private void run(String jobId, AiLane lane) {
+        LocalDateTime now = LocalDateTime.now();
+        if (monsterJobRepository.claim(jobId, ACTIVE_STATUSES, now, now.plus(leaseFor(lane))) == 0) {
+            log.info("   - Job {} is finished or owned by another worker", jobId);
+            return;
+        }
+
+        MonsterJob job = monsterJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+
+        MDC.put(TraceIdFilter.MDC_KEY, job.getTraceId() != null ? job.getTraceId() : TraceIdFilter.newTraceId());
+        try {
+            log.info("⚙️ Processing monster job: {} (stage: {}, attempt: {}, lane: {})",
+                jobId, job.getStatus(), job.getAttempts() + 1, lane.tag());
+            process(job);
+        } catch (Exception e) {
+            try {
+                handleFailure(job, e);
+            } catch (OptimisticLockingFailureException lost) {
+                logTakenOver(job);
+            }
+        } finally {
+            MDC.remove(TraceIdFilter.MDC_KEY);
+        }
+    }
+
+    private void process(MonsterJob job) {
+        AiLane lane = laneOrDefault(job.getLane());
+
+        // 0. Reuse a finished generation for the same photo and emotion text
+        boolean cacheHit = false;
+        if (job.getMonsterName() == null) {
+            Optional<GeneratedMonster> cached = pipelineMetrics.time(PipelineMetrics.STAGE_CACHE_LOOKUP, () ->
+                generationResultCache.lookup(job.getCacheKey()));
+            cacheHit = cached.isPresent();
+            cached.ifPresent(hit -> {
+                job.setMonsterName(hit.characteristics().getName());
+                job.setMonsterDescription(hit.characteristics().getDescription());
+                job.setImagePrompt(hit.characteristics().getImagePrompt());
+                job.setAiImageUrl(hit.image().url());
+                job.setStoredImageUrl(hit.image().url());
+                job.setStoredThumbnailUrl(hit.image().thumbnailUrl());
+                job.setStoredMediumUrl(hit.image().mediumUrl());
+                job.setImageData(null);
+                log.info("   - Job {} served from generation cache", job.getId());
+            });
+        }
+
+        // 1. Analyze image and emotion with AI
+        if (job.getMonsterName() == null) {
+            advance(job, MonsterJobStatus.ANALYZING);
+            MonsterCharacteristics characteristics = pipelineMetrics.time(PipelineMetrics.STAGE_ANALYZE, () ->
+                analyze(job, lane));
+            job.setMonsterName(characteristics.getName());
+            job.setMonsterDescription(characteristics.getDescription());
+            job.setImagePrompt(characteristics.getImagePrompt());
+            job.setImageData(null);
+            clearBatch(job);
+            log.info("   - Job {} analyzed: {}", job.getId(), characteristics.getName());
+        }
+
+        // 2. Generate monster image
+        if (job.getAiImageUrl() == null) {
+            advance(job, MonsterJobStatus.GENERATING);
+            job.setAiImageUrl(pipelineMetrics.time(PipelineMetrics.STAGE_GENERATE, () ->
+                aiService.generateMonsterImage(job.getImagePrompt(), lane)));
+            log.info("   - Job {} image generated", job.getId());
+        }
+
+        // 3. Upload to S3 for permanent storage
+        if (job.getStoredImageUrl() == null) {
+            advance(job, MonsterJobStatus.UPLOADING);
+            StoredImage stored = s3Service.uploadMonsterImage(job.getAiImageUrl());
+            job.setStoredImageUrl(stored.url());
+            job.setStoredThumbnailUrl(stored.thumbnailUrl());
+            job.setStoredMediumUrl(stored.mediumUrl());
+            log.info("   - Job {} image stored", job.getId());
+            generationResultCache.put(job.getCacheKey(), new MonsterCharacteristics(
+                job.getMonsterName(), job.getMonsterDescription(), job.getImagePrompt()), stored);
+        }
+
+        // 4. Save monster and finish the job together
+        MonsterJob done = pipelineMetrics.time(PipelineMetrics.STAGE_SAVE, () -> monsterJobService.complete(job));
+        pipelineMetrics.recordOutcome("job", cacheHit ? "cache_hit" : "success");
+        log.info("✅ Monster job done: {} (monster ID: {})", done.getId(), done.getMonsterId());
+    }
+
+    // A batch-lane job already in a provider batch waits for that batch instead of submitting the photo again
+    private MonsterCharacteristics analyze(MonsterJob job, AiLane lane) {
+        if (lane == AiLane.BATCH && job.getAiBatchId() != null && job.getAiBatchIndex() != null) {
+            log.info("   - Job {} resuming provider batch {}", job.getId(), job.getAiBatchId());
+            return aiService.resumeBatchAnalysis(new AiBatchQueue.Ticket(job.getAiBatchId(), job.getAiBatchIndex()));
+        }
+        ByteArrayMultipartFile image =
+            new ByteArrayMultipartFile(job.getImageFilename(), job.getImageContentType(), job.getImageData());
+        if (lane == AiLane.BATCH) {
+            return aiService.analyzeImageInBatch(image, job.getEmotionText(), ticket -> recordBatch(job, ticket));
+        }
+        return aiService.analyzeImage(image, job.getEmotionText(), lane);
+    }
+
+    // Runs on the batch submitter's thread; the job itself is only read again once the analysis returns
+    private void recordBatch(MonsterJob job, AiBatchQueue.Ticket ticket) {
+        LocalDateTime until = LocalDateTime.now().plus(leaseFor(AiLane.BATCH));
+        if (monsterJobRepository.recordBatch(job.getId(), ticket.batchId(), ticket.index(), until, job.getVersion()) == 0) {
+            // The next write of this worker fails, and the new owner submits the photo again
+            logTakenOver(job);
+            return;
+        }
+        job.setAiBatchId(ticket.batchId());
+        job.setAiBatchIndex(ticket.index());
+        job.setLeaseExpiresAt(until);
+        job.setVersion(job.getVersion() + 1);
+    }
+
+    private static void clearBatch(MonsterJob job) {
+        job.setAiBatchId(null);
+        job.setAiBatchIndex(null);
+    }
+
+    /**
+     * Persists the results of the previous stage together with the next status,
+     * and extends the lease for the stage that is about to run.
+     */
+    private void advance(MonsterJob job, MonsterJobStatus status) {
+        job.setStatus(status);
+        job.setLeaseExpiresAt(LocalDateTime.now().plus(leaseFor(laneOrDefault(job.getLane()))));
+        store(job);
+    }
+
+    // Carries the new version over to the worker's copy, so its next write is checked against it
+    private void store(MonsterJob job) {
+        job.setVersion(monsterJobRepository.save(job).getVersion());
+    }
+
+    private static void logTakenOver(MonsterJob job) {
+        log.warn("   - Job {} was taken over by another worker at stage {}, leaving it", job.getId(), job.getStatus());
+    }
+
+    // A batch-lane stage may wait for a provider batch, or for spare bulkhead capacity, before it runs
+    private Duration leaseFor(AiLane lane) {
+        return lane == AiLane.BATCH ? leaseDuration.plus(batchQueue.maxTurnaround()) : leaseDuration;
+    }
+
+    // Jobs submitted before lanes existed have none
+    private static AiLane laneOrDefault(AiLane lane) {
+        return lane != null ? lane : AiLane.INTERACTIVE;
+    }
+
+    private void handleFailure(MonsterJob job, Exception e) {
+        if (shuttingDown) {
+            // Not the job's fault; its lease expires and the next instance resumes it
+            log.warn("   - Job {} interrupted by shutdown at stage {}", job.getId(), job.getStatus());
+            return;
+        }
+        if (e instanceof OptimisticLockingFailureException) {
+            // The lease ran out and the new owner carries on; anything written here would overwrite its row
+            logTakenOver(job);
+            return;
+        }
+        if (isLocalRejection(e)) {
+            // The call never reached the provider, so it does not use up one of the job's attempts
+            log.info("⏳ Monster job {} rejected locally at stage {}, retrying in {}: {}",
+                job.getId(), job.getStatus(), retryDelay, e.getMessage());
+            job.setLeaseExpiresAt(LocalDateTime.now().plus(retryDelay));
+            store(job);
+            return;
+        }
+
+        job.setAttempts(job.getAttempts() + 1);
+        job.setErrorMessage(truncate(e.getMessage()));
+        // The batch failed or timed out, so the next attempt submits the photo again
+        clearBatch(job);
+        if (job.getAttempts() >= maxAttempts) {
+            pipelineMetrics.recordOutcome("job", "failure");
+            log.error("❌ Monster job failed permanently: {}", job.getId(), e);
+            job.setStatus(MonsterJobStatus.FAILED);
+            job.setLeaseExpiresAt(null);
+        } else {
+            log.warn("⚠️ Monster job {} failed at stage {} (attempt {}/{}), retrying in {}",
+                job.getId(), job.getStatus(), job.getAttempts(), maxAttempts, retryDelay, e);
+            // Holding the lease until the retry delay passes keeps the sweep away until then
+            job.setLeaseExpiresAt(LocalDateTime.now().plus(retryDelay));
+        }
+        store(job);
+    }
+
+    // A saturated local bulkhead or batch queue rejects before any downstream call is made
+    static boolean isLocalRejection(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof BulkheadFullException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        shuttingDown = true;
+        executor.shutdownNow();
+    }
+}
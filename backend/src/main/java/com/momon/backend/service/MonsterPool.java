@@ -0,0 +1,112 @@
+package com.momon.backend.service;
+
+import com.momon.backend.config.MonsterPoolProperties;
+import com.momon.backend.dto.MonsterCharacteristics;
+import com.momon.backend.dto.StoredImage;
+import com.momon.backend.entity.PooledMonster;
+import com.momon.backend.repository.MonsterPoolRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Stock of pre-generated monsters, grouped by mood. {@link #take} hands each monster out once,
+ * preferring the mood the emotion text matches and falling back to any other.
+ * {@link MonsterPoolFiller} keeps the stock up.
+ */
+@Service
+@Slf4j
+public class MonsterPool {
+
+    // Concurrent takers may race for the oldest rows; a few candidates keep the loser from coming up empty
+    private static final int CANDIDATES = 5;
+
+    private final MonsterPoolRepository poolRepository;
+    private final MonsterPoolProperties properties;
+
+    public MonsterPool(MonsterPoolRepository poolRepository, MonsterPoolProperties properties,
+                       MeterRegistry meterRegistry) {
+        this.poolRepository = poolRepository;
+        this.properties = properties;
+        for (String mood : properties.getMoods().keySet()) {
+            Gauge.builder("monster.pool.size", poolRepository, repository -> repository.countByMood(mood))
+                .description("Pre-generated monsters in stock")
+                .tag("mood", mood)
+                .register(meterRegistry);
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Mood of the first keyword found in the emotion text, or the first configured mood.
+     */
+    public String moodOf(String emotionText) {
+        String text = emotionText == null ? "" : emotionText.toLowerCase(Locale.ROOT);
+        for (Map.Entry<String, List<String>> mood : properties.getMoods().entrySet()) {
+            for (String keyword : mood.getValue()) {
+                if (text.contains(keyword.toLowerCase(Locale.ROOT))) {
+                    return mood.getKey();
+                }
+            }
+        }
+        return properties.getMoods().keySet().iterator().next();
+    }
+
+    public Optional<PooledMonster> take(String emotionText) {
+        if (!properties.isEnabled()) {
+            return Optional.empty();
+        }
+        String mood = moodOf(emotionText);
+        Optional<PooledMonster> taken = takeOldest(poolRepository.findOldest(mood, PageRequest.of(0, CANDIDATES)));
+        if (taken.isEmpty()) {
+            taken = takeOldest(poolRepository.findOldest(PageRequest.of(0, CANDIDATES)));
+        }
+        taken.ifPresent(monster -> log.info("🎁 Taken pooled monster {} ({}) for mood {}",
+            monster.getName(), monster.getMood(), mood));
+        return taken;
+    }
+
+    private Optional<PooledMonster> takeOldest(List<PooledMonster> candidates) {
+        for (PooledMonster candidate : candidates) {
+            if (poolRepository.take(candidate.getId()) == 1) {
+                return Optional.of(candidate);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public void add(String mood, MonsterCharacteristics characteristics, StoredImage image) {
+        PooledMonster saved = poolRepository.save(PooledMonster.builder()
+            .mood(mood)
+            .name(characteristics.getName())
+            .description(characteristics.getDescription())
+            .imagePrompt(characteristics.getImagePrompt())
+            .imageUrl(image.url())
+            .thumbnailUrl(image.thumbnailUrl())
+            .mediumUrl(image.mediumUrl())
+            .build());
+        log.info("📦 Pooled monster {} for mood {} (ID: {})", saved.getName(), mood, saved.getId());
+    }
+
+    public long size(String mood) {
+        return poolRepository.countByMood(mood);
+    }
+
+    public static MonsterCharacteristics characteristicsOf(PooledMonster monster) {
+        return new MonsterCharacteristics(monster.getName(), monster.getDescription(), monster.getImagePrompt());
+    }
+
+    public static StoredImage imageOf(PooledMonster monster) {
+        return new StoredImage(monster.getImageUrl(), monster.getThumbnailUrl(), monster.getMediumUrl());
+    }
+}
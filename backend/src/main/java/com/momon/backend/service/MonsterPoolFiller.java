@@ -0,0 +1,166 @@
+package com.momon.backend.service;
+
+import com.momon.backend.config.MonsterPoolProperties;
+import com.momon.backend.dto.MonsterCharacteristics;
+import com.momon.backend.dto.StoredImage;
+import com.momon.backend.entity.AiLane;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps {@link MonsterPool} stocked through the regular AI and S3 path.
+ * Off-peak every mood is filled up to {@code target-size}; at other hours only moods that fell
+ * below {@code min-size} are topped up, so the pool refills soon after an outage ends.
+ * AI calls go through the batch lane, so stocking only uses capacity live traffic leaves over.
+ * Nothing is generated while the AI circuit is not closed. With several instances the stock may
+ * overshoot the target by a round's worth, which is harmless.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MonsterPoolFiller {
+
+    private final MonsterPool monsterPool;
+    private final GuardedAIService aiService;
+    private final S3Service s3Service;
+    private final MonsterPoolProperties properties;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicBoolean filling = new AtomicBoolean();
+    private volatile boolean shuttingDown;
+
+    @Scheduled(fixedDelayString = "${monster.pool.fill-interval-ms:60000}",
+               initialDelayString = "${monster.pool.fill-interval-ms:60000}")
+    public void fill() {
+        if (!properties.isEnabled() || shuttingDown || !aiService.circuitBreaker().isClosed()) {
+            return;
+        }
+        // A round can take minutes; it runs off the scheduler thread, one at a time
+        if (!filling.compareAndSet(false, true)) {
+            return;
+        }
+
+        List<String> round;
+        try {
+            round = plan(isOffPeak(LocalTime.now()));
+        } catch (RuntimeException e) {
+            filling.set(false);
+            throw e;
+        }
+        if (round.isEmpty()) {
+            filling.set(false);
+            return;
+        }
+
+        log.info("🏭 Filling monster pool: {} monsters", round.size());
+        executor.execute(() -> {
+            try {
+                runRound(round);
+            } finally {
+                filling.set(false);
+            }
+        });
+    }
+
+    /**
+     * Moods to generate one monster each for, taken round-robin so a short batch covers every mood.
+     */
+    List<String> plan(boolean offPeak) {
+        Map<String, Long> missing = new LinkedHashMap<>();
+        for (String mood : properties.getMoods().keySet()) {
+            long stock = monsterPool.size(mood);
+            if (offPeak || stock < properties.getMinSize()) {
+                missing.put(mood, Math.max(0, properties.getTargetSize() - stock));
+            }
+        }
+
+        List<String> round = new ArrayList<>();
+        boolean added = true;
+        while (added && round.size() < properties.getFillBatchSize()) {
+            added = false;
+            for (Map.Entry<String, Long> mood : missing.entrySet()) {
+                if (mood.getValue() > 0 && round.size() < properties.getFillBatchSize()) {
+                    round.add(mood.getKey());
+                    mood.setValue(mood.getValue() - 1);
+                    added = true;
+                }
+            }
+        }
+        return round;
+    }
+
+    boolean isOffPeak(LocalTime now) {
+        int hour = now.getHour();
+        int start = properties.getOffPeakStartHour();
+        int end = properties.getOffPeakEndHour();
+        return start <= end
+            ? hour >= start && hour < end
+            : hour >= start || hour < end;
+    }
+
+    private void runRound(List<String> round) {
+        Semaphore permits = new Semaphore(properties.getFillConcurrency());
+        List<Future<?>> workers = new ArrayList<>();
+        for (String mood : round) {
+            workers.add(executor.submit(() -> {
+                permits.acquire();
+                try {
+                    generate(mood);
+                } finally {
+                    permits.release();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> worker : workers) {
+            try {
+                worker.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                // generate() logs its own failures; only interruption ends up here
+            }
+        }
+    }
+
+    private void generate(String mood) {
+        // Stop as soon as the provider degrades; live traffic needs the remaining capacity
+        if (shuttingDown || !aiService.circuitBreaker().isClosed()) {
+            return;
+        }
+        try {
+            List<String> keywords = properties.getMoods().get(mood);
+            MonsterCharacteristics characteristics = aiService.imagineMonster(
+                keywords.isEmpty() ? mood : String.join(", ", keywords), AiLane.BATCH);
+            String aiImageUrl = aiService.generateMonsterImage(characteristics.getImagePrompt(), AiLane.BATCH);
+            StoredImage image = s3Service.uploadMonsterImage(aiImageUrl);
+            monsterPool.add(mood, characteristics, image);
+        } catch (Exception e) {
+            if (!shuttingDown) {
+                log.warn("⚠️ Failed to generate pooled monster for mood {}", mood, e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        shuttingDown = true;
+        executor.shutdownNow();
+    }
+}
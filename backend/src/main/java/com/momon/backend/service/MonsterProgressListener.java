@@ -0,0 +1,36 @@
+package com.momon.backend.service;
+
+import com.momon.backend.dto.MonsterCharacteristics;
+
+/**
+ * Callbacks from {@link MonsterService#createMonster} as the pipeline advances.
+ * Calls arrive on the thread running the pipeline; throwing aborts the pipeline.
+ */
+public interface MonsterProgressListener {
+
+    String STAGE_ANALYZE = "analyze";
+    String STAGE_GENERATE = "generate";
+    String STAGE_UPLOAD = "upload";
+    String STAGE_SAVE = "save";
+
+    MonsterProgressListener NONE = new MonsterProgressListener() {
+    };
+
+    /**
+     * A stage is starting. {@link #STAGE_ANALYZE} is repeated when the analysis is retried,
+     * which invalidates the deltas received so far.
+     */
+    default void onStage(String stage) {
+    }
+
+    // Raw model output of the analysis while it is generated
+    default void onCharacteristicsDelta(String delta) {
+    }
+
+    default void onCharacteristics(MonsterCharacteristics characteristics) {
+    }
+
+    // Temporary provider URL, available before the copy to S3
+    default void onImageGenerated(String imageUrl) {
+    }
+}
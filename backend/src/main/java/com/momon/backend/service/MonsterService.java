@@ -1,98 +1,237 @@
 package com.momon.backend.service;
 
+import com.momon.backend.config.CacheConfig;
+import com.momon.backend.dto.GeneratedMonster;
 import com.momon.backend.dto.MonsterCharacteristics;
+import com.momon.backend.dto.MonsterCursor;
+import com.momon.backend.dto.MonsterPageResponse;
 import com.momon.backend.dto.MonsterResponse;
-import com.momon.backend.entity.Monster;
-import com.momon.backend.entity.User;
+import com.momon.backend.dto.StoredImage;
 import com.momon.backend.repository.MonsterRepository;
-import com.momon.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class MonsterService {
 
-    private final AIService aiService;
+    private final GuardedAIService aiService;
     private final S3Service s3Service;
     private final MonsterRepository monsterRepository;
-    private final UserRepository userRepository;
+    private final MonsterWriter monsterWriter;
+    private final UserService userService;
+    private final GenerationResultCache generationResultCache;
+    private final ImagePreprocessor imagePreprocessor;
+    private final PipelineMetrics pipelineMetrics;
 
-    @Transactional
+    // Respond with the provider's temporary image URL and copy it to S3 in the background
+    @Value("${monster.image.persist-async:false}")
+    private boolean persistImageAsync;
+
+    /**
+     * Runs the create pipeline without an outer transaction.
+     * Only the user upsert and the final insert touch the database, each in its own
+     * short transaction, so no JDBC connection is held during the AI and S3 calls.
+     */
     public MonsterResponse createMonster(String deviceId, MultipartFile image, String emotionText) {
+        return createMonster(deviceId, image, emotionText, null, MonsterProgressListener.NONE);
+    }
+
+    /**
+     * Same pipeline for a caller that already hashed the upload with {@link GenerationResultCache#keyOf},
+     * so the photo is not read a second time for the cache lookup.
+     */
+    public MonsterResponse createMonster(String deviceId, MultipartFile image, String emotionText, String cacheKey) {
+        return createMonster(deviceId, image, emotionText, cacheKey, MonsterProgressListener.NONE);
+    }
+
+    /**
+     * Same pipeline, reporting each stage and partial result to {@code listener}.
+     */
+    public MonsterResponse createMonster(String deviceId, MultipartFile image, String emotionText,
+                                         MonsterProgressListener listener) {
+        return createMonster(deviceId, image, emotionText, null, listener);
+    }
+
+    private MonsterResponse createMonster(String deviceId, MultipartFile image, String emotionText,
+                                          String knownCacheKey, MonsterProgressListener listener) {
         log.info("🎨 Creating monster for device: {}", deviceId);
         log.info("   - Image: {} ({} bytes)", image.getOriginalFilename(), image.getSize());
         log.info("   - Emotion text: {}", emotionText);
+        pipelineMetrics.recordPayload("photo", image.getSize());
+
+        try {
+            return runPipeline(deviceId, image, emotionText, knownCacheKey, listener);
+        } catch (RuntimeException e) {
+            pipelineMetrics.recordOutcome("sync", "failure");
+            throw e;
+        }
+    }
 
+    private MonsterResponse runPipeline(String deviceId, MultipartFile image, String emotionText,
+                                        String knownCacheKey, MonsterProgressListener listener) {
         // 1. Ensure user exists (upsert pattern)
-        User user = userRepository.findById(deviceId)
-            .orElseGet(() -> createNewUser(deviceId));
-        user.setLastSeenAt(LocalDateTime.now());
-        userRepository.save(user);
-
-        // 2. Analyze image and emotion with AI
-        MonsterCharacteristics characteristics = aiService.analyzeImage(image, emotionText);
-        log.info("   - Generated characteristics: {}", characteristics.getName());
-
-        // 3. Generate monster image
-        String aiImageUrl = aiService.generateMonsterImage(characteristics.getImagePrompt());
-        log.info("   - AI image URL: {}", aiImageUrl);
-
-        // 4. Upload to S3 for permanent storage
-        String s3ImageUrl = s3Service.uploadMonsterImage(aiImageUrl);
-        log.info("   - S3 image URL: {}", s3ImageUrl);
-
-        // 5. Save to database
-        Monster monster = Monster.builder()
-            .user(user)
-            .name(characteristics.getName())
-            .description(characteristics.getDescription())
-            .imageUrl(s3ImageUrl)
-            .prompt(emotionText)
-            .build();
-
-        Monster saved = monsterRepository.save(monster);
-        log.info("✅ Monster created successfully: {} (ID: {})", saved.getName(), saved.getId());
-
-        return MonsterResponse.from(saved);
+        pipelineMetrics.time(PipelineMetrics.STAGE_USER, () -> userService.touch(deviceId));
+
+        // 2. Reuse a finished generation for the same photo and emotion text
+        Optional<GeneratedMonster> cached = Optional.empty();
+        String cacheKey = null;
+        if (generationResultCache.isEnabled()) {
+            cacheKey = knownCacheKey != null ? knownCacheKey : generationResultCache.keyOf(image, emotionText);
+            String key = cacheKey;
+            cached = pipelineMetrics.time(PipelineMetrics.STAGE_CACHE_LOOKUP, () -> generationResultCache.lookup(key));
+        }
+        if (cached.isPresent()) {
+            GeneratedMonster hit = cached.get();
+            listener.onCharacteristics(hit.characteristics());
+            listener.onStage(MonsterProgressListener.STAGE_SAVE);
+            MonsterResponse saved = pipelineMetrics.time(PipelineMetrics.STAGE_SAVE, () ->
+                monsterWriter.saveMonster(deviceId, hit.characteristics(), hit.image(), emotionText));
+            pipelineMetrics.recordOutcome("sync", "cache_hit");
+            log.info("✅ Monster created from cache: {} (ID: {})", saved.name(), saved.id());
+            return saved;
+        }
+
+        // 2a. While the AI provider is down, hand out a pre-generated monster instead of waiting on it
+        if (!aiService.circuitBreaker().allowRequest()) {
+            log.info("   - AI circuit open, taking a monster from the pool");
+            return createFromPool(deviceId, emotionText, listener)
+                .orElseThrow(() -> new CircuitOpenException("AI provider unavailable and the monster pool is empty"));
+        }
+
+        // 3. Analyze a downscaled, metadata-free copy of the image with AI
+        MultipartFile visionImage = pipelineMetrics.time(PipelineMetrics.STAGE_PREPROCESS, () ->
+            imagePreprocessor.preprocess(image));
+        MonsterCharacteristics characteristics;
+        String aiImageUrl;
+        try {
+            characteristics = pipelineMetrics.time(PipelineMetrics.STAGE_ANALYZE, () ->
+                listener == MonsterProgressListener.NONE
+                    ? aiService.analyzeImage(visionImage, emotionText)
+                    : aiService.analyzeImageStreaming(visionImage, emotionText,
+                        () -> listener.onStage(MonsterProgressListener.STAGE_ANALYZE), listener::onCharacteristicsDelta));
+            log.info("   - Generated characteristics: {}", characteristics.getName());
+            listener.onCharacteristics(characteristics);
+
+            // 4. Generate monster image
+            listener.onStage(MonsterProgressListener.STAGE_GENERATE);
+            String prompt = characteristics.getImagePrompt();
+            aiImageUrl = pipelineMetrics.time(PipelineMetrics.STAGE_GENERATE, () ->
+                aiService.generateMonsterImage(prompt));
+            log.info("   - AI image URL: {}", aiImageUrl);
+            listener.onImageGenerated(aiImageUrl);
+        } catch (ClientGoneException e) {
+            // Nobody is left to hand a monster to, so none is saved or taken from the pool
+            throw e;
+        } catch (RuntimeException e) {
+            // A pooled monster beats an error page, but only when the provider is to blame;
+            // our own bugs and rejected requests go to the caller as they are
+            if (!GuardedAIService.isProviderFailure(e)) {
+                throw e;
+            }
+            Optional<MonsterResponse> pooled = createFromPool(deviceId, emotionText, listener);
+            if (pooled.isEmpty()) {
+                throw e;
+            }
+            log.warn("⚠️ Live generation failed, answered with a pooled monster", e);
+            return pooled.get();
+        }
+
+        // 5a. Save with the temporary URL now; MonsterImageWorker swaps in the S3 URL afterwards
+        if (persistImageAsync) {
+            listener.onStage(MonsterProgressListener.STAGE_SAVE);
+            String key = cacheKey;
+            MonsterResponse saved = pipelineMetrics.time(PipelineMetrics.STAGE_SAVE, () ->
+                monsterWriter.saveMonsterWithPendingImage(deviceId, characteristics, aiImageUrl, emotionText, key));
+            pipelineMetrics.recordOutcome("sync", "success");
+            log.info("✅ Monster created, image copy queued: {} (ID: {})", saved.name(), saved.id());
+            return saved;
+        }
+
+        // 5. Upload to S3 for permanent storage (download and put are timed inside S3Service)
+        listener.onStage(MonsterProgressListener.STAGE_UPLOAD);
+        StoredImage storedImage = s3Service.uploadMonsterImage(aiImageUrl);
+        log.info("   - S3 image URL: {}", storedImage.url());
+        generationResultCache.put(cacheKey, characteristics, storedImage);
+
+        // 6. Save to database
+        listener.onStage(MonsterProgressListener.STAGE_SAVE);
+        MonsterResponse saved = pipelineMetrics.time(PipelineMetrics.STAGE_SAVE, () ->
+            monsterWriter.saveMonster(deviceId, characteristics, storedImage, emotionText));
+        pipelineMetrics.recordOutcome("sync", "success");
+        log.info("✅ Monster created successfully: {} (ID: {})", saved.name(), saved.id());
+
+        return saved;
     }
 
-    private User createNewUser(String deviceId) {
-        log.info("👤 Creating new user: {}", deviceId);
-        User user = User.builder()
-            .deviceId(deviceId)
-            .firstSeenAt(LocalDateTime.now())
-            .lastSeenAt(LocalDateTime.now())
-            .build();
-        return userRepository.save(user);
+    private Optional<MonsterResponse> createFromPool(String deviceId, String emotionText,
+                                                     MonsterProgressListener listener) {
+        Optional<MonsterResponse> saved = pipelineMetrics.time(PipelineMetrics.STAGE_SAVE, () ->
+            monsterWriter.saveFromPool(deviceId, emotionText));
+        if (saved.isEmpty()) {
+            return Optional.empty();
+        }
+
+        MonsterResponse monster = saved.get();
+        listener.onCharacteristics(new MonsterCharacteristics(monster.name(), monster.description(), null));
+        listener.onStage(MonsterProgressListener.STAGE_SAVE);
+        pipelineMetrics.recordOutcome("sync", "pool");
+        log.info("✅ Monster created from pool: {} (ID: {})", monster.name(), monster.id());
+        return saved;
     }
 
+    /**
+     * Returns one gallery page, newest first. {@code cursor} is the {@code nextCursor}
+     * of the previous page, or null for the first page.
+     */
     @Transactional(readOnly = true)
-    public List<MonsterResponse> getMonstersByDeviceId(String deviceId) {
-        log.info("📋 Fetching monsters for device: {}", deviceId);
-        List<Monster> monsters = monsterRepository.findByUserDeviceIdOrderByCreatedAtDesc(deviceId);
-        log.info("   - Found {} monsters", monsters.size());
-        return monsters.stream()
-            .map(MonsterResponse::from)
-            .toList();
+    public MonsterPageResponse getMonsterPage(String deviceId, String cursor, int size) {
+        log.info("📋 Fetching monsters for device: {} (cursor: {}, size: {})", deviceId, cursor, size);
+
+        // Fetch one extra row to know whether another page follows
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<MonsterResponse> monsters;
+        if (cursor == null || cursor.isBlank()) {
+            monsters = monsterRepository.findGalleryFirstPage(deviceId, limit);
+        } else {
+            MonsterCursor position = MonsterCursor.decode(cursor);
+            monsters = monsterRepository.findGalleryPageAfter(deviceId, position.createdAt(), position.id(), limit);
+        }
+
+        List<MonsterResponse> page = monsters.size() > size ? monsters.subList(0, size) : monsters;
+        String nextCursor = monsters.size() > size
+            ? MonsterCursor.of(page.get(page.size() - 1)).encode()
+            : null;
+
+        log.info("   - Found {} monsters (more: {})", page.size(), nextCursor != null);
+        return new MonsterPageResponse(page, nextCursor);
     }
 
+    /**
+     * A replica may still return a monster as imagePending after MonsterImageWorker refreshed the cache
+     * with its S3 URL; such a row is served but not cached, or it would pin the temporary URL.
+     */
+    @Cacheable(cacheNames = CacheConfig.MONSTERS, key = "#id",
+               unless = "#result.imagePending() and T(com.momon.backend.config.ReplicaRoutingDataSource).readFromReplica()")
     @Transactional(readOnly = true)
     public MonsterResponse getMonsterById(Long id) {
         log.info("🔍 Fetching monster by ID: {}", id);
-        Monster monster = monsterRepository.findById(id)
+        MonsterResponse monster = monsterRepository.findResponseById(id)
             .orElseThrow(() -> {
                 log.warn("   - Monster not found: {}", id);
                 return new IllegalArgumentException("Monster not found: " + id);
             });
-        log.info("   - Found: {}", monster.getName());
-        return MonsterResponse.from(monster);
+        log.info("   - Found: {}", monster.name());
+        return monster;
     }
 }
@@ -0,0 +1,180 @@
+package com.momon.backend.service;
+
+import com.momon.backend.config.TraceIdFilter;
+import com.momon.backend.dto.MonsterCharacteristics;
+import com.momon.backend.dto.MonsterResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs the create pipeline for a Server-Sent Events client.
+ * Each stream holds no request thread: the servlet request is async and the pipeline runs on
+ * its own virtual thread, so open streams cost little more than their socket.
+ * When the client goes away the pipeline thread is interrupted, which aborts the AI or S3 call
+ * in progress; periodic heartbeats make a silent disconnect visible during long AI calls.
+ */
+@Service
+@Slf4j
+public class MonsterStreamService {
+
+    private final MonsterService monsterService;
+    private final Duration timeout;
+    private final DataSize spoolThreshold;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<SseEmitter> openStreams = ConcurrentHashMap.newKeySet();
+
+    public MonsterStreamService(
+        MonsterService monsterService,
+        MeterRegistry meterRegistry,
+        @Value("${monster.stream.timeout:3m}") Duration timeout,
+        @Value("${spring.servlet.multipart.file-size-threshold:256KB}") DataSize spoolThreshold
+    ) {
+        this.monsterService = monsterService;
+        this.timeout = timeout;
+        this.spoolThreshold = spoolThreshold;
+        Gauge.builder("monster.stream.open", openStreams, Set::size)
+            .description("Open monster creation event streams")
+            .register(meterRegistry);
+    }
+
+    public SseEmitter stream(String deviceId, MultipartFile image, String emotionText) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        // Copy the upload now; the multipart request may be cleaned up before the pipeline reads it.
+        // Large uploads are spooled to disk like the multipart parts themselves.
+        SpooledMultipartFile photo = SpooledMultipartFile.copyOf(image, spoolThreshold.toBytes());
+        String traceId = MDC.get(TraceIdFilter.MDC_KEY);
+
+        AtomicBoolean finished = new AtomicBoolean();
+
+        openStreams.add(emitter);
+        Future<?> pipeline = executor.submit(() -> {
+            if (traceId != null) {
+                MDC.put(TraceIdFilter.MDC_KEY, traceId);
+            }
+            try {
+                run(emitter, deviceId, photo, emotionText, finished);
+            } finally {
+                photo.close();
+                MDC.remove(TraceIdFilter.MDC_KEY);
+            }
+        });
+
+        // Completion callbacks also fire after a normal finish; only an unfinished pipeline is cancelled
+        Runnable cancel = () -> {
+            openStreams.remove(emitter);
+            if (!finished.get() && pipeline.cancel(true)) {
+                // A pipeline cancelled before it started never reaches its own cleanup
+                photo.close();
+                log.info("🔌 Stream closed by client, pipeline cancelled (device: {})", deviceId);
+            }
+        };
+        emitter.onCompletion(cancel);
+        emitter.onTimeout(cancel);
+        emitter.onError(error -> cancel.run());
+        return emitter;
+    }
+
+    private void run(SseEmitter emitter, String deviceId, MultipartFile photo, String emotionText,
+                     AtomicBoolean finished) {
+        try {
+            MonsterResponse monster = monsterService.createMonster(deviceId, photo, emotionText,
+                new EmitterProgressListener(emitter));
+            finished.set(true);
+            send(emitter, "monster", monster);
+            emitter.complete();
+        } catch (ClientGoneException e) {
+            // Nothing left to tell the client
+            finished.set(true);
+            emitter.completeWithError(e);
+        } catch (Exception e) {
+            finished.set(true);
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            log.error("❌ Failed to stream monster creation", e);
+            int status = e instanceof BulkheadFullException || e instanceof CircuitOpenException ? 503 : 500;
+            try {
+                send(emitter, "error", Map.of("status", status));
+                emitter.complete();
+            } catch (ClientGoneException gone) {
+                emitter.completeWithError(gone);
+            }
+        } finally {
+            openStreams.remove(emitter);
+        }
+    }
+
+    /**
+     * Comment lines keep proxies from closing idle streams and surface broken connections,
+     * whose failed write completes the emitter and cancels its pipeline.
+     */
+    @Scheduled(fixedDelayString = "${monster.stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (SseEmitter emitter : openStreams) {
+            try {
+                emitter.send(SseEmitter.event().comment("ping"));
+            } catch (IOException | IllegalStateException e) {
+                openStreams.remove(emitter);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    // Throwing out of a progress callback aborts the pipeline
+    private static void send(SseEmitter emitter, String event, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            throw new ClientGoneException(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private record EmitterProgressListener(SseEmitter emitter) implements MonsterProgressListener {
+
+        @Override
+        public void onStage(String stage) {
+            send(emitter, "stage", Map.of("stage", stage));
+        }
+
+        @Override
+        public void onCharacteristicsDelta(String delta) {
+            send(emitter, "characteristics.delta", Map.of("text", delta));
+        }
+
+        @Override
+        public void onCharacteristics(MonsterCharacteristics characteristics) {
+            send(emitter, "characteristics", characteristics);
+        }
+
+        @Override
+        public void onImageGenerated(String imageUrl) {
+            send(emitter, "image", Map.of("imageUrl", imageUrl));
+        }
+    }
+}
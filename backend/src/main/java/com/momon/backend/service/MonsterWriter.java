@@ -0,0 +1,103 @@
+package com.momon.backend.service;
+
+import com.momon.backend.config.CacheConfig;
+import com.momon.backend.dto.MonsterCharacteristics;
+import com.momon.backend.dto.MonsterResponse;
+import com.momon.backend.dto.StoredImage;
+import com.momon.backend.entity.Monster;
+import com.momon.backend.repository.MonsterRepository;
+import com.momon.backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Inserts finished monsters. A separate bean from {@link MonsterService} so the create pipeline
+ * calls these methods through the transaction proxy; a self-invocation would skip {@code @Transactional}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MonsterWriter {
+
+    private final MonsterRepository monsterRepository;
+    private final UserRepository userRepository;
+    private final ReadYourWrites readYourWrites;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MonsterPool monsterPool;
+
+    /**
+     * Saves a generated monster for an existing user.
+     */
+    @Transactional
+    public MonsterResponse saveMonster(String deviceId, MonsterCharacteristics characteristics,
+                                       StoredImage image, String emotionText) {
+        return persist(deviceId, characteristics, image, emotionText, false);
+    }
+
+    /**
+     * Saves a monster whose image is still the provider's temporary URL and queues
+     * the copy to S3, which starts once this transaction commits.
+     */
+    @Transactional
+    public MonsterResponse saveMonsterWithPendingImage(String deviceId, MonsterCharacteristics characteristics,
+                                                       String providerImageUrl, String emotionText, String cacheKey) {
+        MonsterResponse response = persist(deviceId, characteristics, StoredImage.of(providerImageUrl), emotionText, true);
+        eventPublisher.publishEvent(new MonsterImagePendingEvent(response.id(), cacheKey, characteristics));
+        return response;
+    }
+
+    /**
+     * Takes a pooled monster and saves it for the device in one transaction, so a failed insert
+     * leaves the pooled monster in the pool instead of losing it.
+     */
+    @Transactional
+    public Optional<MonsterResponse> saveFromPool(String deviceId, String emotionText) {
+        return monsterPool.take(emotionText).map(pooled -> persist(deviceId,
+            MonsterPool.characteristicsOf(pooled), MonsterPool.imageOf(pooled), emotionText, false));
+    }
+
+    private MonsterResponse persist(String deviceId, MonsterCharacteristics characteristics,
+                                    StoredImage image, String emotionText, boolean imagePending) {
+        Monster monster = Monster.builder()
+            .user(userRepository.getReferenceById(deviceId))
+            .name(characteristics.getName())
+            .description(characteristics.getDescription())
+            .imageUrl(image.url())
+            .thumbnailUrl(image.thumbnailUrl())
+            .mediumUrl(image.mediumUrl())
+            .prompt(emotionText)
+            .imagePending(imagePending)
+            .build();
+
+        Monster saved = monsterRepository.save(monster);
+        log.info("✅ Monster saved: {} (ID: {})", saved.getName(), saved.getId());
+        readYourWrites.recordWrite(deviceId);
+
+        MonsterResponse response = MonsterResponse.from(saved);
+        eventPublisher.publishEvent(new MonsterCreatedEvent(response));
+        return response;
+    }
+
+    /**
+     * Warms the detail cache once the insert has committed, so a rolled-back monster is never cached.
+     * The image swap refreshes the entry later.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void cacheCreated(MonsterCreatedEvent event) {
+        monsterCache().put(event.monster().id(), event.monster());
+    }
+
+    private Cache monsterCache() {
+        return Objects.requireNonNull(cacheManager.getCache(CacheConfig.MONSTERS));
+    }
+}
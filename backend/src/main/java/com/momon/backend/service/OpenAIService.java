@@ -0,0 +1,557 @@
+package com.momon.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.momon.backend.dto.MonsterCharacteristics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Calls the OpenAI REST API directly over the shared {@link HttpClient}.
+ * The base URL is configurable, so the same code path can run against a local stand-in for load tests.
+ */
+@Service
+@ConditionalOnProperty(name = "ai.mock.enabled", havingValue = "false")
+@Slf4j
+public class OpenAIService implements AIService, BatchAIService {
+
+    private static final String SYSTEM_PROMPT = """
+        You turn a photo and the feeling the user wrote about it into a cute collectible monster.
+        Reply with a JSON object with exactly these fields:
+        "name": a short Korean monster name,
+        "description": two friendly Korean sentences about the monster,
+        "imagePrompt": an English prompt for an image model, kawaii style, pastel colors.
+        """;
+
+    private static final String IMAGINE_PROMPT = """
+        You invent a cute collectible monster that embodies the feeling the user names.
+        Reply with a JSON object with exactly these fields:
+        "name": a short Korean monster name,
+        "description": two friendly Korean sentences about the monster,
+        "imagePrompt": an English prompt for an image model, kawaii style, pastel colors.
+        """;
+
+    // Stands in for the image in the serialized request; the real bytes are streamed in its place
+    private static final String IMAGE_PLACEHOLDER = "__momon_image__";
+
+    private static final Set<String> FAILED_BATCH_STATUSES = Set.of("failed", "expired", "cancelled");
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+
+    @Value("${spring.ai.openai.base-url:https://api.openai.com}")
+    private String baseUrl;
+
+    @Value("${spring.ai.openai.api-key:}")
+    private String apiKey;
+
+    @Value("${spring.ai.openai.chat.options.model:gpt-4o}")
+    private String chatModel;
+
+    @Value("${spring.ai.openai.chat.options.temperature:0.7}")
+    private double temperature;
+
+    @Value("${spring.ai.openai.image.options.model:dall-e-3}")
+    private String imageModel;
+
+    @Value("${spring.ai.openai.image.options.size:1024x1024}")
+    private String imageSize;
+
+    @Value("${spring.ai.openai.request-timeout:60s}")
+    private Duration requestTimeout;
+
+    @Value("${ai.batch.poll-interval:30s}")
+    private Duration batchPollInterval;
+
+    @Value("${ai.batch.completion-timeout:2h}")
+    private Duration batchCompletionTimeout;
+
+    public OpenAIService(HttpClient httpClient, ObjectMapper objectMapper) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public MonsterCharacteristics analyzeImage(MultipartFile image, String emotionText) {
+        log.info("🤖 OpenAI: Analyzing image and emotion text ({})", chatModel);
+        JsonNode response = post("/v1/chat/completions", chatRequest(image, emotionText, false));
+        return parseCharacteristics(response.path("choices").path(0).path("message").path("content").asText());
+    }
+
+    /**
+     * Requests the completion with {@code stream: true} and forwards each content delta
+     * of the server-sent chunks as it arrives.
+     */
+    @Override
+    public MonsterCharacteristics analyzeImageStreaming(MultipartFile image, String emotionText,
+                                                        Consumer<String> onDelta) {
+        log.info("🤖 OpenAI: Streaming image analysis ({})", chatModel);
+        StringBuilder content = new StringBuilder();
+        try {
+            HttpResponse<Stream<String>> response = httpClient.send(
+                request("/v1/chat/completions", chatRequest(image, emotionText, true)),
+                HttpResponse.BodyHandlers.ofLines());
+            try (Stream<String> lines = response.body()) {
+                if (response.statusCode() / 100 != 2) {
+                    String body = lines.collect(Collectors.joining("\n"));
+                    throw httpError("/v1/chat/completions", response.statusCode(), body.getBytes(StandardCharsets.UTF_8));
+                }
+                Iterator<String> it = lines.iterator();
+                while (it.hasNext()) {
+                    String line = it.next();
+                    if (!line.startsWith("data:")) {
+                        continue;
+                    }
+                    String data = line.substring(5).trim();
+                    if ("[DONE]".equals(data)) {
+                        break;
+                    }
+                    String delta = objectMapper.readTree(data)
+                        .path("choices").path(0).path("delta").path("content").asText("");
+                    if (!delta.isEmpty()) {
+                        content.append(delta);
+                        onDelta.accept(delta);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("OpenAI streaming request failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while streaming from OpenAI", e);
+        }
+        return parseCharacteristics(content.toString());
+    }
+
+    @Override
+    public MonsterCharacteristics imagineMonster(String mood) {
+        log.info("🤖 OpenAI: Imagining monster for mood: {} ({})", mood, chatModel);
+        ObjectNode request = objectMapper.createObjectNode()
+            .put("model", chatModel)
+            // Pool monsters of one mood should not all look alike
+            .put("temperature", Math.max(temperature, 1.0));
+        request.putObject("response_format").put("type", "json_object");
+        ArrayNode messages = request.putArray("messages");
+        messages.addObject().put("role", "system").put("content", IMAGINE_PROMPT);
+        messages.addObject().put("role", "user").put("content", "감정: " + mood);
+
+        JsonNode response = post("/v1/chat/completions", json(request));
+        return parseCharacteristics(response.path("choices").path(0).path("message").path("content").asText());
+    }
+
+    @Override
+    public String generateMonsterImage(String prompt) {
+        log.info("🤖 OpenAI: Generating monster image ({})", imageModel);
+        ObjectNode request = objectMapper.createObjectNode()
+            .put("model", imageModel)
+            .put("prompt", prompt)
+            .put("n", 1)
+            .put("size", imageSize);
+
+        String imageUrl = post("/v1/images/generations", json(request)).path("data").path(0).path("url").asText(null);
+        if (imageUrl == null) {
+            throw new IllegalStateException("OpenAI image response did not contain a URL");
+        }
+        log.info("   - Image URL: {}", imageUrl);
+        return imageUrl;
+    }
+
+    /**
+     * Runs the analyses through the Batch API: the chat requests go up as one JSONL file, the batch
+     * is polled every {@code ai.batch.poll-interval} and the output file is matched back by {@code custom_id}.
+     * Batch requests cost half as much and draw on a separate quota from regular requests.
+     * A batch still running {@code ai.batch.completion-timeout} after it was created is cancelled;
+     * one whose caller is interrupted, e.g. by a shutdown, keeps running and can be resumed.
+     */
+    @Override
+    public List<MonsterCharacteristics> analyzeImageBatch(List<BatchAnalysis> requests, Consumer<String> onSubmitted) {
+        log.info("🤖 OpenAI: Submitting batch of {} analyses ({})", requests.size(), chatModel);
+        Path input = writeBatchInput(requests);
+        String batchId;
+        try {
+            String fileId = uploadBatchInput(input).path("id").asText();
+            ObjectNode create = objectMapper.createObjectNode()
+                .put("input_file_id", fileId)
+                .put("endpoint", "/v1/chat/completions")
+                .put("completion_window", "24h");
+            batchId = post("/v1/batches", json(create)).path("id").asText();
+        } finally {
+            deleteQuietly(input);
+        }
+        log.info("   - Batch {} created", batchId);
+        onSubmitted.accept(batchId);
+
+        Map<Integer, MonsterCharacteristics> results = awaitBatchResults(batchId);
+        List<MonsterCharacteristics> ordered = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            ordered.add(results.get(i));
+        }
+        return ordered;
+    }
+
+    @Override
+    public Map<Integer, MonsterCharacteristics> resumeAnalysisBatch(String batchId) {
+        log.info("🤖 OpenAI: Resuming batch {}", batchId);
+        return awaitBatchResults(batchId);
+    }
+
+    private Map<Integer, MonsterCharacteristics> awaitBatchResults(String batchId) {
+        JsonNode batch = awaitBatch(batchId);
+        Map<Integer, MonsterCharacteristics> results = new HashMap<>();
+        String outputFileId = batch.path("output_file_id").asText(null);
+        if (outputFileId != null) {
+            String output = new String(get("/v1/files/" + outputFileId + "/content"), StandardCharsets.UTF_8);
+            for (String line : output.split("\n")) {
+                if (!line.isBlank()) {
+                    readBatchResult(batchId, line, results);
+                }
+            }
+        }
+        log.info("   - Batch {} completed: {}/{} analyzed", batchId,
+            results.size(), batch.path("request_counts").path("total").asInt(results.size()));
+        return results;
+    }
+
+    /**
+     * Builds the vision request body with the image streamed in as a base64 data URL,
+     * so neither the raw bytes nor their encoding are ever held in memory as a whole.
+     */
+    private HttpRequest.BodyPublisher chatRequest(MultipartFile image, String emotionText, boolean stream) {
+        SplitJson json = chatJson(image, emotionText, stream);
+
+        // The base64 characters need no JSON escaping, and their count is known up front
+        long encodedLength = 4 * ((image.getSize() + 2) / 3);
+        HttpRequest.BodyPublisher encodedImage = encodedLength == 0
+            ? HttpRequest.BodyPublishers.noBody()
+            : HttpRequest.BodyPublishers.fromPublisher(
+                HttpRequest.BodyPublishers.ofInputStream(() -> base64(image)), encodedLength);
+        return HttpRequest.BodyPublishers.concat(
+            HttpRequest.BodyPublishers.ofByteArray(json.head()),
+            encodedImage,
+            HttpRequest.BodyPublishers.ofByteArray(json.tail()));
+    }
+
+    // The serialized chat request up to and after the base64 image data
+    private SplitJson chatJson(MultipartFile image, String emotionText, boolean stream) {
+        ObjectNode request = objectMapper.createObjectNode()
+            .put("model", chatModel)
+            .put("temperature", temperature)
+            .put("stream", stream);
+        request.putObject("response_format").put("type", "json_object");
+        ArrayNode messages = request.putArray("messages");
+        messages.addObject().put("role", "system").put("content", SYSTEM_PROMPT);
+        ArrayNode content = messages.addObject().put("role", "user").putArray("content");
+        content.addObject().put("type", "text").put("text", "감정: " + emotionText);
+        content.addObject().put("type", "image_url").putObject("image_url").put("url", IMAGE_PLACEHOLDER);
+
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(request);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize OpenAI request", e);
+        }
+        // Trust the magic bytes over the client's content type
+        String mediaType = ImageType.detect(image).map(ImageType::mediaType).orElse(image.getContentType());
+        int at = json.indexOf(IMAGE_PLACEHOLDER);
+        byte[] head = (json.substring(0, at) + "data:" + mediaType + ";base64,")
+            .getBytes(StandardCharsets.UTF_8);
+        byte[] tail = json.substring(at + IMAGE_PLACEHOLDER.length()).getBytes(StandardCharsets.UTF_8);
+        return new SplitJson(head, tail);
+    }
+
+    // One request per line, the image streamed in like in chatRequest; custom_id is the request's index
+    private Path writeBatchInput(List<BatchAnalysis> requests) {
+        try {
+            Path input = Files.createTempFile("momon-batch-", ".jsonl");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(input))) {
+                for (int i = 0; i < requests.size(); i++) {
+                    BatchAnalysis request = requests.get(i);
+                    SplitJson body = chatJson(request.image(), request.emotionText(), false);
+                    out.write(("{\"custom_id\":\"" + i + "\",\"method\":\"POST\","
+                        + "\"url\":\"/v1/chat/completions\",\"body\":").getBytes(StandardCharsets.UTF_8));
+                    out.write(body.head());
+                    try (InputStream encoded = base64(request.image())) {
+                        encoded.transferTo(out);
+                    }
+                    out.write(body.tail());
+                    out.write("}\n".getBytes(StandardCharsets.UTF_8));
+                }
+            } catch (IOException | RuntimeException e) {
+                deleteQuietly(input);
+                throw e;
+            }
+            return input;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write OpenAI batch input", e);
+        }
+    }
+
+    private JsonNode uploadBatchInput(Path input) {
+        String boundary = "momon-" + UUID.randomUUID();
+        byte[] head = ("--" + boundary + "\r\n"
+            + "Content-Disposition: form-data; name=\"purpose\"\r\n\r\nbatch\r\n"
+            + "--" + boundary + "\r\n"
+            + "Content-Disposition: form-data; name=\"file\"; filename=\"batch.jsonl\"\r\n"
+            + "Content-Type: application/jsonl\r\n\r\n").getBytes(StandardCharsets.UTF_8);
+        byte[] tail = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8);
+        try {
+            HttpRequest.BodyPublisher body = HttpRequest.BodyPublishers.concat(
+                HttpRequest.BodyPublishers.ofByteArray(head),
+                HttpRequest.BodyPublishers.ofFile(input),
+                HttpRequest.BodyPublishers.ofByteArray(tail));
+            return readJson("/v1/files", send("/v1/files", requestBuilder("/v1/files")
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(body)
+                .build()));
+        } catch (FileNotFoundException e) {
+            throw new UncheckedIOException("OpenAI batch input disappeared", e);
+        }
+    }
+
+    // Polling errors are retried until the deadline; the batch keeps running on OpenAI's side meanwhile.
+    // The deadline counts from the batch's creation, so a resumed batch does not get a fresh one.
+    private JsonNode awaitBatch(String batchId) {
+        Instant deadline = Instant.now().plus(batchCompletionTimeout);
+        while (true) {
+            JsonNode batch = null;
+            try {
+                batch = readJson("/v1/batches", get("/v1/batches/" + batchId));
+            } catch (RuntimeException e) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+                log.warn("⚠️ Polling OpenAI batch {} failed: {}", batchId, e.getMessage());
+            }
+            if (batch != null) {
+                long createdAt = batch.path("created_at").asLong(0);
+                if (createdAt > 0) {
+                    deadline = Instant.ofEpochSecond(createdAt).plus(batchCompletionTimeout);
+                }
+                String status = batch.path("status").asText();
+                if ("completed".equals(status)) {
+                    return batch;
+                }
+                if (FAILED_BATCH_STATUSES.contains(status)) {
+                    throw new IllegalStateException("OpenAI batch " + batchId + " ended as " + status);
+                }
+            }
+
+            if (!Instant.now().isBefore(deadline)) {
+                cancelQuietly(batchId);
+                throw new IllegalStateException("OpenAI batch " + batchId + " not done within " + batchCompletionTimeout);
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(batchPollInterval.toMillis());
+            } catch (InterruptedException e) {
+                // Left running: the jobs in it keep the batch id and resume polling after a restart
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for OpenAI batch " + batchId, e);
+            }
+        }
+    }
+
+    private void readBatchResult(String batchId, String line, Map<Integer, MonsterCharacteristics> results) {
+        try {
+            JsonNode entry = objectMapper.readTree(line);
+            int index = entry.path("custom_id").asInt(-1);
+            JsonNode response = entry.path("response");
+            if (index < 0 || response.path("status_code").asInt() != 200) {
+                log.warn("⚠️ OpenAI batch {} request {} failed: {}", batchId, entry.path("custom_id").asText(),
+                    entry.path("error").path("message").asText(response.path("status_code").asText()));
+                return;
+            }
+            results.put(index, parseCharacteristics(
+                response.path("body").path("choices").path(0).path("message").path("content").asText()));
+        } catch (IOException | RuntimeException e) {
+            log.warn("⚠️ Unreadable result in OpenAI batch {}", batchId, e);
+        }
+    }
+
+    private void cancelQuietly(String batchId) {
+        try {
+            post("/v1/batches/" + batchId + "/cancel", HttpRequest.BodyPublishers.noBody());
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Failed to cancel OpenAI batch {}", batchId, e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("⚠️ Failed to delete temp file {}", file, e);
+        }
+    }
+
+    private static InputStream base64(MultipartFile image) {
+        try {
+            return new Base64InputStream(image.getInputStream());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read uploaded image", e);
+        }
+    }
+
+    private MonsterCharacteristics parseCharacteristics(String json) {
+        try {
+            MonsterCharacteristics characteristics = objectMapper.readValue(json, MonsterCharacteristics.class);
+            log.info("   - Generated: {}", characteristics.getName());
+            return characteristics;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to parse monster characteristics from OpenAI", e);
+        }
+    }
+
+    private JsonNode post(String path, HttpRequest.BodyPublisher body) {
+        return readJson(path, send(path, request(path, body)));
+    }
+
+    private byte[] get(String path) {
+        return send(path, requestBuilder(path).GET().build());
+    }
+
+    private byte[] send(String path, HttpRequest request) {
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() / 100 != 2) {
+                throw httpError(path, response.statusCode(), response.body());
+            }
+            return response.body();
+        } catch (IOException e) {
+            throw new RuntimeException("OpenAI request failed: " + path, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while calling OpenAI: " + path, e);
+        }
+    }
+
+    private JsonNode readJson(String path, byte[] body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            throw new RuntimeException("Unreadable OpenAI response: " + path, e);
+        }
+    }
+
+    private HttpRequest.BodyPublisher json(JsonNode body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize OpenAI request", e);
+        }
+    }
+
+    private HttpRequest request(String path, HttpRequest.BodyPublisher body) {
+        return requestBuilder(path)
+            .header("Content-Type", "application/json")
+            .POST(body)
+            .build();
+    }
+
+    private HttpRequest.Builder requestBuilder(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(requestTimeout)
+            .header("Authorization", "Bearer " + apiKey);
+    }
+
+    // Surface HTTP errors as RestClientResponseException so the bulkhead retries 429 and 5xx
+    private static RestClientResponseException httpError(String path, int status, byte[] body) {
+        return new RestClientResponseException("OpenAI " + path + " failed: HTTP " + status,
+            HttpStatusCode.valueOf(status), "", null, body, StandardCharsets.UTF_8);
+    }
+
+    private record SplitJson(byte[] head, byte[] tail) {
+    }
+
+    /**
+     * Base64-encodes a stream on the fly, three input bytes to four output characters per step.
+     */
+    private static class Base64InputStream extends InputStream {
+
+        private static final int CHUNK = 3 * 1024;
+
+        private final InputStream in;
+        private final byte[] raw = new byte[CHUNK];
+        private byte[] encoded = new byte[0];
+        private int position;
+        private boolean eof;
+
+        Base64InputStream(InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) == -1 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (position == encoded.length && !fill()) {
+                return -1;
+            }
+            int n = Math.min(length, encoded.length - position);
+            System.arraycopy(encoded, position, buffer, offset, n);
+            position += n;
+            return n;
+        }
+
+        // Only the final chunk may be shorter than a multiple of three, so padding appears only at the end
+        private boolean fill() throws IOException {
+            if (eof) {
+                return false;
+            }
+            int read = in.readNBytes(raw, 0, CHUNK);
+            if (read < CHUNK) {
+                eof = true;
+            }
+            if (read == 0) {
+                return false;
+            }
+            encoded = Base64.getEncoder().encode(read == CHUNK ? raw : Arrays.copyOf(raw, read));
+            position = 0;
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
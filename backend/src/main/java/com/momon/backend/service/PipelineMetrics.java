@@ -0,0 +1,102 @@
+package com.momon.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer meters for the monster creation pipeline, exported via /actuator/prometheus.
+ *
+ * <ul>
+ *   <li>{@code monster.create.stage{stage, outcome}} – timer with percentile histogram per stage</li>
+ *   <li>{@code monster.create.outcome{mode, outcome}} – finished creates by result</li>
+ *   <li>{@code monster.create.payload{kind}} – uploaded photo and stored image sizes in bytes</li>
+ * </ul>
+ * Meters are created once and cached, so the per-call cost is a map lookup and a clock read.
+ */
+@Component
+public class PipelineMetrics {
+
+    public static final String STAGE_USER = "user";
+    public static final String STAGE_CACHE_LOOKUP = "cache_lookup";
+    public static final String STAGE_PREPROCESS = "preprocess";
+    public static final String STAGE_ANALYZE = "analyze";
+    public static final String STAGE_GENERATE = "generate";
+    public static final String STAGE_DOWNLOAD = "download";
+    public static final String STAGE_S3_PUT = "s3_put";
+    public static final String STAGE_VARIANTS = "variants";
+    public static final String STAGE_SAVE = "save";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> stageTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> outcomeCounters = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> payloadSummaries = new ConcurrentHashMap<>();
+
+    public PipelineMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T time(String stage, Supplier<T> work) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            T result = work.get();
+            outcome = "success";
+            return result;
+        } finally {
+            recordStage(stage, outcome, System.nanoTime() - start);
+        }
+    }
+
+    public void time(String stage, Runnable work) {
+        time(stage, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public void recordStage(String stage, String outcome, long nanos) {
+        stageTimers.computeIfAbsent(stage + '|' + outcome, key -> Timer.builder("monster.create.stage")
+                .description("Latency of one monster creation stage")
+                .tag("stage", stage)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry))
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param mode    {@code sync} or {@code job}
+     * @param outcome {@code success}, {@code cache_hit} or {@code failure}
+     */
+    public void recordOutcome(String mode, String outcome) {
+        outcomeCounters.computeIfAbsent(mode + '|' + outcome, key -> Counter.builder("monster.create.outcome")
+                .description("Finished monster creations by result")
+                .tag("mode", mode)
+                .tag("outcome", outcome)
+                .register(meterRegistry))
+            .increment();
+    }
+
+    /**
+     * @param kind {@code photo} for the user's upload, {@code image} for the generated image stored in S3
+     */
+    public void recordPayload(String kind, long bytes) {
+        if (bytes < 0) {
+            return;
+        }
+        payloadSummaries.computeIfAbsent(kind, key -> DistributionSummary.builder("monster.create.payload")
+                .description("Bytes moved per monster creation")
+                .baseUnit("bytes")
+                .tag("kind", kind)
+                .register(meterRegistry))
+            .record(bytes);
+    }
+}
@@ -0,0 +1,39 @@
+package com.momon.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Devices that wrote within the last {@code window}. Their reads stay on the primary,
+ * so a monster shows up in the gallery right after it was created even while replicas lag behind.
+ * Kept per instance: without sticky sessions the window should exceed the expected replica lag.
+ */
+@Component
+public class ReadYourWrites {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWrites(
+        @Value("${datasource.read-your-writes.window:10s}") Duration window,
+        @Value("${datasource.read-your-writes.maximum-size:100000}") long maximumSize
+    ) {
+        this.recentWriters = Caffeine.newBuilder()
+            .expireAfterWrite(window)
+            .maximumSize(maximumSize)
+            .build();
+    }
+
+    public void recordWrite(String deviceId) {
+        if (deviceId != null) {
+            recentWriters.put(deviceId, Boolean.TRUE);
+        }
+    }
+
+    public boolean wroteRecently(String deviceId) {
+        return deviceId != null && recentWriters.getIfPresent(deviceId) != null;
+    }
+}
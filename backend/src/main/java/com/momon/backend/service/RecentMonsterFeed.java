@@ -0,0 +1,274 @@
+package com.momon.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.momon.backend.dto.MonsterResponse;
+import com.momon.backend.dto.RecentMonstersResponse;
+import com.momon.backend.repository.MonsterRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Global "recently summoned" feed, kept in memory so the public page never queries the monsters table.
+ *
+ * <p>Monsters go into a fixed-size ring: an append claims the next sequence number and overwrites
+ * the oldest slot, without locks. An id is let in once, by an atomic add to the set of ids seen,
+ * so a monster arriving from its event and from {@link #refresh()} at once is kept and counted once.
+ * Every change rebuilds the serialized response once; requests only hand out the latest {@link Snapshot}.
+ * The ring holds twice the served size, so monsters appended out of id order (other instances,
+ * see {@link #refresh()}) do not push newer ones out.
+ *
+ * <p>The total comes from one {@code COUNT(*)} at startup and is incremented per monster seen afterwards.
+ * Ids below the oldest monster in the ring are dropped from the seen set again, so it stays small.
+ * A monster whose id was allocated before that but committed later is missed by the refresh scan;
+ * {@link #reconcileTotal()} counts the table again at a long interval to catch those.
+ */
+@Service
+@Slf4j
+public class RecentMonsterFeed {
+
+    private final MonsterRepository monsterRepository;
+    private final ObjectMapper objectMapper;
+    private final int size;
+    private final int refreshPageSize;
+
+    private final AtomicReferenceArray<MonsterResponse> slots;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong totalMonsters = new AtomicLong();
+    private final Set<Long> seen = ConcurrentHashMap.newKeySet();
+    private final AtomicLong forgottenBelow = new AtomicLong();
+    private final AtomicReference<Snapshot> snapshot;
+
+    private final Counter rebuilds;
+
+    public RecentMonsterFeed(
+        MonsterRepository monsterRepository,
+        ObjectMapper objectMapper,
+        MeterRegistry meterRegistry,
+        @Value("${monster.feed.size:50}") int size,
+        @Value("${monster.feed.refresh-page-size:1000}") int refreshPageSize
+    ) {
+        this.monsterRepository = monsterRepository;
+        this.objectMapper = objectMapper;
+        this.size = size;
+        this.refreshPageSize = refreshPageSize;
+        this.slots = new AtomicReferenceArray<>(size * 2);
+        this.snapshot = new AtomicReference<>(serialize(0, List.of(), 0));
+        this.rebuilds = meterRegistry.counter("monster.feed.rebuilds");
+    }
+
+    /**
+     * Loads the newest monsters and the total before the instance takes traffic.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        totalMonsters.set(monsterRepository.count());
+        List<MonsterResponse> newest = monsterRepository.findNewestAfter(0L, PageRequest.of(0, size));
+        // Oldest first, so the ring keeps its insertion order
+        for (int i = newest.size() - 1; i >= 0; i--) {
+            append(newest.get(i), false);
+        }
+        rebuild();
+        log.info("📰 Recent feed warmed with {} monsters ({} in total)", newest.size(), totalMonsters.get());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMonsterCreated(MonsterCreatedEvent event) {
+        if (append(event.monster(), true)) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Swaps in the new version of a monster already in the feed, e.g. once its image is on S3.
+     */
+    public void update(MonsterResponse monster) {
+        if (replace(monster)) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Picks up monsters created on other instances, and image URLs they finished copying.
+     * Every id above the oldest monster in the ring is paged through by primary key and counted,
+     * but only the newest {@code size} of them are loaded into the ring.
+     */
+    @Scheduled(fixedDelayString = "${monster.feed.refresh-interval-ms:10000}",
+               initialDelayString = "${monster.feed.refresh-interval-ms:10000}")
+    public void refresh() {
+        List<MonsterResponse> current = entries();
+        long oldestId = current.stream().mapToLong(MonsterResponse::id).min().orElse(0L);
+
+        List<Long> unseen = new ArrayList<>();
+        long after = Math.max(oldestId, forgottenBelow.get() - 1);
+        List<Long> page;
+        do {
+            page = monsterRepository.findIdsAfter(after, PageRequest.of(0, refreshPageSize));
+            for (Long id : page) {
+                if (seen.add(id)) {
+                    unseen.add(id);
+                }
+            }
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1);
+            }
+        } while (page.size() == refreshPageSize);
+
+        boolean changed = !unseen.isEmpty();
+        if (changed) {
+            totalMonsters.addAndGet(unseen.size());
+            List<Long> newest = unseen.subList(Math.max(0, unseen.size() - size), unseen.size());
+            monsterRepository.findResponsesByIdIn(newest).stream()
+                .sorted(Comparator.comparing(MonsterResponse::id))
+                .forEach(this::place);
+        }
+
+        List<Long> pendingIds = current.stream()
+            .filter(MonsterResponse::imagePending)
+            .map(MonsterResponse::id)
+            .toList();
+        if (!pendingIds.isEmpty()) {
+            for (MonsterResponse monster : monsterRepository.findResponsesByIdIn(pendingIds)) {
+                changed |= !monster.imagePending() && replace(monster);
+            }
+        }
+
+        if (changed) {
+            rebuild();
+        }
+        forgetLeftRing();
+    }
+
+    /**
+     * Replaces the running total with a fresh {@code COUNT(*)}, picking up monsters that committed
+     * with an id below the oldest one in the ring. Monsters created while it counts may be counted
+     * twice or not at all until the next run.
+     */
+    @Scheduled(fixedDelayString = "${monster.feed.reconcile-interval-ms:3600000}",
+               initialDelayString = "${monster.feed.reconcile-interval-ms:3600000}")
+    public void reconcileTotal() {
+        long counted = monsterRepository.count();
+        long previous = totalMonsters.getAndSet(counted);
+        if (previous != counted) {
+            log.info("📰 Recent feed total reconciled from {} to {}", previous, counted);
+            version.incrementAndGet();
+            rebuild();
+        }
+    }
+
+    public Snapshot snapshot() {
+        return snapshot.get();
+    }
+
+    // Returns false when the monster has been seen already
+    private boolean append(MonsterResponse monster, boolean count) {
+        if (!seen.add(monster.id())) {
+            return false;
+        }
+        if (count) {
+            totalMonsters.incrementAndGet();
+        }
+        place(monster);
+        return true;
+    }
+
+    private void place(MonsterResponse monster) {
+        long next = sequence.getAndIncrement();
+        slots.set((int) (next % slots.length()), monster);
+        version.incrementAndGet();
+    }
+
+    // Refresh never scans below the oldest monster in the ring, so older ids need no gate
+    private void forgetLeftRing() {
+        long oldestId = entries().stream().mapToLong(MonsterResponse::id).min().orElse(0L);
+        if (forgottenBelow.accumulateAndGet(oldestId, Math::max) == oldestId) {
+            seen.removeIf(id -> id < oldestId);
+        }
+    }
+
+    private boolean replace(MonsterResponse monster) {
+        int index = indexOf(monster.id());
+        if (index < 0) {
+            return false;
+        }
+        MonsterResponse old = slots.get(index);
+        if (old.id().equals(monster.id()) && slots.compareAndSet(index, old, monster)) {
+            version.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    private int indexOf(Long id) {
+        for (int i = 0; i < slots.length(); i++) {
+            MonsterResponse slot = slots.get(i);
+            if (slot != null && slot.id().equals(id)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private List<MonsterResponse> entries() {
+        // A slot can change while it is read; keeping one entry per id is all the snapshot needs
+        Map<Long, MonsterResponse> byId = new HashMap<>();
+        for (int i = 0; i < slots.length(); i++) {
+            MonsterResponse slot = slots.get(i);
+            if (slot != null) {
+                byId.put(slot.id(), slot);
+            }
+        }
+        return new ArrayList<>(byId.values());
+    }
+
+    private void rebuild() {
+        // Everything appended before this version is already in its slot
+        long building = version.get();
+        List<MonsterResponse> newest = entries().stream()
+            .sorted(Comparator.comparing(MonsterResponse::id).reversed())
+            .limit(size)
+            .toList();
+        Snapshot fresh = serialize(building, newest, totalMonsters.get());
+        rebuilds.increment();
+        // Concurrent rebuilds may finish out of order; the newest version wins
+        snapshot.accumulateAndGet(fresh, (current, candidate) ->
+            candidate.version() >= current.version() ? candidate : current);
+    }
+
+    private Snapshot serialize(long version, List<MonsterResponse> monsters, long total) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(new RecentMonstersResponse(monsters, total));
+            return new Snapshot(version, json, "feed-" + DigestUtils.md5DigestAsHex(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize recent feed", e);
+        }
+    }
+
+    /**
+     * The serialized feed, the version it was built from and an ETag over its content
+     * (versions restart with the instance, so they cannot serve as one).
+     */
+    public record Snapshot(long version, byte[] json, String eTag) {
+    }
+}
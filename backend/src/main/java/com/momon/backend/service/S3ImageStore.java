@@ -0,0 +1,136 @@
+package com.momon.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores images as S3 objects under the suggested filename.
+ * Streams of known length go out in a single PutObject; unknown lengths use a multipart upload.
+ */
+@Service
+@ConditionalOnProperty(name = "image.store.type", havingValue = "s3", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class S3ImageStore implements ImageStore {
+
+    // S3 rejects multipart parts smaller than 5 MiB, except for the last one
+    private static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    private final S3Client s3Client;
+
+    @Value("${aws.s3.bucket-name}")
+    private String bucketName;
+
+    @Value("${aws.s3.region:ap-northeast-2}")
+    private String region;
+
+    @Value("${aws.s3.endpoint:}")
+    private String endpoint;
+
+    @Value("${aws.s3.multipart-part-size:5242880}")
+    private int partSize;
+
+    @Override
+    public String store(String filename, String contentType, InputStream body, long contentLength) throws IOException {
+        if (contentLength >= 0) {
+            PutObjectRequest request = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(filename)
+                .contentType(contentType)
+                .contentLength(contentLength)
+                .build();
+
+            s3Client.putObject(request, RequestBody.fromInputStream(body, contentLength));
+        } else {
+            uploadMultipart(filename, contentType, body);
+        }
+        return objectUrl(filename);
+    }
+
+    @Override
+    public String store(String filename, String contentType, byte[] bytes) {
+        s3Client.putObject(PutObjectRequest.builder()
+            .bucket(bucketName)
+            .key(filename)
+            .contentType(contentType)
+            .contentLength((long) bytes.length)
+            .build(), RequestBody.fromBytes(bytes));
+        return objectUrl(filename);
+    }
+
+    /**
+     * Uploads a stream of unknown length part by part, reusing one part-sized buffer.
+     */
+    private void uploadMultipart(String key, String contentType, InputStream body) throws IOException {
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+            .bucket(bucketName)
+            .key(key)
+            .contentType(contentType)
+            .build()).uploadId();
+
+        try {
+            byte[] buffer = new byte[Math.max(partSize, MIN_PART_SIZE)];
+            List<CompletedPart> parts = new ArrayList<>();
+            int partNumber = 1;
+            int length;
+            while ((length = body.readNBytes(buffer, 0, buffer.length)) > 0 || partNumber == 1) {
+                UploadPartRequest request = UploadPartRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .partNumber(partNumber)
+                    .contentLength((long) length)
+                    .build();
+
+                String eTag = s3Client.uploadPart(request,
+                    RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, length), length)).eTag();
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(eTag).build());
+                partNumber++;
+
+                if (length < buffer.length) {
+                    break;
+                }
+            }
+
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .uploadId(uploadId)
+                .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                .build());
+            log.info("   - Multipart upload completed: {} parts", parts.size());
+        } catch (IOException | RuntimeException e) {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .uploadId(uploadId)
+                .build());
+            throw e;
+        }
+    }
+
+    private String objectUrl(String key) {
+        if (endpoint != null && !endpoint.isBlank()) {
+            return String.format("%s/%s/%s", endpoint.replaceAll("/+$", ""), bucketName, key);
+        }
+        return String.format("https://%s.s3.%s.amazonaws.com/%s", bucketName, region, key);
+    }
+}
@@ -1,88 +1,248 @@
 package com.momon.backend.service;
 
+import com.momon.backend.dto.StoredImage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Copies generated monster images from the AI provider into the configured {@link ImageStore}
+ * (S3 unless {@code image.store.type} says otherwise) and stores their gallery variants alongside.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class S3Service {
 
-    private final S3Client s3Client;
-
-    @Value("${aws.s3.bucket-name}")
-    private String bucketName;
-
-    @Value("${aws.s3.region:ap-northeast-2}")
-    private String region;
+    private final ImageStore imageStore;
+    private final HttpClient httpClient;
+    private final DownstreamBulkheads bulkheads;
+    private final PipelineMetrics pipelineMetrics;
+    private final ImageVariants imageVariants;
 
     @Value("${ai.mock.enabled:true}")
     private boolean mockModeEnabled;
 
-    public String uploadMonsterImage(String imageUrl) {
+    public StoredImage uploadMonsterImage(String imageUrl) {
         // In mock mode, skip S3 upload and return the original URL
-        if (mockModeEnabled) {
+        if (mockModeEnabled && !imageStore.storesInMockMode()) {
             log.info("🎭 Mock mode: Skipping S3 upload, returning original URL");
             log.info("   - URL: {}", imageUrl);
-            return imageUrl;
+            return StoredImage.of(imageUrl);
         }
 
-        try {
-            // 1. Download image from URL
-            byte[] imageBytes = downloadImage(imageUrl);
-            log.info("📥 Downloaded image from URL: {} ({} bytes)", imageUrl, imageBytes.length);
-
-            // 2. Generate unique filename
-            String filename = "monsters/" + UUID.randomUUID() + ".png";
-
-            // 3. Upload to S3
-            PutObjectRequest request = PutObjectRequest.builder()
-                .bucket(bucketName)
-                .key(filename)
-                .contentType("image/png")
-                .build();
+        // Download + upload of the original run as one unit under the S3 bulkhead; a retry starts a fresh download.
+        // The variants are rendered after the permit is released, and each of their puts takes its own.
+        Transferred original = bulkheads.s3().execute(() -> transferToS3(imageUrl));
+        return storeVariants(original.url(), original.baseName(), original.source());
+    }
 
-            s3Client.putObject(request, RequestBody.fromBytes(imageBytes));
+    private Transferred transferToS3(String imageUrl) {
+        // 1. Open the download as a stream; the image is never held in memory as a whole.
+        //    The download stage covers time to response headers; the body streams during the put.
+        long downloadStart = System.nanoTime();
+        HttpResponse<InputStream> response;
+        try {
+            response = downloadImage(imageUrl);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            pipelineMetrics.recordStage(PipelineMetrics.STAGE_DOWNLOAD, "error", System.nanoTime() - downloadStart);
+            log.error("❌ Image download failed for URL: {}", imageUrl, e);
+            throw new RuntimeException("Failed to download image", e);
+        }
+        pipelineMetrics.recordStage(PipelineMetrics.STAGE_DOWNLOAD, "success", System.nanoTime() - downloadStart);
+        long contentLength = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+        String contentType = response.headers().firstValue("Content-Type").orElse("image/png");
+        log.info("📥 Streaming image from URL: {} ({} bytes)", imageUrl,
+            contentLength >= 0 ? contentLength : "unknown");
+
+        // 2. Generate unique filename
+        String baseName = "monsters/" + UUID.randomUUID();
+        String filename = baseName + ".png";
+
+        // 3. Pipe the download into the store, keeping a copy of reasonably sized images for the variants
+        long putStart = System.nanoTime();
+        boolean captureForVariants = imageVariants.isEnabled() && contentLength <= imageVariants.maxSourceBytes();
+        CapturingInputStream capture = new CapturingInputStream(response.body(),
+            captureForVariants ? imageVariants.maxSourceBytes() : 0);
+        String s3Url;
+        try (InputStream body = capture) {
+            s3Url = imageStore.store(filename, contentType, body, contentLength);
+        } catch (Exception e) {
+            // A body that breaks off mid-stream is the provider's fault, not the store's
+            String stage = capture.sourceFailed() ? PipelineMetrics.STAGE_DOWNLOAD : PipelineMetrics.STAGE_S3_PUT;
+            pipelineMetrics.recordStage(stage, "error", System.nanoTime() - putStart);
+            log.error("❌ S3 upload failed for URL: {}", imageUrl, e);
+            throw new RuntimeException("Failed to upload image to S3", e);
+        }
+        pipelineMetrics.recordStage(PipelineMetrics.STAGE_S3_PUT, "success", System.nanoTime() - putStart);
+        pipelineMetrics.recordPayload("image", capture.bytesRead());
+        log.info("✅ Image uploaded to S3: {}", s3Url);
 
-            // 4. Generate S3 URL
-            String s3Url = String.format("https://%s.s3.%s.amazonaws.com/%s",
-                bucketName, region, filename);
+        // 4. The caller stores the thumbnail and medium variants next to the original
+        return new Transferred(s3Url, baseName, capture.captured());
+    }
 
-            log.info("✅ Image uploaded to S3: {}", s3Url);
-            return s3Url;
+    /**
+     * A failed variant never fails the upload: the monster is kept with the original only,
+     * and the response falls back to the original URL for the variants.
+     */
+    private StoredImage storeVariants(String url, String baseName, byte[] source) {
+        if (source == null) {
+            return StoredImage.of(url);
+        }
 
+        long start = System.nanoTime();
+        try {
+            Optional<ImageVariants.Rendered> rendered = imageVariants.render(source);
+            if (rendered.isEmpty()) {
+                log.warn("⚠️ Stored image is not decodable, skipping variants: {}", url);
+                return StoredImage.of(url);
+            }
+
+            String thumbnailUrl = storeVariant(baseName + "_thumb.jpg", rendered.get().thumbnail());
+            String mediumUrl = storeVariant(baseName + "_medium.jpg", rendered.get().medium());
+            pipelineMetrics.recordStage(PipelineMetrics.STAGE_VARIANTS, "success", System.nanoTime() - start);
+            log.info("   - Variants stored: {} / {} bytes",
+                rendered.get().thumbnail().length, rendered.get().medium().length);
+            return new StoredImage(url, thumbnailUrl, mediumUrl);
         } catch (Exception e) {
-            log.error("❌ S3 upload failed for URL: {}", imageUrl, e);
-            throw new RuntimeException("Failed to upload image to S3", e);
+            pipelineMetrics.recordStage(PipelineMetrics.STAGE_VARIANTS, "error", System.nanoTime() - start);
+            log.warn("⚠️ Storing image variants failed, keeping original only: {}", url, e);
+            return StoredImage.of(url);
         }
     }
 
-    private byte[] downloadImage(String imageUrl) throws IOException, InterruptedException {
-        HttpClient client = HttpClient.newHttpClient();
+    private String storeVariant(String filename, byte[] jpeg) {
+        return bulkheads.s3().execute(() -> {
+            try {
+                return imageStore.store(filename, "image/jpeg", jpeg);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private HttpResponse<InputStream> downloadImage(String imageUrl) throws IOException, InterruptedException {
         HttpRequest request = HttpRequest.newBuilder()
             .uri(URI.create(imageUrl))
             .GET()
             .build();
 
-        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
 
         if (response.statusCode() != 200) {
+            response.body().close();
             throw new IOException("Failed to download image: HTTP " + response.statusCode());
         }
 
-        return response.body();
+        return response;
+    }
+
+    // The stored original plus, for images small enough, the bytes to render its variants from
+    private record Transferred(String url, String baseName, byte[] source) {
+    }
+
+    /**
+     * Copies what passes through into memory, up to {@code limit} bytes.
+     * A stream that outgrows the limit drops its copy, so huge images stay streamed.
+     */
+    private static class CapturingInputStream extends FilterInputStream {
+
+        private ByteArrayOutputStream copy;
+        private final int limit;
+        private long bytesRead;
+        private boolean sourceFailed;
+
+        CapturingInputStream(InputStream in, int limit) {
+            super(in);
+            this.limit = limit;
+            this.copy = limit > 0 ? new ByteArrayOutputStream(Math.min(limit, 1024 * 1024)) : null;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = readSource(() -> super.read());
+            if (b >= 0) {
+                keep(new byte[]{(byte) b}, 0, 1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = readSource(() -> super.read(buffer, offset, length));
+            if (n > 0) {
+                keep(buffer, offset, n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // Skipped bytes would leave a hole in the copy
+            copy = null;
+            long skipped = super.skip(n);
+            bytesRead += skipped;
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        private void keep(byte[] buffer, int offset, int length) {
+            bytesRead += length;
+            if (copy == null) {
+                return;
+            }
+            if (copy.size() + length > limit) {
+                copy = null;
+                return;
+            }
+            copy.write(buffer, offset, length);
+        }
+
+        private int readSource(SourceRead read) throws IOException {
+            try {
+                return read.read();
+            } catch (IOException e) {
+                sourceFailed = true;
+                throw e;
+            }
+        }
+
+        long bytesRead() {
+            return bytesRead;
+        }
+
+        boolean sourceFailed() {
+            return sourceFailed;
+        }
+
+        byte[] captured() {
+            return copy != null ? copy.toByteArray() : null;
+        }
+
+        @FunctionalInterface
+        private interface SourceRead {
+            int read() throws IOException;
+        }
     }
 }
@@ -0,0 +1,112 @@
+package com.momon.backend.service;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Copy of an upload that outlives the request that carried it. Small uploads are kept in memory,
+ * anything above the threshold goes to a temp file, so long-running work on many large uploads
+ * does not hold them on the heap. {@link #close()} deletes the temp file.
+ */
+public final class SpooledMultipartFile implements MultipartFile, AutoCloseable {
+
+    private final String originalFilename;
+    private final String contentType;
+    private final long size;
+    // Exactly one of the two holds the content
+    private final ByteArrayMultipartFile memory;
+    private final Path spoolFile;
+
+    // Metadata is captured up front; a moved part may no longer answer for it
+    private SpooledMultipartFile(MultipartFile file, ByteArrayMultipartFile memory, Path spoolFile) {
+        this.originalFilename = file.getOriginalFilename();
+        this.contentType = file.getContentType();
+        this.size = file.getSize();
+        this.memory = memory;
+        this.spoolFile = spoolFile;
+    }
+
+    public static SpooledMultipartFile copyOf(MultipartFile file, long threshold) {
+        if (file.getSize() <= threshold) {
+            return new SpooledMultipartFile(file, ByteArrayMultipartFile.copyOf(file), null);
+        }
+
+        try {
+            Path spool = Files.createTempFile("momon-upload-", ".part");
+            try {
+                SpooledMultipartFile copy = new SpooledMultipartFile(file, null, spool);
+                // A disk-backed part is moved rather than copied where the container allows it
+                file.transferTo(spool.toFile());
+                return copy;
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(spool);
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to spool uploaded image", e);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "image";
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return getSize() == 0;
+    }
+
+    @Override
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public byte[] getBytes() throws IOException {
+        return spoolFile != null ? Files.readAllBytes(spoolFile) : memory.getBytes();
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return spoolFile != null ? Files.newInputStream(spoolFile) : memory.getInputStream();
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        if (spoolFile != null) {
+            Files.copy(spoolFile, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            memory.transferTo(dest);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (spoolFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(spoolFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete spooled upload", e);
+        }
+    }
+}
@@ -1,37 +1,115 @@
 package com.momon.backend.service;
 
-import com.momon.backend.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.momon.backend.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Tracks devices without a read-modify-write per request.
+ * New devices are inserted with a single insert-if-absent statement; lastSeenAt bumps for known
+ * devices are collected in memory and written as one batch update every flush interval.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class UserService {
 
     private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
 
-    @Transactional
-    public User getOrCreateUser(String deviceId) {
-        // deviceId is the primary key, so use findById
-        return userRepository.findById(deviceId)
-                .map(user -> {
-                    // Update lastSeenAt for existing user
-                    user.setLastSeenAt(LocalDateTime.now());
-                    return userRepository.save(user);
-                })
-                .orElseGet(() -> {
-                    log.info("Creating new user with deviceId: {}", deviceId);
-                    User newUser = User.builder()
-                            .deviceId(deviceId)
-                            .lastSeenAt(LocalDateTime.now())
-                            .build();
-                    return userRepository.save(newUser);
-                });
+    // Devices known to have a users row, so repeat visits skip the insert entirely
+    private final Cache<String, Boolean> knownDevices;
+    private final Map<String, LocalDateTime> pendingLastSeen = new ConcurrentHashMap<>();
+
+    public UserService(
+        UserRepository userRepository,
+        JdbcTemplate jdbcTemplate,
+        @Value("${user.known-devices.maximum-size:100000}") long knownDevicesMaximumSize
+    ) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.knownDevices = Caffeine.newBuilder()
+            .maximumSize(knownDevicesMaximumSize)
+            .build();
+    }
+
+    /**
+     * Makes sure the device has a users row and records the visit.
+     * On return the row exists; lastSeenAt reaches the database with the next flush.
+     */
+    public void touch(String deviceId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (knownDevices.getIfPresent(deviceId) == null) {
+            boolean inserted = insertIfAbsent(deviceId, now);
+            knownDevices.put(deviceId, Boolean.TRUE);
+            if (inserted) {
+                log.info("👤 Created new user: {}", deviceId);
+                return;
+            }
+        }
+        pendingLastSeen.merge(deviceId, now, UserService::latest);
+    }
+
+    private boolean insertIfAbsent(String deviceId, LocalDateTime now) {
+        try {
+            return userRepository.insertIfAbsent(deviceId, now) > 0;
+        } catch (DataIntegrityViolationException e) {
+            // Lost the race against a concurrent first request for the same device
+            return false;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${user.last-seen.flush-interval-ms:10000}")
+    public void flushLastSeen() {
+        if (pendingLastSeen.isEmpty()) {
+            return;
+        }
+
+        // Take entries one by one so a visit recorded during the flush stays for the next round
+        Map<String, LocalDateTime> taken = new HashMap<>();
+        List<Object[]> updates = new ArrayList<>(pendingLastSeen.size());
+        for (String deviceId : pendingLastSeen.keySet()) {
+            LocalDateTime lastSeen = pendingLastSeen.remove(deviceId);
+            if (lastSeen != null) {
+                taken.put(deviceId, lastSeen);
+                Timestamp timestamp = Timestamp.valueOf(lastSeen);
+                updates.add(new Object[]{timestamp, deviceId, timestamp});
+            }
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(
+                "UPDATE users SET last_seen_at = ? WHERE device_id = ? AND last_seen_at < ?", updates);
+        } catch (DataAccessException e) {
+            // Put the visits back so the next round retries them; newer visits win the merge
+            taken.forEach((deviceId, lastSeen) -> pendingLastSeen.merge(deviceId, lastSeen, UserService::latest));
+            log.warn("⚠️ lastSeenAt flush failed, {} devices kept for the next round", taken.size(), e);
+            return;
+        }
+        log.info("🕒 Flushed lastSeenAt for {} devices", updates.size());
+    }
+
+    private static LocalDateTime latest(LocalDateTime previous, LocalDateTime current) {
+        return current.isAfter(previous) ? current : previous;
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushLastSeen();
     }
 }
@@ -0,0 +1,22 @@
+package com.momon.backend;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+
+/**
+ * Heap pools for tests that bound how much memory a code path retains.
+ */
+public final class MemoryPools {
+
+    private MemoryPools() {
+    }
+
+    // The heap pool that supports usage thresholds is the old generation; eden and survivor do not
+    public static MemoryPoolMXBean oldGeneration() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP && pool.isUsageThresholdSupported())
+            .findFirst()
+            .orElseThrow();
+    }
+}
@@ -0,0 +1,109 @@
+package com.momon.backend.controller;
+
+import com.momon.backend.service.LocalImageStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The local image store keeps identical bytes once and serves them with ETags and byte ranges.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:imagestoretest;DB_CLOSE_DELAY=-1",
+    "spring.jpa.show-sql=false",
+    "image.store.type=local",
+    "image.store.local.public-base-url=http://localhost/images"
+})
+@AutoConfigureMockMvc
+class ImageControllerTest {
+
+    private static final byte[] IMAGE = "0123456789abcdef".getBytes();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LocalImageStore imageStore;
+
+    private static Path root;
+
+    @DynamicPropertySource
+    static void storeRoot(DynamicPropertyRegistry registry) throws IOException {
+        root = Files.createTempDirectory("momon-images");
+        registry.add("image.store.local.root", root::toString);
+    }
+
+    @Test
+    void storesIdenticalBytesOnce() throws IOException {
+        String first = imageStore.store("monsters/a.png", "image/png", IMAGE);
+        String second = imageStore.store("monsters/b.png", "image/png", new ByteArrayInputStream(IMAGE), -1);
+
+        assertThat(second).isEqualTo(first);
+        // Every test stores the same bytes, and no upload leaves a temp file behind
+        try (Stream<Path> files = Files.walk(root)) {
+            assertThat(files.filter(Files::isRegularFile)).hasSize(1);
+        }
+    }
+
+    @Test
+    void servesWholeImageWithStrongETag() throws Exception {
+        String name = nameOf(imageStore.store("monsters/c.png", "image/png", IMAGE));
+
+        String eTag = mockMvc.perform(get("/images/" + name))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/png"))
+            .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+            .andExpect(content().bytes(IMAGE))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(eTag).isEqualTo("\"" + name.substring(0, 64) + "\"");
+        mockMvc.perform(get("/images/" + name).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void servesByteRanges() throws Exception {
+        String name = nameOf(imageStore.store("monsters/d.png", "image/png", IMAGE));
+
+        mockMvc.perform(get("/images/" + name).header(HttpHeaders.RANGE, "bytes=2-5"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/16"))
+            .andExpect(content().bytes(Arrays.copyOfRange(IMAGE, 2, 6)));
+
+        mockMvc.perform(get("/images/" + name).header(HttpHeaders.RANGE, "bytes=-3"))
+            .andExpect(status().isPartialContent())
+            .andExpect(content().bytes(Arrays.copyOfRange(IMAGE, 13, 16)));
+
+        mockMvc.perform(get("/images/" + name).header(HttpHeaders.RANGE, "bytes=16-"))
+            .andExpect(status().isRequestedRangeNotSatisfiable())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */16"));
+    }
+
+    @Test
+    void rejectsNamesOutsideTheStore() throws Exception {
+        mockMvc.perform(get("/images/application.yml")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/images/" + "0".repeat(64) + ".png")).andExpect(status().isNotFound());
+    }
+
+    private static String nameOf(String url) {
+        return url.substring(url.lastIndexOf('/') + 1);
+    }
+}
@@ -0,0 +1,123 @@
+package com.momon.backend.controller;
+
+import com.momon.backend.config.CacheConfig;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A stored monster is immutable: it is served with a year-long {@code Cache-Control} and revalidated
+ * without a database lookup. A monster whose image is still pending gets its own validator and no-cache.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:monstercachingtest;DB_CLOSE_DELAY=-1",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    // Keep background jobs away from the database while statements are counted
+    "monster.feed.refresh-interval-ms=3600000",
+    "monster.image.sweep-interval-ms=3600000",
+    "monster.jobs.sweep-interval-ms=3600000",
+    "monster.pool.fill-interval-ms=3600000",
+    "user.last-seen.flush-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+class MonsterCachingTest {
+
+    private static final long STORED_ID = 7001L;
+    private static final long PENDING_ID = 7002L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void insertMonsters() {
+        jdbcTemplate.update("merge into users (device_id, first_seen_at, last_seen_at) key (device_id) values (?, ?, ?)",
+            "caching-device", LocalDateTime.now(), LocalDateTime.now());
+        jdbcTemplate.update("delete from monsters where id in (?, ?)", STORED_ID, PENDING_ID);
+        jdbcTemplate.update("insert into monsters (id, device_id, name, image_url, image_pending, image_copy_attempts, created_at) "
+            + "values (?, ?, ?, ?, false, 0, ?)", STORED_ID, "caching-device", "저장된 슬라임",
+            "https://images.example/stored.png", LocalDateTime.now());
+        jdbcTemplate.update("insert into monsters (id, device_id, name, image_url, image_pending, image_copy_attempts, created_at) "
+            + "values (?, ?, ?, ?, true, 0, ?)", PENDING_ID, "caching-device", "기다리는 슬라임",
+            "https://provider.example/pending.png", LocalDateTime.now());
+        cacheManager.getCache(CacheConfig.MONSTERS).clear();
+    }
+
+    @Test
+    void storedMonsterIsImmutable() throws Exception {
+        mockMvc.perform(get("/api/v1/monsters/" + STORED_ID))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"monster-" + STORED_ID + "\""))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("max-age=31536000")))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")));
+    }
+
+    @Test
+    void storedMonsterRevalidatesWithoutTouchingTheDatabase() throws Exception {
+        // Cold cache: a lookup would have to go to the database
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long statements = statistics.getPrepareStatementCount();
+
+        mockMvc.perform(get("/api/v1/monsters/" + STORED_ID)
+                .header(HttpHeaders.IF_NONE_MATCH, "W/\"monster-" + STORED_ID + "\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"monster-" + STORED_ID + "\""));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+        assertThat(cacheManager.getCache(CacheConfig.MONSTERS).get(STORED_ID)).isNull();
+    }
+
+    @Test
+    void pendingMonsterIsRevalidatedUntilItsImageIsStored() throws Exception {
+        String pendingETag = "\"monster-" + PENDING_ID + "-pending\"";
+        mockMvc.perform(get("/api/v1/monsters/" + PENDING_ID))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, pendingETag))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+
+        mockMvc.perform(get("/api/v1/monsters/" + PENDING_ID).header(HttpHeaders.IF_NONE_MATCH, pendingETag))
+            .andExpect(status().isNotModified());
+
+        // Once the S3 copy is in, the pending validator no longer matches
+        jdbcTemplate.update("update monsters set image_pending = false, image_url = ? where id = ?",
+            "https://images.example/pending.png", PENDING_ID);
+        cacheManager.getCache(CacheConfig.MONSTERS).evict(PENDING_ID);
+        mockMvc.perform(get("/api/v1/monsters/" + PENDING_ID).header(HttpHeaders.IF_NONE_MATCH, pendingETag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"monster-" + PENDING_ID + "\""));
+    }
+
+    @Test
+    void unknownValidatorLooksTheMonsterUp() throws Exception {
+        mockMvc.perform(get("/api/v1/monsters/" + STORED_ID).header(HttpHeaders.IF_NONE_MATCH, "\"monster-1\""))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"monster-" + STORED_ID + "\""));
+        assertThat(cacheManager.getCache(CacheConfig.MONSTERS).get(STORED_ID)).isNotNull();
+    }
+}
@@ -0,0 +1,68 @@
+package com.momon.backend.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The stream endpoint reports progress before the monster and ends with the monster itself.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:streamtest;DB_CLOSE_DELAY=-1",
+    "spring.jpa.show-sql=false",
+    "ai.cache.enabled=false"
+})
+@AutoConfigureMockMvc
+class MonsterStreamControllerTest {
+
+    // Enough for the magic-byte check; the mock AI never decodes it
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A};
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void streamsStagesCharacteristicsAndMonsterLast() throws Exception {
+        MvcResult result = mockMvc.perform(multipart("/api/v1/monsters/stream")
+                .file(new MockMultipartFile("image", "photo.png", "image/png", PNG_SIGNATURE))
+                .file(new MockMultipartFile("text", "", "text/plain", "설렘".getBytes(StandardCharsets.UTF_8)))
+                .header("X-Device-ID", "stream-device"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        result.getAsyncResult(10_000);
+
+        String body = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        int analyze = body.indexOf("event:stage\ndata:{\"stage\":\"analyze\"}");
+        int characteristics = body.indexOf("event:characteristics\n");
+        int generate = body.indexOf("event:stage\ndata:{\"stage\":\"generate\"}");
+        int image = body.indexOf("event:image\n");
+        int monster = body.indexOf("event:monster\n");
+
+        assertThat(analyze).isGreaterThanOrEqualTo(0);
+        assertThat(characteristics).isGreaterThan(analyze);
+        assertThat(generate).isGreaterThan(characteristics);
+        assertThat(image).isGreaterThan(generate);
+        assertThat(monster).isGreaterThan(image);
+        assertThat(body.substring(monster)).contains("\"id\":");
+    }
+
+    @Test
+    void rejectsMissingTextBeforeOpeningAStream() throws Exception {
+        mockMvc.perform(multipart("/api/v1/monsters/stream")
+                .file(new MockMultipartFile("image", "photo.png", "image/png", PNG_SIGNATURE))
+                .file(new MockMultipartFile("text", "", "text/plain", " ".getBytes(StandardCharsets.UTF_8)))
+                .header("X-Device-ID", "stream-device"))
+            .andExpect(status().isBadRequest());
+    }
+}
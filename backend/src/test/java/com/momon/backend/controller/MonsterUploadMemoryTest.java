@@ -0,0 +1,128 @@
+package com.momon.backend.controller;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.MemoryPoolMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.momon.backend.MemoryPools.oldGeneration;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A hundred concurrent 10 MB photo uploads must leave the old generation growing by
+ * less than a quarter of their total size, which holds only if uploads are spooled
+ * to disk and decoded subsampled instead of being held on the heap.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.datasource.url=jdbc:h2:mem:uploadmemorytest;DB_CLOSE_DELAY=-1",
+    "spring.jpa.show-sql=false",
+    "ai.cache.enabled=false"
+})
+class MonsterUploadMemoryTest {
+
+    private static final long MB = 1024 * 1024;
+    private static final int UPLOADS = 100;
+    private static final int PHOTO_BYTES = (int) (10 * MB);
+    private static final String BOUNDARY = "momon-upload-boundary";
+
+    // One photo shared by all requests, so only the server's copies count
+    private static byte[] photo;
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeAll
+    static void createPhoto() throws IOException {
+        // Noise doesn't compress, which keeps the JPEG large; padding after EOI tops it up
+        BufferedImage image = new BufferedImage(2400, 1800, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        int[] row = new int[image.getWidth()];
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < row.length; x++) {
+                row[x] = random.nextInt(0x1000000);
+            }
+            image.setRGB(0, y, row.length, 1, row, 0, row.length);
+        }
+
+        ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpeg", jpeg);
+        photo = Arrays.copyOf(jpeg.toByteArray(), Math.max(PHOTO_BYTES, jpeg.size()));
+    }
+
+    @Test
+    void acceptsConcurrentLargeUploadsWithinTheHeap() throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+        // Photos held on the heap would stay alive across young collections and land in the old generation
+        MemoryPoolMXBean oldGen = oldGeneration();
+        oldGen.resetPeakUsage();
+        long baseline = oldGen.getUsage().getUsed();
+
+        try (ExecutorService uploaders = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<HttpResponse<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < UPLOADS; i++) {
+                HttpRequest request = createRequest("upload-device-" + i, "photo.jpg", "image/jpeg", photo);
+                responses.add(uploaders.submit(() -> client.send(request, HttpResponse.BodyHandlers.ofString())));
+            }
+
+            for (Future<HttpResponse<String>> response : responses) {
+                assertThat(response.get().statusCode()).isEqualTo(200);
+                assertThat(response.get().body()).contains("\"id\":");
+            }
+        }
+
+        assertThat(oldGen.getPeakUsage().getUsed() - baseline)
+            .as("old generation growth during %d concurrent %d MB uploads", UPLOADS, photo.length / MB)
+            .isLessThan((long) UPLOADS * photo.length / 4);
+    }
+
+    @Test
+    void rejectsUploadsThatAreNotImages() throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = createRequest("upload-device", "photo.jpg", "image/jpeg",
+            "definitely not a photo".getBytes(StandardCharsets.UTF_8));
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(415);
+    }
+
+    private HttpRequest createRequest(String deviceId, String filename, String contentType, byte[] image) {
+        String head = "--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"text\"\r\n"
+            + "Content-Type: text/plain; charset=UTF-8\r\n\r\n"
+            + "설렘\r\n"
+            + "--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"image\"; filename=\"" + filename + "\"\r\n"
+            + "Content-Type: " + contentType + "\r\n\r\n";
+        String tail = "\r\n--" + BOUNDARY + "--\r\n";
+
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/monsters"))
+            .header("X-Device-ID", deviceId)
+            .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+            .POST(HttpRequest.BodyPublishers.ofByteArrays(List.of(
+                head.getBytes(StandardCharsets.UTF_8), image, tail.getBytes(StandardCharsets.UTF_8))))
+            .build();
+    }
+}
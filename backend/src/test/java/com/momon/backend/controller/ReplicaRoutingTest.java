@@ -0,0 +1,124 @@
+package com.momon.backend.controller;
+
+import com.momon.backend.config.CacheConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Two in-memory H2 databases stand in for a primary and a replica that has stopped replicating:
+ * it has the schema but none of the rows written during the test. Pending monsters read from it
+ * are served but kept out of the detail cache.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:routingprimary;DB_CLOSE_DELAY=-1",
+    "datasource.replicas[0].url=" + ReplicaRoutingTest.REPLICA_URL,
+    "datasource.read-your-writes.window=1s",
+    "spring.jpa.show-sql=false",
+    "ai.cache.enabled=false"
+})
+@AutoConfigureMockMvc
+class ReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routingreplica;DB_CLOSE_DELAY=-1";
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A};
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private static JdbcTemplate replica;
+
+    @Test
+    void readsGoToReplicaExceptRightAfterOwnWrites() throws Exception {
+        JdbcTemplate replica = replica();
+
+        // Only the replica knows this device, so seeing its monster proves the read went there
+        replica.update("insert into users (device_id, first_seen_at, last_seen_at) values (?, ?, ?)",
+            "replica-device", LocalDateTime.now(), LocalDateTime.now());
+        replica.update("insert into monsters (device_id, name, image_url, image_pending, image_copy_attempts, created_at) "
+            + "values (?, ?, ?, false, 0, ?)", "replica-device", "복제 슬라임", "https://images.example/r.png", LocalDateTime.now());
+        mockMvc.perform(get("/api/v1/monsters").header("X-Device-ID", "replica-device"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.monsters", hasSize(1)))
+            .andExpect(jsonPath("$.monsters[0].name").value("복제 슬라임"));
+
+        mockMvc.perform(multipart("/api/v1/monsters")
+                .file(new MockMultipartFile("image", "photo.png", "image/png", PNG_SIGNATURE))
+                .file(new MockMultipartFile("text", "", "text/plain", "설렘".getBytes(StandardCharsets.UTF_8)))
+                .header("X-Device-ID", "writer-device"))
+            .andExpect(status().isOk());
+
+        // Within the window the writer reads its own monster from the primary
+        mockMvc.perform(get("/api/v1/monsters").header("X-Device-ID", "writer-device"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.monsters", hasSize(1)));
+
+        // Afterwards it reads from the lagging replica again
+        Thread.sleep(1500);
+        mockMvc.perform(get("/api/v1/monsters").header("X-Device-ID", "writer-device"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.monsters", hasSize(0)));
+    }
+
+    @Test
+    void pendingMonsterReadFromReplicaIsNotCached() throws Exception {
+        JdbcTemplate replica = replica();
+        replica.update("insert into users (device_id, first_seen_at, last_seen_at) values (?, ?, ?)",
+            "lagging-device", LocalDateTime.now(), LocalDateTime.now());
+        // The replica still has the provider URL; the primary may already have the S3 one
+        replica.update("insert into monsters (id, device_id, name, image_url, image_pending, image_copy_attempts, created_at) "
+            + "values (?, ?, ?, ?, true, 0, ?)", 9001L, "lagging-device", "늦은 슬라임", "https://provider.example/temp.png",
+            LocalDateTime.now());
+        replica.update("insert into monsters (id, device_id, name, image_url, image_pending, image_copy_attempts, created_at) "
+            + "values (?, ?, ?, ?, false, 0, ?)", 9002L, "lagging-device", "저장된 슬라임", "https://images.example/s.png",
+            LocalDateTime.now());
+
+        mockMvc.perform(get("/api/v1/monsters/9001").header("X-Device-ID", "lagging-device"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.imagePending").value(true));
+        mockMvc.perform(get("/api/v1/monsters/9002").header("X-Device-ID", "lagging-device"))
+            .andExpect(status().isOk());
+
+        Cache monsters = cacheManager.getCache(CacheConfig.MONSTERS);
+        assertThat(monsters.get(9001L)).isNull();
+        assertThat(monsters.get(9002L)).isNotNull();
+    }
+
+    // The replica gets the primary's schema once, but none of its rows
+    private JdbcTemplate replica() {
+        if (replica == null) {
+            replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+            List<String> schema = new JdbcTemplate(primaryDataSource).queryForList("SCRIPT NODATA", String.class);
+            schema.stream().filter(statement -> !statement.startsWith("--")).forEach(replica::execute);
+        }
+        return replica;
+    }
+}
@@ -0,0 +1,213 @@
+package com.momon.backend.service;
+
+import com.momon.backend.dto.MonsterCharacteristics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Batch-lane analyses are submitted in groups, and every caller gets back the result of its own request
+ * along with a ticket that lets it wait for the same provider batch again after a restart.
+ */
+class AiBatchQueueTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger resumes = new AtomicInteger();
+    private final CountDownLatch resumeReleased = new CountDownLatch(1);
+
+    private final BatchingAIService aiService = new BatchingAIService();
+
+    @Test
+    void submitsFullGroupsAndHandsEachCallerItsOwnResult() throws Exception {
+        AiBatchQueue queue = queue(Duration.ofHours(1));
+        List<Future<MonsterCharacteristics>> results = new ArrayList<>();
+        Map<String, AiBatchQueue.Ticket> tickets = new ConcurrentHashMap<>();
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 10; i++) {
+                String text = i == 3 ? "실패 " + i : "설렘 " + i;
+                results.add(callers.submit(() -> queue.analyze(photo(), text, ticket -> tickets.put(text, ticket))));
+            }
+            awaitQueueDepth(10);
+            queue.flush();
+        }
+
+        assertThat(batchSizes).containsExactly(5, 5);
+        assertThat(tickets).hasSize(10);
+        assertThat(tickets.values()).extracting(AiBatchQueue.Ticket::batchId).containsOnly("batch-1", "batch-2");
+        assertThat(tickets.values()).doesNotHaveDuplicates();
+        for (int i = 0; i < 10; i++) {
+            if (i == 3) {
+                Future<MonsterCharacteristics> failed = results.get(i);
+                assertThatThrownBy(failed::get).isInstanceOf(ExecutionException.class);
+            } else {
+                assertThat(results.get(i).get().getName()).isEqualTo("설렘 " + i);
+            }
+        }
+        assertThat(meterRegistry.get("ai.lane.requests").tag("lane", "batch").tag("outcome", "success")
+            .counter().count()).isEqualTo(9);
+        assertThat(meterRegistry.get("ai.lane.queue.wait").tag("lane", "batch").timer().count()).isEqualTo(10);
+    }
+
+    @Test
+    void submitsAPartialGroupOnceTheOldestRequestWaitedMaxWait() throws Exception {
+        AiBatchQueue queue = queue(Duration.ofMillis(200));
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<MonsterCharacteristics> first = callers.submit(() -> queue.analyze(photo(), "평온", ticket -> { }));
+            Future<MonsterCharacteristics> second = callers.submit(() -> queue.analyze(photo(), "행복", ticket -> { }));
+            awaitQueueDepth(2);
+
+            queue.flush();
+            assertThat(batchSizes).isEmpty();
+
+            TimeUnit.MILLISECONDS.sleep(250);
+            queue.flush();
+            assertThat(first.get(10, TimeUnit.SECONDS).getName()).isEqualTo("평온");
+            assertThat(second.get(10, TimeUnit.SECONDS).getName()).isEqualTo("행복");
+        }
+        assertThat(batchSizes).containsExactly(2);
+    }
+
+    @Test
+    void resumedTicketsOfOneBatchShareOnePoller() throws Exception {
+        AiBatchQueue queue = queue(Duration.ofHours(1));
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<MonsterCharacteristics> first = callers.submit(() -> queue.resume(new AiBatchQueue.Ticket("batch-9", 0)));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (resumes.get() == 0) {
+                assertThat(System.nanoTime()).isLessThan(deadline);
+                TimeUnit.MILLISECONDS.sleep(5);
+            }
+            // Comes back while the first poller is still waiting for the provider
+            Future<MonsterCharacteristics> failed = callers.submit(() -> queue.resume(new AiBatchQueue.Ticket("batch-9", 1)));
+            TimeUnit.MILLISECONDS.sleep(100);
+            resumeReleased.countDown();
+
+            assertThat(first.get(10, TimeUnit.SECONDS).getName()).isEqualTo("재개 batch-9");
+            assertThatThrownBy(() -> failed.get(10, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+        }
+        assertThat(resumes.get()).isEqualTo(1);
+        assertThat(batchSizes).isEmpty();
+    }
+
+    @Test
+    void providerWithoutBatchesAnalyzesTheGroupOneByOne() throws Exception {
+        AIService sequential = new SequentialAIService();
+        AiBatchQueue queue = queue(sequential, Duration.ofHours(1));
+        List<Future<MonsterCharacteristics>> results = new ArrayList<>();
+        List<AiBatchQueue.Ticket> tickets = Collections.synchronizedList(new ArrayList<>());
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 5; i++) {
+                String text = i == 1 ? "실패 " + i : "설렘 " + i;
+                results.add(callers.submit(() -> queue.analyze(photo(), text, tickets::add)));
+            }
+            awaitQueueDepth(5);
+            queue.flush();
+        }
+
+        assertThat(results.get(0).get().getName()).isEqualTo("설렘 0");
+        assertThatThrownBy(results.get(1)::get).isInstanceOf(ExecutionException.class);
+        assertThat(results.get(4).get().getName()).isEqualTo("설렘 4");
+        // Nothing was sent to a provider batch, so there is nothing to resume
+        assertThat(tickets).isEmpty();
+        assertThatThrownBy(() -> queue.resume(new AiBatchQueue.Ticket("batch-1", 0)))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    private AiBatchQueue queue(Duration maxWait) {
+        return queue(aiService, maxWait);
+    }
+
+    private AiBatchQueue queue(AIService provider, Duration maxWait) {
+        return new AiBatchQueue(provider, new AiLaneMetrics(meterRegistry), meterRegistry,
+            5, maxWait, 2, 100, Duration.ofMinutes(1));
+    }
+
+    private void awaitQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (meterRegistry.get("ai.batch.queue.depth").gauge().value() < depth) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+    }
+
+    private static MockMultipartFile photo() {
+        return new MockMultipartFile("image", "photo.jpg", "image/jpeg", new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF});
+    }
+
+    // Names each monster after its emotion text; "실패" fails on its own
+    private static class SequentialAIService implements AIService {
+
+        @Override
+        public MonsterCharacteristics analyzeImage(MultipartFile image, String emotionText) {
+            if (emotionText.contains("실패")) {
+                throw new IllegalStateException("analysis failed");
+            }
+            return new MonsterCharacteristics(emotionText, "배치 몬스터", "A batch monster");
+        }
+
+        @Override
+        public String generateMonsterImage(String prompt) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MonsterCharacteristics imagineMonster(String mood) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    // Numbers its batches and hands the photos to analyzeImage; resumed batches wait for resumeReleased
+    private class BatchingAIService extends SequentialAIService implements BatchAIService {
+
+        @Override
+        public List<MonsterCharacteristics> analyzeImageBatch(List<BatchAnalysis> requests, Consumer<String> onSubmitted) {
+            batchSizes.add(requests.size());
+            onSubmitted.accept("batch-" + batchSizes.size());
+            List<MonsterCharacteristics> results = new ArrayList<>(requests.size());
+            for (BatchAnalysis request : requests) {
+                try {
+                    results.add(analyzeImage(request.image(), request.emotionText()));
+                } catch (RuntimeException e) {
+                    results.add(null);
+                }
+            }
+            return results;
+        }
+
+        @Override
+        public Map<Integer, MonsterCharacteristics> resumeAnalysisBatch(String batchId) {
+            resumes.incrementAndGet();
+            try {
+                resumeReleased.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            return Map.of(0, new MonsterCharacteristics("재개 " + batchId, "배치 몬스터", "A resumed monster"));
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.momon.backend.service;
+
+import com.momon.backend.config.DownstreamProperties;
+import com.momon.backend.entity.AiLane;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Drives {@link Bulkhead} against a local HTTP stub that can be told to answer 429.
+ */
+class BulkheadTest {
+
+    private HttpServer stub;
+    private RestClient restClient;
+    private SimpleMeterRegistry meterRegistry;
+
+    private final AtomicInteger rateLimitedResponsesLeft = new AtomicInteger();
+    private final AtomicInteger concurrent = new AtomicInteger();
+    private final AtomicInteger maxConcurrent = new AtomicInteger();
+    private volatile long latencyMillis = 0;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.createContext("/v1/chat", exchange -> {
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(latencyMillis);
+                int status = rateLimitedResponsesLeft.getAndUpdate(left -> Math.max(0, left - 1)) > 0 ? 429 : 200;
+                byte[] body = (status == 200 ? "ok" : "rate limited").getBytes();
+                exchange.sendResponseHeaders(status, body.length);
+                exchange.getResponseBody().write(body);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                concurrent.decrementAndGet();
+                exchange.close();
+            }
+        });
+        stub.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        stub.start();
+
+        restClient = RestClient.create("http://127.0.0.1:" + stub.getAddress().getPort());
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.stop(0);
+    }
+
+    @Test
+    void retriesRateLimitedCallsAndHalvesTheLimit() {
+        Bulkhead bulkhead = new Bulkhead("chat", limits(8, 0), meterRegistry);
+        rateLimitedResponsesLeft.set(2);
+
+        assertThat(bulkhead.execute(this::callStub)).isEqualTo("ok");
+
+        assertThat(meterRegistry.counter("downstream.retries", "name", "chat").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("downstream.throttled", "name", "chat").count()).isEqualTo(2);
+        assertThat(bulkhead.currentLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void givesUpAfterMaxRetries() {
+        Bulkhead bulkhead = new Bulkhead("chat", limits(8, 0), meterRegistry);
+        rateLimitedResponsesLeft.set(100);
+
+        assertThatThrownBy(() -> bulkhead.execute(this::callStub))
+            .isInstanceOf(HttpClientErrorException.TooManyRequests.class);
+        assertThat(meterRegistry.counter("downstream.retries", "name", "chat").count()).isEqualTo(3);
+    }
+
+    @Test
+    void doesNotRetryClientErrors() {
+        Bulkhead bulkhead = new Bulkhead("chat", limits(8, 0), meterRegistry);
+
+        assertThatThrownBy(() -> bulkhead.execute(() -> {
+            throw new IllegalArgumentException("bad prompt");
+        })).isInstanceOf(IllegalArgumentException.class);
+        assertThat(meterRegistry.counter("downstream.retries", "name", "chat").count()).isZero();
+    }
+
+    @Test
+    void capsConcurrencyAndRejectsWhenQueueIsFull() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("chat", limits(4, 10), meterRegistry);
+        latencyMillis = 200;
+
+        List<Future<String>> calls = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 30; i++) {
+                calls.add(executor.submit(() -> bulkhead.execute(this::callStub)));
+            }
+        }
+
+        int succeeded = 0;
+        int rejected = 0;
+        for (Future<String> call : calls) {
+            try {
+                call.get();
+                succeeded++;
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(BulkheadFullException.class);
+                rejected++;
+            }
+        }
+
+        assertThat(maxConcurrent.get()).isLessThanOrEqualTo(4);
+        assertThat(succeeded).isEqualTo(14);
+        assertThat(rejected).isEqualTo(16);
+        assertThat(meterRegistry.counter("downstream.bulkhead.rejected", "name", "chat", "reason", "queue-full").count())
+            .isEqualTo(16);
+        assertThat(meterRegistry.get("downstream.bulkhead.queue.depth").tag("name", "chat").gauge().value()).isZero();
+    }
+
+    @Test
+    void shrinksLimitWhenLatencyRises() {
+        // Steady latency well above local jitter, with the connection already open
+        latencyMillis = 20;
+        callStub();
+        Bulkhead bulkhead = new Bulkhead("chat", limits(8, 0), meterRegistry);
+        for (int i = 0; i < 20; i++) {
+            bulkhead.execute(this::callStub);
+        }
+        int before = bulkhead.currentLimit();
+
+        latencyMillis = 150;
+        for (int i = 0; i < 20; i++) {
+            bulkhead.execute(this::callStub);
+        }
+
+        assertThat(bulkhead.currentLimit()).isLessThan(before);
+    }
+
+    @Test
+    void batchLaneYieldsToWaitingInteractiveCallsAndKeepsToItsShare() {
+        DownstreamProperties.Limits limits = limits(4, 100);
+        limits.setBatchShare(0.5);
+        limits.setBatchQueueTimeout(Duration.ofSeconds(10));
+        Bulkhead bulkhead = new Bulkhead("chat", limits, meterRegistry);
+
+        CountDownLatch firstHolderDone = new CountDownLatch(1);
+        CountDownLatch othersDone = new CountDownLatch(1);
+        AtomicBoolean interactiveRan = new AtomicBoolean();
+        AtomicInteger batchStarted = new AtomicInteger();
+        AtomicInteger batchConcurrent = new AtomicInteger();
+        AtomicInteger maxBatchConcurrent = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> bulkhead.run(() -> await(firstHolderDone)));
+            for (int i = 0; i < 3; i++) {
+                executor.submit(() -> bulkhead.run(() -> await(othersDone)));
+            }
+            awaitCondition(() -> bulkhead.inFlight() == 4);
+
+            for (int i = 0; i < 6; i++) {
+                executor.submit(() -> bulkhead.run(AiLane.BATCH, () -> {
+                    batchStarted.incrementAndGet();
+                    maxBatchConcurrent.accumulateAndGet(batchConcurrent.incrementAndGet(), Math::max);
+                    sleep(50);
+                    batchConcurrent.decrementAndGet();
+                }));
+            }
+            awaitCondition(() -> bulkhead.batchQueueDepth() == 6);
+            executor.submit(() -> bulkhead.run(() -> {
+                interactiveRan.set(true);
+                await(othersDone);
+            }));
+            awaitCondition(() -> bulkhead.queueDepth() == 1);
+
+            // The freed permit goes to the interactive call, although the batch calls queued first
+            firstHolderDone.countDown();
+            awaitCondition(interactiveRan::get);
+            assertThat(batchStarted).hasValue(0);
+
+            othersDone.countDown();
+        }
+
+        assertThat(batchStarted).hasValue(6);
+        assertThat(maxBatchConcurrent.get()).isBetween(1, 2);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            sleep(5);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String callStub() {
+        return restClient.get().uri("/v1/chat").retrieve().body(String.class);
+    }
+
+    private static DownstreamProperties.Limits limits(int limit, int queueSize) {
+        DownstreamProperties.Limits limits = new DownstreamProperties.Limits();
+        limits.setInitialLimit(limit);
+        limits.setMinLimit(1);
+        limits.setMaxLimit(limit);
+        limits.setQueueSize(queueSize);
+        limits.setQueueTimeout(Duration.ofSeconds(10));
+        limits.setMaxRetries(3);
+        limits.setBaseBackoff(Duration.ofMillis(10));
+        limits.setMaxBackoff(Duration.ofMillis(50));
+        return limits;
+    }
+}
@@ -0,0 +1,118 @@
+package com.momon.backend.service;
+
+import com.momon.backend.config.CreateRateLimitFilter;
+import com.momon.backend.config.WebConfig;
+import com.momon.backend.dto.MonsterResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Burst, refill and Retry-After of the per-device token bucket, CORS headers on its 429, free idempotent
+ * retries, and its memory bound.
+ */
+class DeviceRateLimiterTest {
+
+    private static final String ORIGIN = "http://localhost:3000";
+
+    private final AtomicLong nanos = new AtomicLong(1_000_000_000L);
+
+    private static IdempotencyStore idempotencyStore() {
+        return new IdempotencyStore(new SimpleMeterRegistry(), Duration.ofHours(1), 1000, Duration.ofSeconds(10));
+    }
+
+    private DeviceRateLimiter limiter(int capacity, long maximumDevices) {
+        return new DeviceRateLimiter(new SimpleMeterRegistry(), true, capacity, Duration.ofSeconds(12),
+            maximumDevices, nanos::get);
+    }
+
+    @Test
+    void allowsBurstThenOneTokenPerRefillPeriod() {
+        DeviceRateLimiter limiter = limiter(5, 1000);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("device").allowed()).isTrue();
+        }
+        DeviceRateLimiter.Decision rejected = limiter.tryAcquire("device");
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.retryAfterSeconds()).isEqualTo(12);
+        // Other devices have their own bucket
+        assertThat(limiter.tryAcquire("other-device").allowed()).isTrue();
+
+        nanos.addAndGet(Duration.ofSeconds(5).toNanos());
+        assertThat(limiter.tryAcquire("device").retryAfterSeconds()).isEqualTo(7);
+
+        nanos.addAndGet(Duration.ofSeconds(7).toNanos());
+        assertThat(limiter.tryAcquire("device").allowed()).isTrue();
+        assertThat(limiter.tryAcquire("device").allowed()).isFalse();
+
+        // A bucket left alone for capacity x period is full again
+        nanos.addAndGet(Duration.ofMinutes(1).toNanos());
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("device").allowed()).isTrue();
+        }
+    }
+
+    @Test
+    void answersWith429BeforeTheUploadIsRead() throws Exception {
+        CreateRateLimitFilter filter = new CreateRateLimitFilter(limiter(1, 1000), idempotencyStore());
+
+        assertThat(create(filter, null).getStatus()).isEqualTo(200);
+        MockHttpServletResponse limited = create(filter, null);
+        assertThat(limited.getStatus()).isEqualTo(429);
+        assertThat(limited.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("12");
+        // The frontend on another origin can read the rejection and its Retry-After
+        assertThat(limited.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN)).isEqualTo(ORIGIN);
+        assertThat(limited.getHeader(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS)).contains(HttpHeaders.RETRY_AFTER);
+    }
+
+    @Test
+    void retryWithAUsedIdempotencyKeyCostsNoToken() throws Exception {
+        IdempotencyStore idempotencyStore = idempotencyStore();
+        CreateRateLimitFilter filter = new CreateRateLimitFilter(limiter(1, 1000), idempotencyStore);
+
+        assertThat(create(filter, "key-1").getStatus()).isEqualTo(200);
+        // What the controller does with the first request
+        idempotencyStore.execute("script-device", "key-1", "photo:설렘", () -> new MonsterResponse(1L,
+            "https://images.example/1.png", null, null, "설렘 슬라임", "두근거리는 슬라임", LocalDateTime.now(), false));
+
+        assertThat(create(filter, "key-1").getStatus()).isEqualTo(200);
+        assertThat(create(filter, "key-2").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void keepsMemoryBoundedAcrossMillionsOfDevices() {
+        long maximumDevices = 10_000;
+        DeviceRateLimiter limiter = limiter(5, maximumDevices);
+
+        for (int i = 0; i < 3_000_000; i++) {
+            limiter.tryAcquire("device-" + i);
+        }
+
+        assertThat(limiter.trackedDevices()).isLessThanOrEqualTo(maximumDevices);
+    }
+
+    // Runs the CORS filter in front, as the application does
+    private static MockHttpServletResponse create(CreateRateLimitFilter filter, String idempotencyKey) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/monsters");
+        request.addHeader("X-Device-ID", "script-device");
+        if (idempotencyKey != null) {
+            request.addHeader(IdempotencyStore.KEY_HEADER, idempotencyKey);
+        }
+        request.addHeader(HttpHeaders.ORIGIN, ORIGIN);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new MockFilterChain(new HttpServlet() {
+        }, new WebConfig().corsFilter().getFilter(), filter).doFilter(request, response);
+        return response;
+    }
+}
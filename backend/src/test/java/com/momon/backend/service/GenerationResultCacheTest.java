@@ -0,0 +1,269 @@
+package com.momon.backend.service;
+
+import com.momon.backend.config.CacheConfig;
+import com.momon.backend.dto.GeneratedMonster;
+import com.momon.backend.dto.MonsterCharacteristics;
+import com.momon.backend.dto.MonsterJobResponse;
+import com.momon.backend.dto.MonsterResponse;
+import com.momon.backend.dto.StoredImage;
+import com.momon.backend.entity.GenerationCacheEntry;
+import com.momon.backend.entity.MonsterJob;
+import com.momon.backend.entity.MonsterJobStatus;
+import com.momon.backend.repository.GenerationCacheRepository;
+import com.momon.backend.repository.MonsterJobRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * A resubmitted photo with the same emotion text skips both AI calls and the S3 upload, in the sync
+ * and the job pipeline. The database tier outlives the memory tier until its TTL runs out.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:generationcachetest;DB_CLOSE_DELAY=-1",
+    "spring.jpa.show-sql=false",
+    "ai.cache.enabled=true",
+    "ai.cache.persistent.enabled=true",
+    "ai.cache.persistent.ttl=7d",
+    "monster.pool.enabled=false",
+    "monster.rate-limit.enabled=false",
+    "monster.jobs.sweep-interval-ms=100"
+})
+class GenerationResultCacheTest {
+
+    @Autowired
+    private GenerationResultCache cache;
+
+    @Autowired
+    private GenerationCacheRepository generationCacheRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MonsterService monsterService;
+
+    @Autowired
+    private MonsterJobService monsterJobService;
+
+    @Autowired
+    private MonsterJobRepository monsterJobRepository;
+
+    @Autowired
+    private CountingAIService aiService;
+
+    @Autowired
+    private CountingS3Service s3Service;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void resubmittedPhotoSkipsTheAiCallsAndTheUpload() {
+        MockMultipartFile photo = photo();
+        MonsterResponse first = monsterService.createMonster("cache-device", photo, "오늘은  행복해");
+        int analyses = aiService.analyses.get();
+        int generations = aiService.generations.get();
+        int uploads = s3Service.uploads.get();
+
+        MonsterResponse second = monsterService.createMonster("cache-device", photo, " 오늘은 행복해 ");
+
+        assertThat(second.id()).isNotEqualTo(first.id());
+        assertThat(second.name()).isEqualTo(first.name());
+        assertThat(second.imageUrl()).isEqualTo(first.imageUrl());
+        assertThat(aiService.analyses.get()).isEqualTo(analyses);
+        assertThat(aiService.generations.get()).isEqualTo(generations);
+        assertThat(s3Service.uploads.get()).isEqualTo(uploads);
+    }
+
+    @Test
+    void cachedGenerationServesAJobWithoutAiCallsOrUpload() throws Exception {
+        MockMultipartFile photo = photo();
+        StoredImage stored = StoredImage.of("https://images.example/" + UUID.randomUUID() + ".png");
+        cache.put(cache.keyOf(photo, "설렘"), new MonsterCharacteristics("캐시 슬라임", "캐시에서 온 슬라임", "cached"), stored);
+        int analyses = aiService.analyses.get();
+        int generations = aiService.generations.get();
+        int uploads = s3Service.uploads.get();
+
+        MonsterJobResponse submitted = monsterJobService.submit("cache-device", photo, "설렘");
+        MonsterJob done = awaitDone(submitted.jobId());
+
+        assertThat(done.getMonsterName()).isEqualTo("캐시 슬라임");
+        assertThat(done.getStoredImageUrl()).isEqualTo(stored.url());
+        assertThat(aiService.analyses.get()).isEqualTo(analyses);
+        assertThat(aiService.generations.get()).isEqualTo(generations);
+        assertThat(s3Service.uploads.get()).isEqualTo(uploads);
+    }
+
+    @Test
+    void keyHashedByTheCallerIsNotComputedAgain() {
+        MockMultipartFile photo = photo();
+        String key = cache.keyOf(photo, "두근");
+        cache.put(key, new MonsterCharacteristics("미리 계산된 슬라임", "키를 건네받은 슬라임", "keyed"),
+            StoredImage.of("https://images.example/keyed.png"));
+        int analyses = aiService.analyses.get();
+
+        // Another photo under the same key: only a reused key can hit
+        MonsterResponse created = monsterService.createMonster("cache-device", photo(), "두근", key);
+
+        assertThat(created.name()).isEqualTo("미리 계산된 슬라임");
+        assertThat(aiService.analyses.get()).isEqualTo(analyses);
+    }
+
+    @Test
+    void databaseTierServesWhatTheMemoryTierEvicted() {
+        String key = cache.keyOf(photo(), "평온");
+        cache.put(key, new MonsterCharacteristics("오래된 슬라임", "DB에 남은 슬라임", "stored"),
+            StoredImage.of("https://images.example/db.png"));
+        cacheManager.getCache(CacheConfig.GENERATIONS).evict(key);
+        double databaseHits = hits("database");
+
+        GeneratedMonster hit = cache.lookup(key).orElseThrow();
+
+        assertThat(hit.characteristics().getName()).isEqualTo("오래된 슬라임");
+        assertThat(hit.image().url()).isEqualTo("https://images.example/db.png");
+        assertThat(hits("database")).isEqualTo(databaseHits + 1);
+        // Promoted back into memory
+        assertThat(cacheManager.getCache(CacheConfig.GENERATIONS).get(key, GeneratedMonster.class)).isNotNull();
+    }
+
+    @Test
+    void expiredEntriesMissAndArePurged() {
+        String key = cache.keyOf(photo(), "슬픔");
+        cache.put(key, new MonsterCharacteristics("새 슬라임", "방금 저장된 슬라임", "fresh"),
+            StoredImage.of("https://images.example/fresh.png"));
+        GenerationCacheEntry entry = generationCacheRepository.findById(key).orElseThrow();
+        assertThat(entry.getExpiresAt()).isCloseTo(LocalDateTime.now().plusDays(7), within(1, ChronoUnit.MINUTES));
+
+        entry.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        generationCacheRepository.save(entry);
+        cacheManager.getCache(CacheConfig.GENERATIONS).evict(key);
+        assertThat(cache.lookup(key)).isEmpty();
+
+        cache.purgeExpired();
+        assertThat(generationCacheRepository.findById(key)).isEmpty();
+    }
+
+    @Test
+    void emotionTextIsNormalizedIntoTheKey() {
+        MockMultipartFile photo = photo();
+        String key = cache.keyOf(photo, "Happy 행복");
+
+        assertThat(cache.keyOf(photo, "  happy   행복 ")).isEqualTo(key);
+        assertThat(cache.keyOf(photo, Normalizer.normalize("HAPPY 행복", Normalizer.Form.NFD))).isEqualTo(key);
+        assertThat(cache.keyOf(photo, "happy 기쁨")).isNotEqualTo(key);
+        assertThat(cache.keyOf(photo(), "happy 행복")).isNotEqualTo(key);
+    }
+
+    @Test
+    void countsHitsAndMissesPerTier() {
+        String key = cache.keyOf(photo(), "기쁨");
+        double memoryHits = hits("memory");
+        double misses = meterRegistry.get("ai.cache.requests").tag("result", "miss").counter().count();
+
+        assertThat(cache.lookup(key)).isEmpty();
+        cache.put(key, new MonsterCharacteristics("기쁜 슬라임", "웃는 슬라임", "joy"),
+            StoredImage.of("https://images.example/joy.png"));
+        assertThat(cache.lookup(key)).isPresent();
+
+        double missesAfter = meterRegistry.get("ai.cache.requests").tag("result", "miss").counter().count();
+        assertThat(missesAfter).isEqualTo(misses + 1);
+        assertThat(hits("memory")).isEqualTo(memoryHits + 1);
+
+        double allHits = hits("memory") + hits("database");
+        assertThat(meterRegistry.get("ai.cache.hit.ratio").gauge().value())
+            .isCloseTo(allHits / (allHits + missesAfter), within(1e-9));
+    }
+
+    private double hits(String tier) {
+        return meterRegistry.get("ai.cache.requests").tag("result", "hit").tag("tier", tier).counter().count();
+    }
+
+    private MonsterJob awaitDone(String jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            MonsterJob job = monsterJobRepository.findById(jobId).orElseThrow();
+            if (job.getStatus() == MonsterJobStatus.DONE) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Job " + jobId + " did not finish in time");
+    }
+
+    // Distinct bytes per call, so tests never share a cache key by accident
+    private static MockMultipartFile photo() {
+        byte[] bytes = ("photo-" + UUID.randomUUID()).getBytes();
+        return new MockMultipartFile("image", "photo.png", "image/png", bytes);
+    }
+
+    @TestConfiguration
+    static class CountingConfig {
+
+        @Bean
+        @Primary
+        CountingAIService countingAIService() {
+            return new CountingAIService();
+        }
+
+        @Bean
+        @Primary
+        CountingS3Service countingS3Service() {
+            return new CountingS3Service();
+        }
+    }
+
+    static class CountingAIService implements AIService {
+
+        final AtomicInteger analyses = new AtomicInteger();
+        final AtomicInteger generations = new AtomicInteger();
+
+        @Override
+        public MonsterCharacteristics analyzeImage(MultipartFile image, String emotionText) {
+            analyses.incrementAndGet();
+            return new MonsterCharacteristics("분석된 슬라임", "AI가 만든 슬라임", "analyzed slime");
+        }
+
+        @Override
+        public String generateMonsterImage(String prompt) {
+            generations.incrementAndGet();
+            return "https://provider.example/" + UUID.randomUUID() + ".png";
+        }
+
+        @Override
+        public MonsterCharacteristics imagineMonster(String mood) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    static class CountingS3Service extends S3Service {
+
+        final AtomicInteger uploads = new AtomicInteger();
+
+        CountingS3Service() {
+            super(null, null, null, null, null);
+        }
+
+        @Override
+        public StoredImage uploadMonsterImage(String imageUrl) {
+            uploads.incrementAndGet();
+            return StoredImage.of("https://images.example/" + UUID.randomUUID() + ".png");
+        }
+    }
+}
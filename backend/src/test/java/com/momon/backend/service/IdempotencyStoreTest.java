@@ -0,0 +1,149 @@
+package com.momon.backend.service;
+
+import com.momon.backend.dto.MonsterResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Duplicates of an in-flight request wait for its result, later ones get it replayed,
+ * and only the first request with a key does any work, however full the store gets.
+ */
+class IdempotencyStoreTest {
+
+    private final IdempotencyStore store = new IdempotencyStore(new SimpleMeterRegistry(),
+        Duration.ofHours(1), 1000, Duration.ofSeconds(10));
+
+    @Test
+    void runsOnceForConcurrentRetriesAndReplaysAfterwards() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<IdempotencyStore.Result>> results = new ArrayList<>();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 20; i++) {
+                results.add(clients.submit(() -> store.execute("device", "key-1", "photo:설렘", () -> {
+                    runs.incrementAndGet();
+                    await(release);
+                    return monster(1L);
+                })));
+            }
+            // Every duplicate is parked on the first request by now
+            Thread.sleep(200);
+            release.countDown();
+        }
+
+        assertThat(runs).hasValue(1);
+        assertThat(results).allSatisfy(result -> assertThat(get(result).response().id()).isEqualTo(1L));
+        assertThat(results.stream().filter(result -> !get(result).replayed())).hasSize(1);
+
+        IdempotencyStore.Result later = store.execute("device", "key-1", "photo:설렘", () -> monster(2L));
+        assertThat(later.replayed()).isTrue();
+        assertThat(later.response().id()).isEqualTo(1L);
+    }
+
+    @Test
+    void scopesKeysToTheDeviceAndRejectsReuseForAnotherRequest() {
+        store.execute("device-a", "key-1", "photo:설렘", () -> monster(1L));
+
+        assertThat(store.execute("device-b", "key-1", "photo:설렘", () -> monster(2L)).response().id())
+            .isEqualTo(2L);
+        assertThatThrownBy(() -> store.execute("device-a", "key-1", "photo:우울", () -> monster(3L)))
+            .isInstanceOf(IdempotencyKeyReusedException.class);
+    }
+
+    @Test
+    void forgetsFailuresSoTheNextRetryRunsAgain() {
+        assertThatThrownBy(() -> store.execute("device", "key-1", "photo:설렘", () -> {
+            throw new BulkheadFullException("image bulkhead full");
+        })).isInstanceOf(BulkheadFullException.class);
+
+        IdempotencyStore.Result retry = store.execute("device", "key-1", "photo:설렘", () -> monster(1L));
+        assertThat(retry.replayed()).isFalse();
+        assertThat(retry.response().id()).isEqualTo(1L);
+    }
+
+    @Test
+    void givesUpWaitingAfterTheTimeout() throws Exception {
+        IdempotencyStore impatient = new IdempotencyStore(new SimpleMeterRegistry(),
+            Duration.ofHours(1), 1000, Duration.ofMillis(100));
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            clients.submit(() -> impatient.execute("device", "key-1", "photo:설렘", () -> {
+                await(release);
+                return monster(1L);
+            }));
+            Thread.sleep(50);
+            assertThatThrownBy(() -> impatient.execute("device", "key-1", "photo:설렘", () -> monster(2L)))
+                .isInstanceOf(IdempotencyInProgressException.class);
+            release.countDown();
+        }
+    }
+
+    @Test
+    void sizeBoundNeverEvictsAnInFlightRequest() throws Exception {
+        IdempotencyStore small = new IdempotencyStore(new SimpleMeterRegistry(),
+            Duration.ofHours(1), 1, Duration.ofSeconds(10));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            clients.submit(() -> small.execute("device", "slow-key", "photo:설렘", () -> {
+                runs.incrementAndGet();
+                await(release);
+                return monster(1L);
+            }));
+            Thread.sleep(50);
+
+            // Finished requests overflow the bound of one
+            for (long id = 2; id < 50; id++) {
+                long monsterId = id;
+                small.execute("device", "key-" + id, "photo:설렘", () -> monster(monsterId));
+            }
+            Thread.sleep(100);
+
+            assertThat(small.contains("device", "slow-key")).isTrue();
+            Future<IdempotencyStore.Result> duplicate =
+                clients.submit(() -> small.execute("device", "slow-key", "photo:설렘", () -> monster(99L)));
+            release.countDown();
+            assertThat(get(duplicate).response().id()).isEqualTo(1L);
+        }
+        assertThat(runs).hasValue(1);
+    }
+
+    private static MonsterResponse monster(Long id) {
+        return new MonsterResponse(id, "https://images.example/" + id + ".png", null, null,
+            "설렘 슬라임", "두근거리는 슬라임", LocalDateTime.now(), false);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static IdempotencyStore.Result get(Future<IdempotencyStore.Result> result) {
+        try {
+            return result.get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.momon.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A saturated preprocessing pool makes callers wait; they never decode on their own threads.
+ */
+class ImagePreprocessorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger reading = new AtomicInteger();
+    private final AtomicInteger maxReading = new AtomicInteger();
+    private final Set<String> readerThreads = ConcurrentHashMap.newKeySet();
+
+    // One worker, one queue slot
+    private final ImagePreprocessor preprocessor =
+        new ImagePreprocessor(new SimpleMeterRegistry(), true, 1024, 0.85f, 1, 1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        preprocessor.shutdown();
+    }
+
+    @Test
+    void callersWaitForRoomInsteadOfDecodingInline() throws Exception {
+        List<Future<MultipartFile>> results = new ArrayList<>();
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 4; i++) {
+                MultipartFile upload = blockingUpload("photo-" + i + ".png");
+                results.add(callers.submit(() -> preprocessor.preprocess(upload)));
+            }
+
+            // One photo is on the worker, one is queued, and the other two callers are blocked
+            awaitReading(1);
+            TimeUnit.MILLISECONDS.sleep(200);
+            assertThat(maxReading.get()).isEqualTo(1);
+            assertThat(results).noneMatch(Future::isDone);
+
+            release.countDown();
+            for (Future<MultipartFile> result : results) {
+                // Not decodable, so each caller gets its own upload back
+                assertThat(result.get(10, TimeUnit.SECONDS).getOriginalFilename()).startsWith("photo-");
+            }
+        }
+
+        assertThat(maxReading.get()).isEqualTo(1);
+        assertThat(readerThreads).allMatch(name -> name.startsWith("image-preprocess-"));
+    }
+
+    // Holds the pool thread inside the decode until the test releases it
+    private MultipartFile blockingUpload(String name) {
+        return new MockMultipartFile("image", name, "image/png", new byte[]{1, 2, 3, 4}) {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                readerThreads.add(Thread.currentThread().getName());
+                maxReading.accumulateAndGet(reading.incrementAndGet(), Math::max);
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    reading.decrementAndGet();
+                }
+                return super.getInputStream();
+            }
+        };
+    }
+
+    private void awaitReading(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (reading.get() < count) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.momon.backend.service;
+
+import com.momon.backend.dto.MonsterCursor;
+import com.momon.backend.dto.MonsterPageResponse;
+import com.momon.backend.dto.MonsterResponse;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Keyset pagination must return every monster exactly once, newest first,
+ * and every page must be one bounded query that seeks to its cursor instead of skipping rows.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:gallerytest;DB_CLOSE_DELAY=-1",
+    "spring.jpa.show-sql=false"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MonsterGalleryPaginationTest {
+
+    private static final String SMALL_DEVICE = "gallery-small";
+    private static final String LARGE_DEVICE = "gallery-large";
+    private static final int SMALL_COUNT = 100;
+    private static final int LARGE_COUNT = 20_000;
+    // H2 renders a row limit as FETCH FIRST; other dialects use LIMIT
+    private static final String ROW_LIMIT = "(?i)\\bfetch (first|next)\\b|\\blimit\\b";
+
+    @Autowired
+    private MonsterService monsterService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SqlCapture sqlCapture;
+
+    @BeforeAll
+    void seed() {
+        LocalDateTime now = LocalDateTime.now();
+        seedDevice(SMALL_DEVICE, SMALL_COUNT, now, 3);
+        seedDevice(LARGE_DEVICE, LARGE_COUNT, now, 1);
+    }
+
+    @Test
+    void compositeIndexIsCreated() {
+        List<String> indexes = jdbcTemplate.queryForList(
+            "SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_NAME = 'MONSTERS'", String.class);
+        assertThat(indexes).anyMatch(name -> name.equalsIgnoreCase("idx_monsters_device_created"));
+    }
+
+    @Test
+    void pagesVisitEveryMonsterOnceNewestFirst() {
+        List<MonsterResponse> visited = new ArrayList<>();
+        String cursor = null;
+        do {
+            MonsterPageResponse page = monsterService.getMonsterPage(SMALL_DEVICE, cursor, 30);
+            visited.addAll(page.monsters());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(visited).hasSize(SMALL_COUNT);
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < visited.size(); i++) {
+            assertThat(ids.add(visited.get(i).id())).isTrue();
+            if (i > 0) {
+                MonsterResponse previous = visited.get(i - 1);
+                MonsterResponse current = visited.get(i);
+                assertThat(previous.createdAt().isAfter(current.createdAt())
+                    || (previous.createdAt().isEqual(current.createdAt()) && previous.id() > current.id()))
+                    .isTrue();
+            }
+        }
+    }
+
+    @Test
+    void firstPageReadsOnlyThePageSize() {
+        List<String> statements = sqlCapture.record(() ->
+            assertThat(monsterService.getMonsterPage(LARGE_DEVICE, null, 20).monsters()).hasSize(20));
+
+        assertThat(statements).singleElement().satisfies(sql -> assertThat(sql).containsPattern(ROW_LIMIT));
+    }
+
+    @Test
+    void deepPageSeeksToTheCursorInsteadOfSkippingRows() {
+        // 30 monsters before the end of a 20,000-monster gallery
+        String deepCursor = cursorAt(LARGE_DEVICE, LARGE_COUNT - 30);
+
+        List<String> statements = sqlCapture.record(() ->
+            assertThat(monsterService.getMonsterPage(LARGE_DEVICE, deepCursor, 20).monsters()).hasSize(20));
+
+        // Spring Data may still bind a zero OFFSET; skipping rows would need the seek predicate gone
+        assertThat(statements).singleElement().satisfies(sql -> {
+            assertThat(sql).containsPattern(ROW_LIMIT);
+            assertThat(sql).containsPattern("created_at\\s*<\\s*\\?");
+            assertThat(sql).containsPattern("\\bid\\s*<\\s*\\?");
+        });
+    }
+
+    private String cursorAt(String deviceId, int offset) {
+        return jdbcTemplate.queryForObject("""
+                SELECT created_at, id FROM monsters WHERE device_id = ?
+                ORDER BY created_at DESC, id DESC OFFSET ? ROWS FETCH FIRST 1 ROWS ONLY
+                """,
+            (rs, row) -> new MonsterCursor(rs.getTimestamp("created_at").toLocalDateTime(), rs.getLong("id")),
+            deviceId, offset).encode();
+    }
+
+    private void seedDevice(String deviceId, int count, LocalDateTime now, int sameTimestampRun) {
+        jdbcTemplate.update("INSERT INTO users (device_id, first_seen_at, last_seen_at) VALUES (?, ?, ?)",
+            deviceId, Timestamp.valueOf(now), Timestamp.valueOf(now));
+
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // Runs of equal timestamps exercise the id tie-breaker
+            LocalDateTime createdAt = now.minusSeconds(i / sameTimestampRun);
+            rows.add(new Object[]{deviceId, "몬스터 " + i, "설명 " + i,
+                "https://placehold.co/1024x1024?n=" + i, "감정 " + i, Timestamp.valueOf(createdAt)});
+        }
+        jdbcTemplate.batchUpdate("""
+            INSERT INTO monsters (device_id, name, description, image_url, prompt, created_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """, rows);
+    }
+
+    @TestConfiguration
+    static class SqlCaptureConfig {
+
+        @Bean
+        SqlCapture sqlCapture() {
+            return new SqlCapture();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer sqlCaptureInspector(SqlCapture sqlCapture) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlCapture);
+        }
+    }
+
+    // Keeps the SQL run by one thread, so scheduled jobs querying in the background don't show up
+    static class SqlCapture implements StatementInspector {
+
+        private final List<String> statements = new CopyOnWriteArrayList<>();
+        private volatile Thread recording;
+
+        List<String> record(Runnable work) {
+            statements.clear();
+            recording = Thread.currentThread();
+            try {
+                work.run();
+            } finally {
+                recording = null;
+            }
+            return List.copyOf(statements);
+        }
+
+        @Override
+        public String inspect(String sql) {
+            if (Thread.currentThread() == recording) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+}
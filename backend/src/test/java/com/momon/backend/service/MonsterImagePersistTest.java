@@ -0,0 +1,139 @@
+package com.momon.backend.service;
+
+import com.momon.backend.dto.MonsterCharacteristics;
+import com.momon.backend.dto.MonsterResponse;
+import com.momon.backend.dto.StoredImage;
+import com.momon.backend.entity.Monster;
+import com.momon.backend.repository.MonsterRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * With {@code monster.image.persist-async} the monster comes back with the provider URL,
+ * and the background copy swaps in the S3 URL, retrying after a failed upload.
+ * A copy that keeps failing is given up, flagged and counted once the provider URL expires.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:imagepersisttest;DB_CLOSE_DELAY=-1",
+    "spring.jpa.show-sql=false",
+    "ai.cache.enabled=false",
+    "monster.image.persist-async=true",
+    "monster.image.max-attempts=2",
+    "monster.image.retry-delay=100ms",
+    "monster.image.slow-retry-delay=300ms",
+    "monster.image.provider-url-ttl=2s",
+    "monster.image.sweep-interval-ms=100"
+})
+class MonsterImagePersistTest {
+
+    private static final String S3_URL = "https://momon-images.s3.ap-northeast-2.amazonaws.com/monsters/copied.png";
+    private static final String THUMBNAIL_URL = "https://momon-images.s3.ap-northeast-2.amazonaws.com/monsters/copied_thumb.jpg";
+    private static final String EXPIRING_URL = "https://provider.example/expiring.png";
+
+    @Autowired
+    private MonsterService monsterService;
+
+    @Autowired
+    private MonsterRepository monsterRepository;
+
+    @Autowired
+    private FlakyS3Service s3Service;
+
+    @Autowired
+    private MonsterWriter monsterWriter;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void respondsWithProviderUrlAndSwapsToS3AfterRetry() throws Exception {
+        MockMultipartFile photo = new MockMultipartFile("image", "photo.png", "image/png", new byte[]{1, 2, 3});
+
+        MonsterResponse created = monsterService.createMonster("persist-device", photo, "설렘");
+
+        assertThat(created.imagePending()).isTrue();
+        assertThat(created.imageUrl()).isNotEqualTo(S3_URL);
+
+        MonsterResponse stored = awaitPersisted(created.id());
+        assertThat(stored.imageUrl()).isEqualTo(S3_URL);
+        assertThat(stored.thumbnailUrl()).isEqualTo(THUMBNAIL_URL);
+        // Missing variants fall back to the original
+        assertThat(stored.mediumUrl()).isEqualTo(S3_URL);
+        assertThat(s3Service.calls.get()).isEqualTo(2);
+        // The detail cache must not keep serving the temporary URL
+        assertThat(monsterService.getMonsterById(created.id()).imageUrl()).isEqualTo(S3_URL);
+    }
+
+    @Test
+    void copyThatKeepsFailingIsFlaggedOnceTheProviderUrlExpires() throws Exception {
+        userService.touch("expiring-device");
+        MonsterResponse created = monsterWriter.saveMonsterWithPendingImage("expiring-device",
+            new MonsterCharacteristics("사라질 몬스터", "A monster whose picture fades", "A fading monster"),
+            EXPIRING_URL, "불안", null);
+
+        MonsterResponse given = awaitPersisted(created.id());
+
+        assertThat(given.imageUrl()).isEqualTo(EXPIRING_URL);
+        Monster monster = monsterRepository.findById(created.id()).orElseThrow();
+        assertThat(monster.isImageFailed()).isTrue();
+        // Past max-attempts it kept retrying slowly until the URL expired
+        assertThat(monster.getImageCopyAttempts()).isGreaterThan(2);
+        assertThat(meterRegistry.get("monster.image.copy.failed").counter().count()).isEqualTo(1);
+    }
+
+    private MonsterResponse awaitPersisted(Long id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            MonsterResponse monster = monsterRepository.findResponseById(id).orElseThrow();
+            if (!monster.imagePending()) {
+                return monster;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Image of monster " + id + " was not persisted in time");
+    }
+
+    @TestConfiguration
+    static class FlakyS3Config {
+
+        @Bean
+        @Primary
+        FlakyS3Service flakyS3Service() {
+            return new FlakyS3Service();
+        }
+    }
+
+    // Fails the first upload, then succeeds; EXPIRING_URL never succeeds
+    static class FlakyS3Service extends S3Service {
+
+        final AtomicInteger calls = new AtomicInteger();
+
+        FlakyS3Service() {
+            super(null, null, null, null, null);
+        }
+
+        @Override
+        public StoredImage uploadMonsterImage(String imageUrl) {
+            if (imageUrl.equals(EXPIRING_URL)) {
+                throw new RuntimeException("S3 unavailable");
+            }
+            if (calls.incrementAndGet() == 1) {
+                throw new RuntimeException("S3 unavailable");
+            }
+            return new StoredImage(S3_URL, THUMBNAIL_URL, null);
+        }
+    }
+}
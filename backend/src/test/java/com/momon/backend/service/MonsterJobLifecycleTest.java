@@ -0,0 +1,216 @@
+package com.momon.backend.service;
+
+import com.momon.backend.dto.MonsterJobResponse;
+import com.momon.backend.dto.StoredImage;
+import com.momon.backend.entity.MonsterJob;
+import com.momon.backend.entity.MonsterJobStatus;
+import com.momon.backend.repository.MonsterJobRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Durable jobs run every stage to DONE, resume after an expired lease from the last finished stage,
+ * and fail for good after {@code max-attempts}; local bulkhead rejections do not use up attempts.
+ * A worker whose lease was taken over cannot complete the job a second time.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:joblifecycletest;DB_CLOSE_DELAY=-1",
+    "spring.jpa.show-sql=false",
+    "ai.cache.enabled=false",
+    "monster.jobs.max-attempts=2",
+    "monster.jobs.retry-delay=100ms",
+    "monster.jobs.sweep-interval-ms=100"
+})
+class MonsterJobLifecycleTest {
+
+    private static final String S3_URL = "https://momon-images.s3.ap-northeast-2.amazonaws.com/monsters/job.png";
+    private static final String BROKEN_URL = "https://provider.example/broken.png";
+    private static final String BUSY_URL = "https://provider.example/busy.png";
+    private static final String SLOW_URL = "https://provider.example/slow.png";
+
+    @Autowired
+    private MonsterJobService monsterJobService;
+
+    @Autowired
+    private MonsterJobRepository monsterJobRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ScriptedS3Service s3Service;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void submittedJobRunsEveryStageAndFinishes() throws Exception {
+        MockMultipartFile photo = new MockMultipartFile("image", "photo.png", "image/png", new byte[]{1, 2, 3});
+
+        MonsterJobResponse submitted = monsterJobService.submit("job-device", photo, "설렘");
+        assertThat(submitted.status()).isEqualTo(MonsterJobStatus.PENDING);
+
+        MonsterJob done = awaitStatus(submitted.jobId(), MonsterJobStatus.DONE);
+        assertThat(done.getMonsterId()).isNotNull();
+        assertThat(done.getAttempts()).isZero();
+        assertThat(done.getImageData()).isNull();
+        assertThat(done.getStoredImageUrl()).isEqualTo(S3_URL);
+        assertThat(done.getLeaseExpiresAt()).isNull();
+    }
+
+    @Test
+    void jobWithExpiredLeaseResumesAfterItsLastFinishedStage() throws Exception {
+        String aiImageUrl = "https://provider.example/" + UUID.randomUUID() + ".png";
+        // A worker died during the upload: analysis and generation are already on the row
+        MonsterJob orphaned = monsterJobRepository.save(uploadingJob("resume-device", aiImageUrl));
+
+        MonsterJob done = awaitStatus(orphaned.getId(), MonsterJobStatus.DONE);
+        assertThat(done.getMonsterName()).isEqualTo("남겨진 몬스터");
+        assertThat(done.getAttempts()).isZero();
+        assertThat(s3Service.uploads).containsOnlyOnce(aiImageUrl);
+    }
+
+    @Test
+    void jobFailsPermanentlyAfterMaxAttempts() throws Exception {
+        MonsterJob job = monsterJobRepository.save(uploadingJob("failing-device", BROKEN_URL));
+
+        MonsterJob failed = awaitStatus(job.getId(), MonsterJobStatus.FAILED);
+        assertThat(failed.getAttempts()).isEqualTo(2);
+        assertThat(failed.getErrorMessage()).isEqualTo("S3 unavailable");
+        assertThat(failed.getLeaseExpiresAt()).isNull();
+    }
+
+    @Test
+    void localBulkheadRejectionsDoNotUseUpAttempts() throws Exception {
+        MonsterJob job = monsterJobRepository.save(uploadingJob("busy-device", BUSY_URL));
+
+        MonsterJob done = awaitStatus(job.getId(), MonsterJobStatus.DONE);
+        // Rejected more often than max-attempts allows, yet never counted
+        assertThat(s3Service.busyRejections.get()).isGreaterThan(2);
+        assertThat(done.getAttempts()).isZero();
+    }
+
+    @Test
+    void workerWhoseLeaseWasTakenOverCannotCompleteTheJobAgain() throws Exception {
+        MonsterJob job = monsterJobRepository.save(uploadingJob("race-device", SLOW_URL));
+        assertThat(s3Service.slowUploadStarted.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // The first worker's lease runs out during its upload, and another instance claims the job
+        jdbcTemplate.update("update monster_jobs set lease_expires_at = ? where id = ?",
+            LocalDateTime.now().minusSeconds(1), job.getId());
+        LocalDateTime now = LocalDateTime.now();
+        assertThat(monsterJobRepository.claim(job.getId(), List.of(MonsterJobStatus.UPLOADING), now,
+            now.plusMinutes(5))).isEqualTo(1);
+        MonsterJob takenOver = monsterJobRepository.findById(job.getId()).orElseThrow();
+        takenOver.setStoredImageUrl(S3_URL);
+        MonsterJob done = monsterJobService.complete(takenOver);
+
+        // The first worker finishes its upload late; its completion must roll back
+        s3Service.slowUploadReleased.countDown();
+        Thread.sleep(500);
+        assertThat(monstersOf("race-device")).isEqualTo(1);
+        MonsterJob stored = monsterJobRepository.findById(job.getId()).orElseThrow();
+        assertThat(stored.getStatus()).isEqualTo(MonsterJobStatus.DONE);
+        assertThat(stored.getMonsterId()).isEqualTo(done.getMonsterId());
+        assertThat(stored.getAttempts()).isZero();
+
+        // A stale copy is refused outright
+        job.setStoredImageUrl(S3_URL);
+        assertThatThrownBy(() -> monsterJobService.complete(job))
+            .isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(monstersOf("race-device")).isEqualTo(1);
+    }
+
+    private int monstersOf(String deviceId) {
+        return jdbcTemplate.queryForObject("select count(*) from monsters where device_id = ?", Integer.class, deviceId);
+    }
+
+    private MonsterJob uploadingJob(String deviceId, String aiImageUrl) {
+        userService.touch(deviceId);
+        return MonsterJob.builder()
+            .id(UUID.randomUUID().toString())
+            .deviceId(deviceId)
+            .status(MonsterJobStatus.UPLOADING)
+            .emotionText("평온")
+            .monsterName("남겨진 몬스터")
+            .monsterDescription("A monster left behind by a crashed worker")
+            .imagePrompt("A lonely monster")
+            .aiImageUrl(aiImageUrl)
+            .leaseExpiresAt(LocalDateTime.now().minusMinutes(1))
+            .build();
+    }
+
+    private MonsterJob awaitStatus(String jobId, MonsterJobStatus status) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            MonsterJob job = monsterJobRepository.findById(jobId).orElseThrow();
+            if (job.getStatus() == status) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Job " + jobId + " did not reach " + status + " in time");
+    }
+
+    @TestConfiguration
+    static class ScriptedS3Config {
+
+        @Bean
+        @Primary
+        ScriptedS3Service scriptedS3Service() {
+            return new ScriptedS3Service();
+        }
+    }
+
+    // BROKEN_URL always fails, BUSY_URL is rejected by a saturated bulkhead three times,
+    // SLOW_URL waits until released, anything else succeeds
+    static class ScriptedS3Service extends S3Service {
+
+        final List<String> uploads = new CopyOnWriteArrayList<>();
+        final AtomicInteger busyRejections = new AtomicInteger();
+        final CountDownLatch slowUploadStarted = new CountDownLatch(1);
+        final CountDownLatch slowUploadReleased = new CountDownLatch(1);
+
+        ScriptedS3Service() {
+            super(null, null, null, null, null);
+        }
+
+        @Override
+        public StoredImage uploadMonsterImage(String imageUrl) {
+            uploads.add(imageUrl);
+            if (imageUrl.equals(BROKEN_URL)) {
+                throw new RuntimeException("S3 unavailable");
+            }
+            if (imageUrl.equals(BUSY_URL) && busyRejections.incrementAndGet() <= 3) {
+                throw new BulkheadFullException("s3 queue is full");
+            }
+            if (imageUrl.equals(SLOW_URL)) {
+                slowUploadStarted.countDown();
+                try {
+                    slowUploadReleased.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return StoredImage.of(S3_URL);
+        }
+    }
+}
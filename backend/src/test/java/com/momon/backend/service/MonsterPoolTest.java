@@ -0,0 +1,235 @@
+package com.momon.backend.service;
+
+import com.momon.backend.config.MonsterPoolProperties;
+import com.momon.backend.dto.MonsterCharacteristics;
+import com.momon.backend.dto.MonsterResponse;
+import com.momon.backend.dto.StoredImage;
+import com.momon.backend.repository.MonsterPoolRepository;
+import com.momon.backend.repository.MonsterRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * With the AI circuit open, creation answers from the pre-generated pool, matched by mood.
+ * Only provider trouble opens the circuit or falls back to the pool, and a pooled monster is only gone
+ * once its insert commits.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:monsterpooltest;DB_CLOSE_DELAY=-1",
+    "spring.jpa.show-sql=false",
+    "ai.cache.enabled=false",
+    "monster.pool.breaker.open-duration=1h"
+})
+class MonsterPoolTest {
+
+    @Autowired
+    private MonsterService monsterService;
+
+    @Autowired
+    private MonsterPool monsterPool;
+
+    @Autowired
+    private MonsterPoolRepository poolRepository;
+
+    @Autowired
+    private GuardedAIService aiService;
+
+    @Autowired
+    private MonsterWriter monsterWriter;
+
+    @Autowired
+    private DownstreamBulkheads bulkheads;
+
+    @Autowired
+    private AiBatchQueue batchQueue;
+
+    @Autowired
+    private AiLaneMetrics laneMetrics;
+
+    @Autowired
+    private MonsterPoolProperties poolProperties;
+
+    @Autowired
+    private S3Service s3Service;
+
+    @Autowired
+    private MonsterRepository monsterRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private GenerationResultCache generationResultCache;
+
+    @Autowired
+    private ImagePreprocessor imagePreprocessor;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
+    @BeforeEach
+    void openCircuit() {
+        poolRepository.deleteAll();
+        for (int i = 0; i < 20; i++) {
+            aiService.circuitBreaker().onFailure(new IllegalStateException("provider down"));
+        }
+        assertThat(aiService.circuitBreaker().state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void servesPooledMonsterOfMatchingMoodOnce() {
+        monsterPool.add("happy", new MonsterCharacteristics("행복 슬라임", "웃는 슬라임", "happy slime"),
+            StoredImage.of("https://images.example/happy.png"));
+        monsterPool.add("sad", new MonsterCharacteristics("눈물 방울", "우는 방울", "sad drop"),
+            StoredImage.of("https://images.example/sad.png"));
+
+        MonsterResponse monster = monsterService.createMonster("pool-device", photo(), "오늘은 너무 우울해");
+
+        assertThat(monster.name()).isEqualTo("눈물 방울");
+        assertThat(monster.imageUrl()).isEqualTo("https://images.example/sad.png");
+        assertThat(monsterPool.size("sad")).isZero();
+
+        // No sad monster left: any other mood beats an error
+        MonsterResponse fallback = monsterService.createMonster("pool-device", photo(), "또 우울해");
+        assertThat(fallback.name()).isEqualTo("행복 슬라임");
+    }
+
+    @Test
+    void failsFastWhenPoolIsEmpty() {
+        assertThatThrownBy(() -> monsterService.createMonster("pool-device", photo(), "설렘"))
+            .isInstanceOf(CircuitOpenException.class);
+    }
+
+    @Test
+    void failedInsertLeavesThePooledMonsterInThePool() {
+        monsterPool.add("sad", new MonsterCharacteristics("눈물 방울", "우는 방울", "sad drop"),
+            StoredImage.of("https://images.example/sad.png"));
+
+        // No users row for this device, so the insert violates the foreign key
+        assertThatThrownBy(() -> monsterWriter.saveFromPool("unknown-device", "우울해"))
+            .isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(monsterPool.size("sad")).isEqualTo(1);
+    }
+
+    @Test
+    void onlyProviderTroubleCountsAgainstTheBreaker() {
+        assertThat(GuardedAIService.isProviderFailure(new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS))).isTrue();
+        assertThat(GuardedAIService.isProviderFailure(new HttpServerErrorException(HttpStatus.BAD_GATEWAY))).isTrue();
+        assertThat(GuardedAIService.isProviderFailure(
+            new RuntimeException("OpenAI request failed", new HttpTimeoutException("request timed out")))).isTrue();
+
+        assertThat(GuardedAIService.isProviderFailure(new HttpClientErrorException(HttpStatus.BAD_REQUEST))).isFalse();
+        assertThat(GuardedAIService.isProviderFailure(
+            new ClientGoneException(new IOException("Broken pipe")))).isFalse();
+        assertThat(GuardedAIService.isProviderFailure(
+            new RuntimeException("Interrupted while calling OpenAI", new InterruptedException()))).isFalse();
+        assertThat(GuardedAIService.isProviderFailure(new BulkheadFullException("image queue is full"))).isFalse();
+    }
+
+    @Test
+    void liveFailureFallsBackToThePoolOnlyForProviderTrouble() {
+        monsterPool.add("sad", new MonsterCharacteristics("눈물 방울", "우는 방울", "sad drop"),
+            StoredImage.of("https://images.example/sad.png"));
+
+        MonsterService rejected = serviceWithClosedCircuit(new HttpClientErrorException(HttpStatus.BAD_REQUEST));
+        assertThatThrownBy(() -> rejected.createMonster("pool-device", photo(), "우울해"))
+            .isInstanceOf(HttpClientErrorException.class);
+        assertThat(monsterPool.size("sad")).isEqualTo(1);
+
+        MonsterService unavailable = serviceWithClosedCircuit(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+        assertThat(unavailable.createMonster("pool-device", photo(), "우울해").name()).isEqualTo("눈물 방울");
+        assertThat(monsterPool.size("sad")).isZero();
+    }
+
+    @Test
+    void clientThatLeftGetsNoPooledMonster() {
+        monsterPool.add("sad", new MonsterCharacteristics("눈물 방울", "우는 방울", "sad drop"),
+            StoredImage.of("https://images.example/sad.png"));
+        long monstersBefore = monsterRepository.count();
+
+        MonsterProgressListener gone = new MonsterProgressListener() {
+            @Override
+            public void onCharacteristics(MonsterCharacteristics characteristics) {
+                throw new ClientGoneException(new IOException("Broken pipe"));
+            }
+        };
+        assertThatThrownBy(() -> serviceWithClosedCircuit(null).createMonster("pool-device", photo(), "우울해", gone))
+            .isInstanceOf(ClientGoneException.class);
+
+        assertThat(monsterPool.size("sad")).isEqualTo(1);
+        assertThat(monsterRepository.count()).isEqualTo(monstersBefore);
+    }
+
+    @Test
+    void closesAfterTrialRequestsSucceed() {
+        MonsterPoolProperties.Breaker settings = new MonsterPoolProperties.Breaker();
+        settings.setOpenDuration(Duration.ZERO);
+        CircuitBreaker breaker = new CircuitBreaker("test", settings, new SimpleMeterRegistry());
+        Duration slo = Duration.ofSeconds(1);
+
+        // Slow calls open it just like failures
+        for (int i = 0; i < settings.getMinimumCalls(); i++) {
+            breaker.onSuccess(Duration.ofSeconds(2), slo);
+        }
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+
+        for (int i = 0; i < settings.getTrialRequests(); i++) {
+            assertThat(breaker.allowRequest()).isTrue();
+        }
+        breaker.onFailure(new IllegalStateException("still down"));
+        assertThat(breaker.state()).isNotEqualTo(CircuitBreaker.State.CLOSED);
+
+        for (int i = 0; i < settings.getTrialRequests(); i++) {
+            assertThat(breaker.allowRequest()).isTrue();
+            breaker.onSuccess(Duration.ofMillis(100), slo);
+        }
+        assertThat(breaker.isClosed()).isTrue();
+    }
+
+    // The shared breaker is held open for every test, so these get a fresh, closed one
+    private MonsterService serviceWithClosedCircuit(RuntimeException analyzeFailure) {
+        AIService provider = new AIService() {
+            @Override
+            public MonsterCharacteristics analyzeImage(MultipartFile image, String emotionText) {
+                if (analyzeFailure != null) {
+                    throw analyzeFailure;
+                }
+                return new MonsterCharacteristics("실시간 슬라임", "방금 만든 슬라임", "live slime");
+            }
+
+            @Override
+            public String generateMonsterImage(String prompt) {
+                return "https://provider.example/live.png";
+            }
+
+            @Override
+            public MonsterCharacteristics imagineMonster(String mood) {
+                throw new UnsupportedOperationException();
+            }
+        };
+        GuardedAIService guarded = new GuardedAIService(provider, bulkheads, batchQueue, laneMetrics, poolProperties,
+            new SimpleMeterRegistry());
+        return new MonsterService(guarded, s3Service, monsterRepository, monsterWriter, userService,
+            generationResultCache, imagePreprocessor, pipelineMetrics);
+    }
+
+    private static MockMultipartFile photo() {
+        return new MockMultipartFile("image", "photo.png", "image/png", new byte[]{(byte) 0x89, 'P', 'N', 'G'});
+    }
+}
@@ -0,0 +1,118 @@
+package com.momon.backend.service;
+
+import com.momon.backend.dto.MonsterResponse;
+import com.momon.backend.entity.Monster;
+import com.momon.backend.repository.MonsterRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the gallery read for a device with 1,000 monsters through the old entity path
+ * (load {@link Monster}, map with {@link MonsterResponse#from}) and the DTO projection, asserting that
+ * the projection allocates less per read.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:projectiontest;DB_CLOSE_DELAY=-1",
+    "spring.jpa.show-sql=false"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MonsterProjectionBenchmarkTest {
+
+    private static final String DEVICE_ID = "projection-bench";
+    private static final int MONSTER_COUNT = 1_000;
+    private static final int ITERATIONS = 200;
+
+    @Autowired
+    private MonsterRepository monsterRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnly;
+
+    @BeforeAll
+    void seed() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("INSERT INTO users (device_id, first_seen_at, last_seen_at) VALUES (?, ?, ?)",
+            DEVICE_ID, Timestamp.valueOf(now), Timestamp.valueOf(now));
+
+        String prompt = "월요일 아침 출근길 지하철에서 느낀 피곤함과 설렘이 섞인 묘한 감정".repeat(3);
+        List<Object[]> rows = new ArrayList<>(MONSTER_COUNT);
+        for (int i = 0; i < MONSTER_COUNT; i++) {
+            rows.add(new Object[]{DEVICE_ID, "몬스터 " + i, "반짝이는 젤리 같은 몸을 가진 귀여운 몬스터입니다. " + i,
+                "https://momon-images.s3.ap-northeast-2.amazonaws.com/monsters/" + i + ".png",
+                prompt, Timestamp.valueOf(now.minusSeconds(i))});
+        }
+        jdbcTemplate.batchUpdate("""
+            INSERT INTO monsters (device_id, name, description, image_url, prompt, created_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """, rows);
+    }
+
+    @Test
+    void projectionAllocatesLessThanEntityPath() {
+        Supplier<List<MonsterResponse>> entityPath = () -> readOnly.execute(status ->
+            entityManager.createQuery("""
+                    select m from Monster m
+                    where m.user.deviceId = :deviceId
+                    order by m.createdAt desc, m.id desc
+                    """, Monster.class)
+                .setParameter("deviceId", DEVICE_ID)
+                .getResultList()
+                .stream()
+                .map(MonsterResponse::from)
+                .toList());
+        Supplier<List<MonsterResponse>> projectionPath = () -> readOnly.execute(status ->
+            monsterRepository.findGalleryFirstPage(DEVICE_ID, PageRequest.of(0, MONSTER_COUNT)));
+
+        assertThat(projectionPath.get()).isEqualTo(entityPath.get());
+
+        // Warm up both paths before measuring
+        bytesPerOp(entityPath, ITERATIONS);
+        bytesPerOp(projectionPath, ITERATIONS);
+
+        long entityBytesPerOp = bytesPerOp(entityPath, ITERATIONS);
+        long projectionBytesPerOp = bytesPerOp(projectionPath, ITERATIONS);
+
+        // No managed entities, no dirty-checking snapshots, no lazy User proxies
+        assertThat(projectionBytesPerOp)
+            .as("projection bytes/op (entity path: %,d bytes/op)", entityBytesPerOp)
+            .isLessThan(entityBytesPerOp);
+    }
+
+    // Allocation is counted per thread, so background work elsewhere in the context doesn't skew it
+    private static long bytesPerOp(Supplier<List<MonsterResponse>> path, int iterations) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < iterations; i++) {
+            assertThat(path.get()).hasSize(MONSTER_COUNT);
+        }
+        return (threads.getCurrentThreadAllocatedBytes() - allocatedBefore) / iterations;
+    }
+}
@@ -0,0 +1,138 @@
+package com.momon.backend.service;
+
+import com.momon.backend.dto.MonsterCharacteristics;
+import com.momon.backend.dto.MonsterResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Gallery reads must not queue behind creates that are waiting on the AI provider.
+ * The connection pool is far smaller than the number of concurrent creates, so this
+ * only passes when no create holds a connection across the AI and S3 calls.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+    "spring.datasource.hikari.maximum-pool-size=4",
+    "spring.jpa.show-sql=false",
+    "downstream.chat.initial-limit=200",
+    "downstream.chat.max-limit=200"
+})
+class MonsterServiceLoadTest {
+
+    private static final int CONCURRENT_CREATES = 200;
+    private static final long AI_LATENCY_MS = 3000;
+
+    @Autowired
+    private MonsterService monsterService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private SlowAIService slowAIService;
+
+    @Test
+    void galleryReadsKeepLatencyWhileCreatesWaitOnAI() throws Exception {
+        String readerDeviceId = "gallery-reader";
+        userService.touch(readerDeviceId);
+        long baselineP99 = p99(measureReads(readerDeviceId, 50));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<MonsterResponse>> creates = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_CREATES; i++) {
+                String deviceId = "load-device-" + i;
+                creates.add(executor.submit(() -> monsterService.createMonster(deviceId, photo(), "월요병")));
+            }
+
+            // Wait until every create is parked inside the AI call
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (slowAIService.entered.get() < CONCURRENT_CREATES && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(slowAIService.entered.get()).isEqualTo(CONCURRENT_CREATES);
+
+            long underLoadP99 = p99(measureReads(readerDeviceId, 50));
+
+            // Holding a connection per create would push every read past the AI latency
+            assertThat(TimeUnit.NANOSECONDS.toMillis(underLoadP99))
+                .as("gallery read p99 with %d creates in flight (baseline %d ms)",
+                    CONCURRENT_CREATES, TimeUnit.NANOSECONDS.toMillis(baselineP99))
+                .isLessThan(AI_LATENCY_MS / 6);
+
+            for (Future<MonsterResponse> create : creates) {
+                assertThat(create.get(60, TimeUnit.SECONDS).id()).isNotNull();
+            }
+        }
+    }
+
+    private List<Long> measureReads(String deviceId, int count) {
+        List<Long> latencies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long start = System.nanoTime();
+            monsterService.getMonsterPage(deviceId, null, 20);
+            latencies.add(System.nanoTime() - start);
+        }
+        return latencies;
+    }
+
+    private static long p99(List<Long> latencies) {
+        List<Long> sorted = latencies.stream().sorted().toList();
+        return sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+    }
+
+    private static MultipartFile photo() {
+        return new MockMultipartFile("image", "photo.jpg", "image/jpeg", new byte[1024]);
+    }
+
+    @TestConfiguration
+    static class SlowAIConfig {
+
+        @Bean
+        @Primary
+        SlowAIService slowAIService() {
+            return new SlowAIService();
+        }
+    }
+
+    static class SlowAIService implements AIService {
+
+        final AtomicInteger entered = new AtomicInteger();
+
+        @Override
+        public MonsterCharacteristics analyzeImage(MultipartFile image, String emotionText) {
+            entered.incrementAndGet();
+            try {
+                Thread.sleep(AI_LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new MonsterCharacteristics("로드 슬라임", "부하 테스트용 몬스터", "load test monster");
+        }
+
+        @Override
+        public String generateMonsterImage(String prompt) {
+            return "https://placehold.co/1024x1024";
+        }
+
+        @Override
+        public MonsterCharacteristics imagineMonster(String mood) {
+            return new MonsterCharacteristics("풀 슬라임", "미리 만들어 둔 몬스터", "pooled monster");
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.momon.backend.service;
+
+import com.momon.backend.config.CacheConfig;
+import com.momon.backend.dto.MonsterCharacteristics;
+import com.momon.backend.dto.MonsterResponse;
+import com.momon.backend.dto.StoredImage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The detail cache only sees monsters whose insert committed.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:monsterwritertest;DB_CLOSE_DELAY=-1",
+    "spring.jpa.show-sql=false"
+})
+class MonsterWriterTest {
+
+    private static final StoredImage IMAGE =
+        StoredImage.of("https://momon-images.s3.ap-northeast-2.amazonaws.com/monsters/writer.png");
+
+    @Autowired
+    private MonsterWriter monsterWriter;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void committedMonsterIsCached() {
+        userService.touch("writer-device");
+
+        MonsterResponse saved = monsterWriter.saveMonster("writer-device", characteristics(), IMAGE, "설렘");
+
+        assertThat(monsterCache().get(saved.id(), MonsterResponse.class)).isEqualTo(saved);
+    }
+
+    @Test
+    void rolledBackMonsterIsNotCached() {
+        userService.touch("rollback-device");
+
+        MonsterResponse saved = transactionTemplate.execute(status -> {
+            MonsterResponse response = monsterWriter.saveMonster("rollback-device", characteristics(), IMAGE, "불안");
+            status.setRollbackOnly();
+            return response;
+        });
+
+        assertThat(monsterCache().get(saved.id())).isNull();
+    }
+
+    private MonsterCharacteristics characteristics() {
+        return new MonsterCharacteristics("기록 몬스터", "A monster that writes things down", "A monster with a pen");
+    }
+
+    private Cache monsterCache() {
+        return Objects.requireNonNull(cacheManager.getCache(CacheConfig.MONSTERS));
+    }
+}
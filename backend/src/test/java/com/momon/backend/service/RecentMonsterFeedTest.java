@@ -0,0 +1,160 @@
+package com.momon.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.momon.backend.dto.MonsterResponse;
+import com.momon.backend.dto.RecentMonstersResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The public feed lists new monsters newest first and is served from a snapshot
+ * that is only rebuilt when the feed changes.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:recentfeedtest;DB_CLOSE_DELAY=-1",
+    "spring.jpa.show-sql=false",
+    "ai.cache.enabled=false",
+    "monster.rate-limit.enabled=false",
+    "monster.feed.size=5",
+    "monster.feed.refresh-page-size=4"
+})
+@AutoConfigureMockMvc
+class RecentMonsterFeedTest {
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A};
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RecentMonsterFeed feed;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void listsNewMonstersAndRebuildsOnlyOnChange() throws Exception {
+        long totalBefore = recent().totalMonsters();
+        for (int i = 0; i < 7; i++) {
+            mockMvc.perform(multipart("/api/v1/monsters")
+                    .file(new MockMultipartFile("image", "photo.png", "image/png", PNG_SIGNATURE))
+                    .file(new MockMultipartFile("text", "", "text/plain", ("설렘 " + i).getBytes(StandardCharsets.UTF_8)))
+                    .header("X-Device-ID", "feed-device-" + i))
+                .andExpect(status().isOk());
+        }
+
+        RecentMonstersResponse recent = recent();
+        assertThat(recent.totalMonsters()).isEqualTo(totalBefore + 7);
+        assertThat(recent.monsters()).hasSize(5);
+        assertThat(recent.monsters()).extracting(MonsterResponse::id).isSortedAccordingTo((a, b) -> Long.compare(b, a));
+
+        double rebuilds = meterRegistry.counter("monster.feed.rebuilds").count();
+        MvcResult first = mockMvc.perform(get("/api/v1/monsters/recent")).andExpect(status().isOk()).andReturn();
+        for (int i = 0; i < 100; i++) {
+            mockMvc.perform(get("/api/v1/monsters/recent")).andExpect(status().isOk());
+        }
+        assertThat(meterRegistry.counter("monster.feed.rebuilds").count()).isEqualTo(rebuilds);
+
+        mockMvc.perform(get("/api/v1/monsters/recent")
+                .header(HttpHeaders.IF_NONE_MATCH, first.getResponse().getHeader(HttpHeaders.ETAG)))
+            .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void keepsNewestMonstersUnderConcurrentAppends() throws Exception {
+        long totalBefore = recent().totalMonsters();
+        try (ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int t = 0; t < 16; t++) {
+                int thread = t;
+                writers.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        feed.onMonsterCreated(new MonsterCreatedEvent(monster(1_000_000L + thread * 1000 + i)));
+                    }
+                });
+            }
+        }
+        feed.onMonsterCreated(new MonsterCreatedEvent(monster(90_000_000L)));
+
+        RecentMonstersResponse recent = recent();
+        assertThat(recent.totalMonsters()).isEqualTo(totalBefore + 16 * 200 + 1);
+        List<Long> ids = recent.monsters().stream().map(MonsterResponse::id).toList();
+        assertThat(ids).hasSize(5).doesNotHaveDuplicates().startsWith(90_000_000L);
+        assertThat(ids).isSortedAccordingTo((a, b) -> Long.compare(b, a));
+    }
+
+    @Test
+    void refreshCountsEveryMonsterFromOtherInstancesOnce() throws Exception {
+        long totalBefore = recent().totalMonsters();
+        // Written by another instance, so no event reaches this feed; more than one page and more than the feed holds
+        jdbcTemplate.update("merge into users (device_id, first_seen_at, last_seen_at) key (device_id) values (?, ?, ?)",
+            "other-instance", LocalDateTime.now(), LocalDateTime.now());
+        for (long id = 50_000_001L; id <= 50_000_012L; id++) {
+            jdbcTemplate.update("insert into monsters (id, device_id, name, image_url, image_pending, image_copy_attempts, created_at) "
+                + "values (?, ?, ?, ?, false, 0, ?)", id, "other-instance", "이웃 슬라임", "https://images.example/o.png",
+                LocalDateTime.now());
+        }
+
+        feed.refresh();
+        // One of them also arrives as an event, as it would on the instance that created it
+        feed.onMonsterCreated(new MonsterCreatedEvent(monster(50_000_012L)));
+        feed.refresh();
+
+        RecentMonstersResponse recent = recent();
+        assertThat(recent.totalMonsters()).isEqualTo(totalBefore + 12);
+        assertThat(recent.monsters()).extracting(MonsterResponse::id)
+            .containsExactly(50_000_012L, 50_000_011L, 50_000_010L, 50_000_009L, 50_000_008L);
+    }
+
+    @Test
+    void reconcileCountsMonstersTheRefreshScanMissed() throws Exception {
+        // Its id was allocated long ago but the row committed just now, below anything the ring holds
+        jdbcTemplate.update("merge into users (device_id, first_seen_at, last_seen_at) key (device_id) values (?, ?, ?)",
+            "late-instance", LocalDateTime.now(), LocalDateTime.now());
+        jdbcTemplate.update("insert into monsters (id, device_id, name, image_url, image_pending, image_copy_attempts, created_at) "
+            + "values (?, ?, ?, ?, false, 0, ?)", 40_000_001L, "late-instance", "늦은 슬라임", "https://images.example/l.png",
+            LocalDateTime.now());
+        feed.refresh();
+
+        feed.reconcileTotal();
+
+        long counted = jdbcTemplate.queryForObject("select count(*) from monsters", Long.class);
+        assertThat(recent().totalMonsters()).isEqualTo(counted);
+    }
+
+    private RecentMonstersResponse recent() throws Exception {
+        byte[] body = mockMvc.perform(get("/api/v1/monsters/recent"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsByteArray();
+        return objectMapper.readValue(body, RecentMonstersResponse.class);
+    }
+
+    private static MonsterResponse monster(long id) {
+        return new MonsterResponse(id, "https://images.example/" + id + ".png", null, null,
+            "피드 슬라임", "피드에 뜬 슬라임", LocalDateTime.now(), false);
+    }
+}
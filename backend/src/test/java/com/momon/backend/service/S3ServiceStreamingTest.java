@@ -0,0 +1,267 @@
+package com.momon.backend.service;
+
+import com.momon.backend.config.DownstreamProperties;
+import com.momon.backend.dto.StoredImage;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.MemoryPoolMXBean;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static com.momon.backend.MemoryPools.oldGeneration;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Streams images larger than the whole heap through {@link S3Service} into a local S3 stand-in,
+ * checking that the old generation grows by well under the image size. Images of normal size
+ * also get their variants stored, and a failed download is recorded under its own stage.
+ */
+class S3ServiceStreamingTest {
+
+    private static final long MB = 1024 * 1024;
+
+    private HttpServer server;
+    private String baseUrl;
+    private S3Service s3Service;
+    private SimpleMeterRegistry meterRegistry;
+
+    private final AtomicLong storedBytes = new AtomicLong();
+    private final AtomicInteger putObjectCalls = new AtomicInteger();
+    private final AtomicInteger uploadPartCalls = new AtomicInteger();
+    private final AtomicInteger completeCalls = new AtomicInteger();
+    private final List<String> putKeys = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/images/", this::serveImage);
+        server.createContext("/png/", this::servePng);
+        server.createContext("/momon-test/", this::serveS3);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        S3Client s3Client = S3Client.builder()
+            .region(Region.AP_NORTHEAST_2)
+            .endpointOverride(URI.create(baseUrl))
+            .forcePathStyle(true)
+            .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test")))
+            .build();
+        S3ImageStore imageStore = new S3ImageStore(s3Client);
+        ReflectionTestUtils.setField(imageStore, "bucketName", "momon-test");
+        ReflectionTestUtils.setField(imageStore, "region", "ap-northeast-2");
+        ReflectionTestUtils.setField(imageStore, "endpoint", baseUrl);
+        ReflectionTestUtils.setField(imageStore, "partSize", (int) (8 * MB));
+
+        meterRegistry = new SimpleMeterRegistry();
+        s3Service = new S3Service(imageStore, HttpClient.newHttpClient(),
+            new DownstreamBulkheads(new DownstreamProperties(), meterRegistry), new PipelineMetrics(meterRegistry),
+            new ImageVariants(meterRegistry, true, 256, 512, 0.8f, (int) (20 * MB), 2, 16));
+        ReflectionTestUtils.setField(s3Service, "mockModeEnabled", false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void streamsKnownLengthImageWithSinglePut() {
+        long size = oversizedImageBytes();
+
+        StoredImage stored = uploadWithBoundedHeap(baseUrl + "/images/fixed?size=" + size);
+
+        assertThat(stored.url()).startsWith(baseUrl + "/momon-test/monsters/");
+        assertThat(stored.thumbnailUrl()).isNull();
+        assertThat(putObjectCalls.get()).isEqualTo(1);
+        assertThat(uploadPartCalls.get()).isZero();
+        assertThat(storedBytes.get()).isEqualTo(size);
+    }
+
+    @Test
+    void streamsUnknownLengthImageWithMultipartUpload() {
+        long size = oversizedImageBytes();
+
+        uploadWithBoundedHeap(baseUrl + "/images/chunked?size=" + size);
+
+        assertThat(putObjectCalls.get()).isZero();
+        assertThat(uploadPartCalls.get()).isEqualTo((int) ((size + 8 * MB - 1) / (8 * MB)));
+        assertThat(completeCalls.get()).isEqualTo(1);
+        assertThat(storedBytes.get()).isEqualTo(size);
+    }
+
+    @Test
+    void storesThumbnailAndMediumVariantsNextToOriginal() {
+        StoredImage stored = s3Service.uploadMonsterImage(baseUrl + "/png/monster.png");
+
+        String base = stored.url().substring(0, stored.url().length() - ".png".length());
+        assertThat(stored.thumbnailUrl()).isEqualTo(base + "_thumb.jpg");
+        assertThat(stored.mediumUrl()).isEqualTo(base + "_medium.jpg");
+        assertThat(putObjectCalls.get()).isEqualTo(3);
+        assertThat(putKeys).anyMatch(key -> key.endsWith("_thumb.jpg")).anyMatch(key -> key.endsWith("_medium.jpg"));
+    }
+
+    @Test
+    void undecodableImageIsStoredWithoutVariants() {
+        StoredImage stored = s3Service.uploadMonsterImage(baseUrl + "/images/fixed?size=" + MB);
+
+        assertThat(stored.thumbnailUrl()).isNull();
+        assertThat(stored.mediumUrl()).isNull();
+        assertThat(putObjectCalls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void failedDownloadIsRecordedAsDownloadStage() {
+        assertThatThrownBy(() -> s3Service.uploadMonsterImage(baseUrl + "/missing/monster.png"))
+            .hasMessageContaining("download");
+
+        assertThat(stageCount("download", "error")).isEqualTo(1);
+        assertThat(stageCount("s3_put", "error")).isZero();
+        assertThat(putObjectCalls.get()).isZero();
+    }
+
+    private long stageCount(String stage, String outcome) {
+        Timer timer = meterRegistry.find("monster.create.stage").tags("stage", stage, "outcome", outcome).timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    private static long oversizedImageBytes() {
+        return Runtime.getRuntime().maxMemory() + 64 * MB;
+    }
+
+    // Buffering the image would keep it alive across young collections, so it would show up in the old generation
+    private StoredImage uploadWithBoundedHeap(String imageUrl) {
+        MemoryPoolMXBean oldGen = oldGeneration();
+        oldGen.resetPeakUsage();
+        long baseline = oldGen.getUsage().getUsed();
+
+        StoredImage stored = s3Service.uploadMonsterImage(imageUrl);
+
+        assertThat(oldGen.getPeakUsage().getUsed() - baseline)
+            .as("old generation growth while streaming %d MB", oversizedImageBytes() / MB)
+            .isLessThan(oversizedImageBytes() / 2);
+        return stored;
+    }
+
+    // Image host: generates the requested number of bytes without materializing them
+    private void serveImage(HttpExchange exchange) throws IOException {
+        long size = Long.parseLong(queryParams(exchange).get("size"));
+        boolean chunked = exchange.getRequestURI().getPath().endsWith("/chunked");
+
+        exchange.getResponseHeaders().add("Content-Type", "image/png");
+        exchange.sendResponseHeaders(200, chunked ? 0 : size);
+        byte[] block = new byte[64 * 1024];
+        try (OutputStream out = exchange.getResponseBody()) {
+            long remaining = size;
+            while (remaining > 0) {
+                int length = (int) Math.min(block.length, remaining);
+                out.write(block, 0, length);
+                remaining -= length;
+            }
+        }
+    }
+
+    private void servePng(HttpExchange exchange) throws IOException {
+        BufferedImage image = new BufferedImage(1024, 1024, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.PINK);
+        g.fillOval(128, 128, 768, 768);
+        g.dispose();
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", png);
+
+        exchange.getResponseHeaders().add("Content-Type", "image/png");
+        exchange.sendResponseHeaders(200, png.size());
+        try (OutputStream out = exchange.getResponseBody()) {
+            png.writeTo(out);
+        }
+    }
+
+    // Minimal path-style S3: PutObject, CreateMultipartUpload, UploadPart, CompleteMultipartUpload
+    private void serveS3(HttpExchange exchange) throws IOException {
+        Map<String, String> params = queryParams(exchange);
+        String method = exchange.getRequestMethod();
+        long received = drain(exchange.getRequestBody());
+        String decodedLength = exchange.getRequestHeaders().getFirst("x-amz-decoded-content-length");
+        long payloadBytes = decodedLength != null ? Long.parseLong(decodedLength) : received;
+
+        if ("POST".equals(method) && params.containsKey("uploads")) {
+            respondXml(exchange, "<InitiateMultipartUploadResult><Bucket>momon-test</Bucket>"
+                + "<Key>key</Key><UploadId>upload-1</UploadId></InitiateMultipartUploadResult>");
+        } else if ("POST".equals(method) && params.containsKey("uploadId")) {
+            completeCalls.incrementAndGet();
+            respondXml(exchange, "<CompleteMultipartUploadResult><Bucket>momon-test</Bucket>"
+                + "<Key>key</Key><ETag>\"done\"</ETag></CompleteMultipartUploadResult>");
+        } else if ("PUT".equals(method)) {
+            (params.containsKey("partNumber") ? uploadPartCalls : putObjectCalls).incrementAndGet();
+            putKeys.add(exchange.getRequestURI().getPath());
+            storedBytes.addAndGet(payloadBytes);
+            exchange.getResponseHeaders().add("ETag", "\"etag-" + payloadBytes + "\"");
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        } else {
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        }
+    }
+
+    private static long drain(InputStream in) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long total = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            total += read;
+        }
+        return total;
+    }
+
+    private static void respondXml(HttpExchange exchange, String xml) throws IOException {
+        byte[] body = xml.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Map<String, String> queryParams(HttpExchange exchange) {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return Map.of();
+        }
+        return Arrays.stream(query.split("&"))
+            .map(pair -> pair.split("=", 2))
+            .collect(Collectors.toMap(
+                pair -> pair[0], pair -> pair.length > 1 ? pair[1] : "", (a, b) -> a));
+    }
+}
@@ -0,0 +1,96 @@
+package com.momon.backend.service;
+
+import com.momon.backend.entity.User;
+import com.momon.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * lastSeenAt bumps reach the database as one batch per flush, and survive a failed flush.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:userservicetest;DB_CLOSE_DELAY=-1",
+    "spring.jpa.show-sql=false"
+})
+class UserServiceTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private FlakyJdbcTemplate jdbcTemplate;
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        // Our own instance, so the scheduled flush of the application bean never touches its buffer
+        jdbcTemplate = new FlakyJdbcTemplate(dataSource);
+        userService = new UserService(userRepository, jdbcTemplate, 1000);
+    }
+
+    @Test
+    void flushWritesEveryPendingVisitInOneBatch() throws Exception {
+        List<String> devices = List.of("flush-device-1", "flush-device-2", "flush-device-3");
+        devices.forEach(userService::touch);
+        TimeUnit.MILLISECONDS.sleep(20);
+        devices.forEach(userService::touch);
+
+        userService.flushLastSeen();
+
+        assertThat(jdbcTemplate.batches.get()).isEqualTo(1);
+        for (String deviceId : devices) {
+            User user = userRepository.findById(deviceId).orElseThrow();
+            assertThat(user.getLastSeenAt()).isAfter(user.getFirstSeenAt());
+        }
+    }
+
+    @Test
+    void failedFlushKeepsVisitsForTheNextRound() throws Exception {
+        userService.touch("retry-device");
+        TimeUnit.MILLISECONDS.sleep(20);
+        userService.touch("retry-device");
+        LocalDateTime firstSeen = userRepository.findById("retry-device").orElseThrow().getFirstSeenAt();
+
+        jdbcTemplate.failNext = true;
+        userService.flushLastSeen();
+        assertThat(userRepository.findById("retry-device").orElseThrow().getLastSeenAt()).isEqualTo(firstSeen);
+
+        userService.flushLastSeen();
+        assertThat(userRepository.findById("retry-device").orElseThrow().getLastSeenAt()).isAfter(firstSeen);
+        assertThat(jdbcTemplate.batches.get()).isEqualTo(2);
+    }
+
+    static class FlakyJdbcTemplate extends JdbcTemplate {
+
+        final AtomicInteger batches = new AtomicInteger();
+        volatile boolean failNext;
+
+        FlakyJdbcTemplate(DataSource dataSource) {
+            super(dataSource);
+        }
+
+        @Override
+        public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+            batches.incrementAndGet();
+            if (failNext) {
+                failNext = false;
+                throw new DataAccessResourceFailureException("primary unavailable");
+            }
+            return super.batchUpdate(sql, batchArgs);
+        }
+    }
+}
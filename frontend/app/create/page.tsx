@@ -4,6 +4,7 @@ import { useState, useEffect, useRef, FormEvent, ChangeEvent } from 'react';
 import { useRouter } from 'next/navigation';
 import api from '@/lib/api';
 import Image from 'next/image';
+import { v4 as uuidv4 } from 'uuid';
 
 export default function CreateMonsterPage() {
   const router = useRouter();
@@ -14,6 +15,8 @@ export default function CreateMonsterPage() {
   const [loadingMessage, setLoadingMessage] = useState('몬스터 소환 중...');
   const [error, setError] = useState('');
   const fileInputRef = useRef<HTMLInputElement>(null);
+  // Reused when the same photo and text are submitted again, so the backend does not create a second monster
+  const idempotencyKeyRef = useRef<string | null>(null);
 
   // Handle image file selection
   const handleImageSelect = (e: ChangeEvent<HTMLInputElement>) => {
@@ -30,6 +33,7 @@ export default function CreateMonsterPage() {
       }
 
       setSelectedImage(file);
+      idempotencyKeyRef.current = null;
       setError('');
 
       // Create preview URL
@@ -69,6 +73,10 @@ export default function CreateMonsterPage() {
       setLoadingMessage('거의 다 왔어요! 조금만 더 기다려주세요...');
     }, 30000);
 
+    if (!idempotencyKeyRef.current) {
+      idempotencyKeyRef.current = uuidv4();
+    }
+
     try {
       // Create FormData for multipart/form-data request
       const formData = new FormData();
@@ -79,6 +87,7 @@ export default function CreateMonsterPage() {
       const response = await api.post('/api/v1/monsters', formData, {
         headers: {
           'Content-Type': 'multipart/form-data',
+          'Idempotency-Key': idempotencyKeyRef.current,
         },
         timeout: 90000, // 90 second timeout
       });
@@ -211,7 +220,10 @@ export default function CreateMonsterPage() {
             <textarea
               id="emotion"
               value={emotionText}
-              onChange={(e) => setEmotionText(e.target.value)}
+              onChange={(e) => {
+                setEmotionText(e.target.value);
+                idempotencyKeyRef.current = null;
+              }}
               maxLength={100}
               rows={4}
               placeholder="지금의 기분이나 감정을 표현해주세요..."